@@ -0,0 +1,42 @@
+package com.healthflow.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * Reference data caches. Sizes and TTLs come from {@code spring.cache.caffeine.spec}.
+ * The caching advice is ordered outside the transaction advice, so puts and evictions
+ * happen after the surrounding transaction has committed. The caches hold detached
+ * copies of the entities, see {@link DetachedCopyCache}.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    public static final String DOCTORS = "doctors";
+    public static final String MEDICATIONS = "medications";
+    public static final String HOSPITAL_ROOMS = "hospitalRooms";
+
+    @Bean
+    public CaffeineCacheManager cacheManager(@Value("${spring.cache.caffeine.spec:}") String specification) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return new DetachedCopyCache(name, cache);
+            }
+        };
+        if (StringUtils.hasText(specification)) {
+            cacheManager.setCacheSpecification(specification);
+        }
+        cacheManager.setCacheNames(List.of(DOCTORS, MEDICATIONS, HOSPITAL_ROOMS));
+        return cacheManager;
+    }
+}
@@ -0,0 +1,60 @@
+package com.healthflow.config;
+
+import com.healthflow.mapper.DoctorMapper;
+import com.healthflow.mapper.HospitalRoomMapper;
+import com.healthflow.mapper.MedicationMapper;
+import com.healthflow.models.Doctor;
+import com.healthflow.models.HospitalRoom;
+import com.healthflow.models.Medication;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+
+/**
+ * A Caffeine cache that stores a detached copy of every entity put into it and hands out a new copy
+ * on every read. The instance a caller gets is never the one in the cache, so changing it, or a
+ * persistence context that manages it, cannot affect what other requests read. The copies leave out
+ * lazy associations.
+ */
+class DetachedCopyCache extends CaffeineCache {
+
+    DetachedCopyCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        super(name, cache, true);
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return copy(super.lookup(key));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return (T) copy(super.get(key, () -> (T) copy(valueLoader.call())));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        super.put(key, copy(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = super.putIfAbsent(key, copy(value));
+        return existing != null ? new SimpleValueWrapper(copy(existing.get())) : null;
+    }
+
+    static Object copy(Object value) {
+        if (value instanceof Doctor doctor) {
+            return DoctorMapper.INSTANCE.copy(doctor);
+        }
+        if (value instanceof Medication medication) {
+            return MedicationMapper.INSTANCE.copy(medication);
+        }
+        if (value instanceof HospitalRoom hospitalRoom) {
+            return HospitalRoomMapper.INSTANCE.copy(hospitalRoom);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,232 @@
+package com.healthflow.config;
+
+import com.healthflow.service.IdempotencyStore;
+import com.healthflow.service.IdempotencyStore.StoredResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes POST requests that carry an {@code Idempotency-Key} header safe to retry. The first request with a
+ * key runs and its response is stored; later requests with the same key, method and path get the stored
+ * response back, marked with {@code Idempotent-Replayed: true}, without running again. A duplicate that
+ * arrives while the first request is still running waits for its response. Reusing a key for a request
+ * with a different body or query string is rejected with 422.
+ * <p>
+ * Server errors are replayed only to duplicates that waited for them and are not stored, so the client
+ * can retry them.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final Duration waitTimeout;
+
+    public IdempotencyFilter(IdempotencyStore store,
+                             @Value("${healthflow.idempotency.wait-timeout:30s}") Duration waitTimeout) {
+        this.store = store;
+        this.waitTimeout = waitTimeout;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            reject(response, HttpStatus.BAD_REQUEST,
+                    "Error: " + IDEMPOTENCY_KEY + " must be between 1 and " + MAX_KEY_LENGTH + " characters.");
+            return;
+        }
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String id = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                sha256(request.getMethod(), request.getRequestURI(), key));
+        byte[] fingerprint = sha256(String.valueOf(request.getQueryString()), cachedRequest.body);
+
+        while (true) {
+            StoredResponse stored = store.find(id);
+            if (stored != null) {
+                replay(stored, fingerprint, response);
+                return;
+            }
+            CompletableFuture<StoredResponse> ours = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = store.start(id, ours);
+            if (running == null) {
+                execute(id, fingerprint, cachedRequest, response, chain, ours);
+                return;
+            }
+            try {
+                replay(running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS), fingerprint, response);
+                return;
+            } catch (TimeoutException e) {
+                reject(response, HttpStatus.CONFLICT,
+                        "Error: A request with this " + IDEMPOTENCY_KEY + " is still in progress.");
+                return;
+            } catch (ExecutionException e) {
+                // The request we waited for failed without a response; run this one instead.
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException("Interrupted while waiting for a request with the same " + IDEMPOTENCY_KEY, e);
+            }
+        }
+    }
+
+    private void execute(String id, byte[] fingerprint, CachedBodyRequest request, HttpServletResponse response,
+                         FilterChain chain, CompletableFuture<StoredResponse> ours) throws ServletException, IOException {
+        try {
+            // The previous request with this key may have finished between the lookup and start().
+            StoredResponse stored = store.find(id);
+            if (stored != null) {
+                ours.complete(stored);
+                replay(stored, fingerprint, response);
+                return;
+            }
+            ContentCachingResponseWrapper capturing = new ContentCachingResponseWrapper(response);
+            chain.doFilter(request, capturing);
+            StoredResponse result = new StoredResponse(fingerprint, capturing.getStatus(),
+                    capturing.getContentType(), capturing.getContentAsByteArray());
+            if (result.status() < 500) {
+                store.save(id, result);
+            }
+            ours.complete(result);
+            capturing.copyBodyToResponse();
+        } catch (IOException | ServletException | RuntimeException e) {
+            ours.completeExceptionally(e);
+            throw e;
+        } finally {
+            store.finish(id, ours);
+        }
+    }
+
+    private static void replay(StoredResponse stored, byte[] fingerprint, HttpServletResponse response) throws IOException {
+        if (!Arrays.equals(stored.fingerprint(), fingerprint)) {
+            reject(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Error: " + IDEMPOTENCY_KEY + " was already used for a different request.");
+            return;
+        }
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(message);
+    }
+
+    private static byte[] sha256(String... parts) {
+        MessageDigest digest = newDigest();
+        for (String part : parts) {
+            digest.update(part.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return digest.digest();
+    }
+
+    private static byte[] sha256(String prefix, byte[] body) {
+        MessageDigest digest = newDigest();
+        digest.update(prefix.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        return digest.digest(body);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Reads the request body up front so that it can be fingerprinted and still be read by the handler.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException("Asynchronous reads are not supported");
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.healthflow.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Makes the beans from the packages in {@code healthflow.startup.lazy-packages} lazy, so that they are
+ * created on first use instead of during startup. Meant for beans that no request needs right away, such
+ * as the OpenAPI documentation. A bean counts as part of a package if its class, or the configuration
+ * class declaring it, is in that package.
+ */
+@Component
+public class LazyPackagesPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private List<String> packages = List.of();
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        packages = List.of(environment.getProperty("healthflow.startup.lazy-packages", String[].class, new String[0]));
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        if (packages.isEmpty()) {
+            return;
+        }
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            if (inLazyPackage(definition.getBeanClassName())
+                    || definition.getFactoryBeanName() != null && beanFactory.containsBeanDefinition(definition.getFactoryBeanName())
+                    && inLazyPackage(beanFactory.getBeanDefinition(definition.getFactoryBeanName()).getBeanClassName())) {
+                definition.setLazyInit(true);
+            }
+        }
+    }
+
+    private boolean inLazyPackage(String className) {
+        return className != null && packages.stream().anyMatch(prefix -> className.startsWith(prefix + "."));
+    }
+}
@@ -7,8 +7,11 @@ import io.swagger.v3.oas.models.ExternalDocumentation;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.beans.factory.annotation.Value;
 
+// Only springdoc uses this, when the API docs are first requested.
+@Lazy
 @Configuration
 public class OpenApiConfig {
 
@@ -0,0 +1,41 @@
+package com.healthflow.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs whether requests are served on virtual or platform threads. Spring Boot silently falls
+ * back to platform threads when {@code spring.threads.virtual.enabled} is set on a runtime older
+ * than Java 21, which would make a load test of the {@code virtual} profile measure platform
+ * threads, so startup fails instead.
+ */
+@Component
+public class ThreadingModeReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingModeReporter.class);
+
+    private final Environment environment;
+
+    public ThreadingModeReporter(Environment environment) {
+        this.environment = environment;
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (requested && !Threading.VIRTUAL.isActive(environment)) {
+            throw new IllegalStateException("spring.threads.virtual.enabled is set but Java "
+                    + Runtime.version().feature() + " has no virtual threads; run on Java 21 or newer.");
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void reportThreadingMode() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Serving requests on virtual threads");
+        } else {
+            log.info("Serving requests on platform threads");
+        }
+    }
+}
@@ -1,12 +1,23 @@
 package com.healthflow.controller;
 
 import com.healthflow.dto.AppointmentDTO;
+import com.healthflow.dto.BulkResultDTO;
+import com.healthflow.dto.CursorPage;
 import com.healthflow.models.Appointment;
 import com.healthflow.models.Doctor;
 import com.healthflow.models.Patient;
 import com.healthflow.repository.AppointmentRepository;
-import com.healthflow.repository.DoctorRepository;
 import com.healthflow.repository.PatientRepository;
+import com.healthflow.service.AppointmentConflictException;
+import com.healthflow.service.AppointmentFilter;
+import com.healthflow.service.AppointmentScheduler;
+import com.healthflow.service.AppointmentService;
+import com.healthflow.service.AppointmentSort;
+import com.healthflow.service.BulkImportService;
+import com.healthflow.service.DoctorService;
+import com.healthflow.service.ExportFormat;
+import com.healthflow.service.ExportService;
+import com.healthflow.service.StatisticsService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,13 +26,23 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.persistence.EntityNotFoundException;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.servlet.http.HttpServletResponse;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/appointments")
@@ -29,38 +50,98 @@ import java.util.stream.Collectors;
 public class AppointmentController {
 
     private final AppointmentRepository appointmentRepository;
-    private final DoctorRepository doctorRepository;
+    private final AppointmentService appointmentService;
+    private final DoctorService doctorService;
     private final PatientRepository patientRepository;
+    private final AppointmentScheduler appointmentScheduler;
+    private final ExportService exportService;
+    private final BulkImportService bulkImportService;
+    private final StatisticsService statisticsService;
 
     public AppointmentController(AppointmentRepository appointmentRepository,
-                                 DoctorRepository doctorRepository,
-                                 PatientRepository patientRepository) {
+                                 AppointmentService appointmentService,
+                                 DoctorService doctorService,
+                                 PatientRepository patientRepository,
+                                 AppointmentScheduler appointmentScheduler,
+                                 ExportService exportService,
+                                 BulkImportService bulkImportService,
+                                 StatisticsService statisticsService) {
         this.appointmentRepository = appointmentRepository;
-        this.doctorRepository = doctorRepository;
+        this.appointmentService = appointmentService;
+        this.doctorService = doctorService;
         this.patientRepository = patientRepository;
+        this.appointmentScheduler = appointmentScheduler;
+        this.exportService = exportService;
+        this.bulkImportService = bulkImportService;
+        this.statisticsService = statisticsService;
     }
 
-    @Operation(summary = "Get all appointments", description = "Retrieves a list of all scheduled appointments.")
+    @Operation(summary = "Get appointments",
+               description = "Retrieves a page of appointments, optionally narrowed down by status, doctor, patient and a date range. "
+                       + "'from' is inclusive, 'to' exclusive. Sorted by ID unless 'sort' is date or -date; sorting by date leaves out appointments without a date. "
+                       + "Pass the same filters and sort with every 'after' cursor.")
     @ApiResponses({
-        @ApiResponse(responseCode = "200", description = "List of appointments retrieved successfully", 
-                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = AppointmentDTO.class)))
+        @ApiResponse(responseCode = "200", description = "Page of appointments retrieved successfully", 
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPage.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid filter, sort, cursor or limit")
     })
     @GetMapping
-    public List<AppointmentDTO> getAllAppointments() {
-        return appointmentRepository.findAll().stream()
-                .map(AppointmentDTO::fromEntity)
-                .collect(Collectors.toList());
+    public ResponseEntity<?> getAllAppointments(@RequestParam(required = false) Set<String> status,
+                                                @RequestParam(required = false) Long doctorId,
+                                                @RequestParam(required = false) Long patientId,
+                                                @RequestParam(required = false)
+                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                @RequestParam(required = false)
+                                                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                @RequestParam(defaultValue = "id") String sort,
+                                                @RequestParam(required = false) String after,
+                                                @RequestParam(required = false) Integer limit) {
+        try {
+            AppointmentFilter filter = new AppointmentFilter(status, doctorId, patientId, from, to);
+            return ResponseEntity.ok(appointmentService.findAppointments(filter, AppointmentSort.fromParameter(sort), after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Export all appointments", description = "Streams every appointment as NDJSON or CSV without loading the whole table into memory.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+        @ApiResponse(responseCode = "400", description = "Unsupported export format")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<?> exportAppointments(@RequestParam(defaultValue = "ndjson") String format,
+                                                HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        }
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"appointments." + exportFormat.getExtension() + "\"");
+        exportService.exportAppointments(exportFormat, response.getOutputStream());
+        return null;
     }
 
     @Operation(summary = "Get appointment by ID", description = "Retrieves an appointment by its ID.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Appointment found",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = AppointmentDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Not modified since the version in If-None-Match", content = @Content),
         @ApiResponse(responseCode = "404", description = "Appointment not found")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<?> getAppointmentById(@PathVariable Long id) {
+    public ResponseEntity<?> getAppointmentById(@PathVariable Long id, WebRequest request) {
         try {
+            Long version = appointmentRepository.findVersionById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Appointment with ID " + id + " not found."));
+            if (request.checkNotModified(ETags.of(version))) {
+                return null;
+            }
             Appointment appointment = appointmentRepository.findById(id)
                     .orElseThrow(() -> new EntityNotFoundException("Appointment with ID " + id + " not found."));
             
@@ -75,12 +156,13 @@ public class AppointmentController {
     @ApiResponses({
         @ApiResponse(responseCode = "201", description = "Appointment created successfully", 
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = AppointmentDTO.class))),
-        @ApiResponse(responseCode = "400", description = "Doctor or Patient not found", content = @Content(mediaType = "application/json"))
+        @ApiResponse(responseCode = "400", description = "Doctor or Patient not found, or the start time is not on the slot grid", content = @Content(mediaType = "application/json")),
+        @ApiResponse(responseCode = "409", description = "Doctor or Patient already booked at that time", content = @Content(mediaType = "application/json"))
     })
     @PostMapping
     public ResponseEntity<?> createAppointment(@RequestBody AppointmentDTO appointmentDTO) {
         try {
-            Doctor doctor = doctorRepository.findById(appointmentDTO.getDoctorId())
+            Doctor doctor = findDoctor(appointmentDTO.getDoctorId())
                     .orElseThrow(() -> new IllegalArgumentException("Doctor with ID " + appointmentDTO.getDoctorId() + " not found."));
             
             Patient patient = patientRepository.findById(appointmentDTO.getPatientId())
@@ -90,45 +172,89 @@ public class AppointmentController {
             appointment.setDoctor(doctor);
             appointment.setPatient(patient);
     
-            Appointment savedAppointment = appointmentRepository.save(appointment);
+            Appointment savedAppointment = appointmentScheduler.schedule(appointment);
+            statisticsService.appointmentSaved(savedAppointment);
             return ResponseEntity.status(HttpStatus.CREATED).body(AppointmentDTO.fromEntity(savedAppointment));
     
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
     
+        } catch (AppointmentConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
+
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Error: Doctor or Patient already has an appointment at that time.");
+
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: Could not create appointment. " + e.getMessage());
         }
     }    
 
+    @Operation(summary = "Create appointments in bulk", description = "Inserts many appointments in batched transactions and reports the items that could not be created. Appointments are checked against the doctor's and patient's existing bookings.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Bulk insert processed; failed items are listed with their errors",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized request", content = @Content)
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createAppointmentsInBulk(@RequestBody List<AppointmentDTO> appointments) {
+        try {
+            return ResponseEntity.ok(bulkImportService.importAppointments(appointments));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        }
+    }
+
     @Operation(summary = "Update an appointment", description = "Updates an existing appointment's details.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Appointment updated successfully", 
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = AppointmentDTO.class))),
-        @ApiResponse(responseCode = "400", description = "Doctor or Patient not found"),
-        @ApiResponse(responseCode = "404", description = "Appointment not found")
+        @ApiResponse(responseCode = "400", description = "Doctor or Patient not found, or the start time is not on the slot grid"),
+        @ApiResponse(responseCode = "404", description = "Appointment not found"),
+        @ApiResponse(responseCode = "409", description = "Doctor or Patient already booked at that time, or the appointment was modified by a concurrent request"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateAppointment(@PathVariable Long id, @RequestBody AppointmentDTO appointmentDTO) {
-        return appointmentRepository.findById(id).map(appointment -> {
-            
-            Doctor doctor = doctorRepository.findById(appointmentDTO.getDoctorId()).orElse(null);
-            Patient patient = patientRepository.findById(appointmentDTO.getPatientId()).orElse(null);
-    
-            if (doctor == null || patient == null) {
-                return ResponseEntity.badRequest().body("Doctor or Patient not found"); 
-            }
-    
-            appointment.setDoctor(doctor);
-            appointment.setPatient(patient);
-            appointment.setDate(appointmentDTO.getDate());
-            appointment.setStatus(appointmentDTO.getStatus());
+    public ResponseEntity<?> updateAppointment(@PathVariable Long id, @RequestBody AppointmentDTO appointmentDTO,
+                                               WebRequest request) {
+        Optional<Appointment> existingAppointment = appointmentRepository.findById(id);
+        if (existingAppointment.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Appointment appointment = existingAppointment.get();
+        if (request.checkNotModified(ETags.of(appointment.getVersion()))) {
+            return null;
+        }
+
+        Doctor doctor = findDoctor(appointmentDTO.getDoctorId()).orElse(null);
+        Patient patient = patientRepository.findById(appointmentDTO.getPatientId()).orElse(null);
     
-            Appointment updatedAppointment = appointmentRepository.save(appointment);
+        if (doctor == null || patient == null) {
+            return ResponseEntity.badRequest().body("Doctor or Patient not found");
+        }
+
+        appointment.setDoctor(doctor);
+        appointment.setPatient(patient);
+        appointment.setDate(appointmentDTO.getDate());
+        appointment.setStatus(appointmentDTO.getStatus());
     
-            return ResponseEntity.ok(AppointmentDTO.fromEntity(updatedAppointment));
-        }).orElse(ResponseEntity.notFound().build());
+        try {
+            Appointment updatedAppointment = appointmentScheduler.schedule(appointment);
+            statisticsService.appointmentSaved(updatedAppointment);
+            return ResponseEntity.ok().eTag(ETags.of(updatedAppointment.getVersion()))
+                    .body(AppointmentDTO.fromEntity(updatedAppointment));
+        } catch (OptimisticLockingFailureException e) {
+            return ETags.conflict(request, "Appointment with ID " + id + " was modified by another request.");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        } catch (AppointmentConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Error: Doctor or Patient already has an appointment at that time.");
+        }
     }    
 
     @Operation(summary = "Delete an appointment", description = "Deletes an appointment by its ID.")
@@ -140,9 +266,19 @@ public class AppointmentController {
     public ResponseEntity<String> deleteAppointment(@PathVariable Long id) {
         if (appointmentRepository.existsById(id)) {
             appointmentRepository.deleteById(id);
+            appointmentScheduler.cancel(id);
+            statisticsService.appointmentDeleted(id);
             return ResponseEntity.ok("The appointment with ID " + id + " has been successfully deleted.");
         }
         return ResponseEntity.status(HttpStatus.NOT_FOUND)
                             .body("No appointment found with ID " + id);
     }
+
+    private Optional<Doctor> findDoctor(Long doctorId) {
+        try {
+            return Optional.of(doctorService.getDoctorById(doctorId));
+        } catch (EntityNotFoundException e) {
+            return Optional.empty();
+        }
+    }
 }
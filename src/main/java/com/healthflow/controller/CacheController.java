@@ -0,0 +1,53 @@
+package com.healthflow.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.healthflow.dto.CacheStatsDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/caches")
+@Tag(name = "Caches", description = "API for inspecting the reference data caches")
+public class CacheController {
+
+    private final CacheManager cacheManager;
+
+    public CacheController(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Operation(summary = "Get cache statistics", description = "Retrieves hit, miss and eviction counters of every cache.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Cache statistics retrieved successfully",
+                     content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = CacheStatsDTO.class))))
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        List<CacheStatsDTO> stats = cacheManager.getCacheNames().stream()
+                .sorted()
+                .map(cacheManager::getCache)
+                .filter(CaffeineCache.class::isInstance)
+                .map(CaffeineCache.class::cast)
+                .map(cache -> {
+                    CacheStats cacheStats = cache.getNativeCache().stats();
+                    return new CacheStatsDTO(cache.getName(), cache.getNativeCache().estimatedSize(),
+                            cacheStats.hitCount(), cacheStats.missCount(), cacheStats.hitRate(),
+                            cacheStats.evictionCount());
+                })
+                .toList();
+        return ResponseEntity.ok(stats);
+    }
+}
@@ -1,5 +1,6 @@
 package com.healthflow.controller;
 
+import com.healthflow.dto.CursorPage;
 import com.healthflow.dto.DoctorDTO;
 import com.healthflow.models.Doctor;
 import com.healthflow.service.DoctorService;
@@ -11,14 +12,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
-import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/doctors")
@@ -31,34 +32,43 @@ public class DoctorController {
         this.doctorService = doctorService;
     }
 
-    @Operation(summary = "Get all doctors", description = "Retrieves a list of all registered doctors.")
+    @Operation(summary = "Get all doctors", description = "Retrieves a page of registered doctors ordered by ID.")
     @ApiResponses({
-        @ApiResponse(responseCode = "200", description = "List of doctors retrieved successfully", 
-                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = DoctorDTO.class))),
-        @ApiResponse(responseCode = "204", description = "No doctors found")
+        @ApiResponse(responseCode = "200", description = "Page of doctors retrieved successfully", 
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPage.class))),
+        @ApiResponse(responseCode = "204", description = "No doctors found"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit", content = @Content)
     })
     @GetMapping
-    public ResponseEntity<List<DoctorDTO>> getAllDoctors() {
-        List<DoctorDTO> doctors = doctorService.getAllDoctors()
-                .stream()
-                .map(DoctorDTO::fromEntity)
-                .collect(Collectors.toList());
+    public ResponseEntity<?> getAllDoctors(@RequestParam(required = false) String after,
+                                           @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPage<DoctorDTO> doctors = doctorService.getDoctors(after, limit)
+                    .map(DoctorDTO::fromEntity);
 
-        return doctors.isEmpty()
-                ? ResponseEntity.noContent().build()
-                : ResponseEntity.ok(doctors);
+            return doctors.items().isEmpty()
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.ok(doctors);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Invalid request: " + e.getMessage());
+        }
     }
 
     @Operation(summary = "Get doctor by ID", description = "Retrieves a doctor's details by their ID.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Doctor retrieved successfully", 
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = DoctorDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Not modified since the version in If-None-Match", content = @Content),
         @ApiResponse(responseCode = "404", description = "Doctor not found")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<?> getDoctorById(@PathVariable Long id) {
+    public ResponseEntity<?> getDoctorById(@PathVariable Long id, WebRequest request) {
         try {
             Doctor doctor = doctorService.getDoctorById(id);
+            if (request.checkNotModified(ETags.of(doctor.getVersion()))) {
+                return null;
+            }
             return ResponseEntity.ok(DoctorDTO.fromEntity(doctor));
         } catch (EntityNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -91,16 +101,26 @@ public class DoctorController {
         @ApiResponse(responseCode = "200", description = "Doctor updated successfully", 
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = DoctorDTO.class))),
         @ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content),
-        @ApiResponse(responseCode = "404", description = "Doctor not found", content = @Content)
+        @ApiResponse(responseCode = "404", description = "Doctor not found", content = @Content),
+        @ApiResponse(responseCode = "409", description = "Doctor was modified by a concurrent request", content = @Content),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version", content = @Content)
     })
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateDoctor(@PathVariable Long id, @Valid @RequestBody DoctorDTO doctorDTO) {
+    public ResponseEntity<?> updateDoctor(@PathVariable Long id, @Valid @RequestBody DoctorDTO doctorDTO,
+                                          WebRequest request) {
         try {
-            Doctor updatedDoctor = doctorService.updateDoctor(id, doctorDTO.toEntity());
-            return ResponseEntity.ok(DoctorDTO.fromEntity(updatedDoctor));
+            Long version = doctorService.getDoctorVersion(id);
+            if (request.checkNotModified(ETags.of(version))) {
+                return null;
+            }
+            Doctor updatedDoctor = doctorService.updateDoctor(id, doctorDTO.toEntity(),
+                    ETags.hasIfMatch(request) ? version : null);
+            return ResponseEntity.ok().eTag(ETags.of(updatedDoctor.getVersion())).body(DoctorDTO.fromEntity(updatedDoctor));
         } catch (EntityNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body("Error: Doctor with ID " + id + " not found.");
+        } catch (OptimisticLockingFailureException e) {
+            return ETags.conflict(request, "Doctor with ID " + id + " was modified by another request.");
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body("Invalid request: " + e.getMessage());
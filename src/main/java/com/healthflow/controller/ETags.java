@@ -0,0 +1,40 @@
+package com.healthflow.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.StringJoiner;
+
+/**
+ * Strong entity tags for single-resource responses. A resource's tag is built from the {@code @Version}
+ * of the entities it is rendered from, so it can be computed with a version lookup instead of loading
+ * and serializing the resource.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Object... versions) {
+        StringJoiner tag = new StringJoiner("-", "\"", "\"");
+        for (Object version : versions) {
+            tag.add(String.valueOf(version));
+        }
+        return tag.toString();
+    }
+
+    static boolean hasIfMatch(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_MATCH) != null;
+    }
+
+    /**
+     * Answers a write that lost a race with another one: 412 when the client sent If-Match, since its
+     * precondition no longer holds, and 409 otherwise.
+     */
+    static ResponseEntity<?> conflict(WebRequest request, String message) {
+        HttpStatus status = hasIfMatch(request) ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body("Error: " + message);
+    }
+}
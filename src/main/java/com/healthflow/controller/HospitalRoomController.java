@@ -1,8 +1,10 @@
 package com.healthflow.controller;
 
+import com.healthflow.dto.CursorPage;
 import com.healthflow.dto.HospitalRoomDTO;
 import com.healthflow.models.HospitalRoom;
-import com.healthflow.repository.HospitalRoomRepository;
+import com.healthflow.service.HospitalRoomService;
+import com.healthflow.service.RoomUnavailableException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -10,37 +12,70 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.persistence.EntityNotFoundException;
 
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/hospitalRooms")
 @Tag(name = "Hospital Rooms", description = "API for managing hospital rooms")
 public class HospitalRoomController {
 
-    private final HospitalRoomRepository hospitalRoomRepository;
+    private final HospitalRoomService hospitalRoomService;
 
-    public HospitalRoomController(HospitalRoomRepository hospitalRoomRepository) {
-        this.hospitalRoomRepository = hospitalRoomRepository;
+    public HospitalRoomController(HospitalRoomService hospitalRoomService) {
+        this.hospitalRoomService = hospitalRoomService;
     }
 
-    @Operation(summary = "Get all hospital rooms", description = "Retrieve a list of all hospital rooms available.")
-    @ApiResponse(responseCode = "200", description = "List of hospital rooms retrieved successfully")
+    @Operation(summary = "Get all hospital rooms", description = "Retrieve a page of hospital rooms ordered by ID.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Page of hospital rooms retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+    })
     @GetMapping
-    public List<HospitalRoomDTO> getAllHospitalRooms() {
-        return hospitalRoomRepository.findAll().stream()
-                .map(HospitalRoomDTO::fromEntity)
-                .toList();
+    public ResponseEntity<?> getAllHospitalRooms(@RequestParam(required = false) String after,
+                                                 @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(hospitalRoomService.getRooms(after, limit).map(HospitalRoomDTO::fromEntity));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Invalid request: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Find free hospital rooms", description = "Retrieve free hospital rooms of the given type from the in-memory availability index.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Free hospital rooms retrieved successfully"),
+        @ApiResponse(responseCode = "400", description = "Missing type or invalid limit")
+    })
+    @GetMapping("/free")
+    public ResponseEntity<?> findFreeHospitalRooms(@RequestParam(required = false) String type,
+                                                   @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(hospitalRoomService.findFreeRooms(type, limit).stream()
+                    .map(HospitalRoomDTO::fromEntity)
+                    .toList());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Invalid request: " + e.getMessage());
+        }
     }
 
+    @Operation(summary = "Get a hospital room by ID", description = "Retrieve a hospital room; answers 304 when If-None-Match holds its current version.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Hospital room retrieved successfully"),
+        @ApiResponse(responseCode = "304", description = "Not modified since the version in If-None-Match"),
+        @ApiResponse(responseCode = "404", description = "Hospital room not found")
+    })
     @GetMapping("/{id}")
-    public ResponseEntity<?> getHospitalRoomById(@PathVariable Long id) {
+    public ResponseEntity<?> getHospitalRoomById(@PathVariable Long id, WebRequest request) {
         try {
-            HospitalRoom hospitalRoom = hospitalRoomRepository.findById(id)
-                    .orElseThrow(() -> new EntityNotFoundException("Hospital room with ID " + id + " not found."));
+            HospitalRoom hospitalRoom = hospitalRoomService.getRoomById(id);
+            if (request.checkNotModified(ETags.of(hospitalRoom.getVersion()))) {
+                return null;
+            }
             return ResponseEntity.ok(HospitalRoomDTO.fromEntity(hospitalRoom));
         } catch (EntityNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -57,7 +92,7 @@ public class HospitalRoomController {
     public ResponseEntity<?> createHospitalRoom(@RequestBody HospitalRoomDTO hospitalRoomDTO) {
         try {
             HospitalRoom hospitalRoom = hospitalRoomDTO.toEntity();
-            HospitalRoom savedRoom = hospitalRoomRepository.save(hospitalRoom);
+            HospitalRoom savedRoom = hospitalRoomService.saveRoom(hospitalRoom);
             return ResponseEntity.status(HttpStatus.CREATED).body(HospitalRoomDTO.fromEntity(savedRoom));
         } catch (DataIntegrityViolationException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -68,21 +103,90 @@ public class HospitalRoomController {
         }
     }
 
+    @Operation(summary = "Admit a patient to a hospital room", description = "Assign a patient to the given room if it is free, releasing the patient's previous room.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Patient admitted successfully"),
+        @ApiResponse(responseCode = "404", description = "Hospital room or patient not found"),
+        @ApiResponse(responseCode = "409", description = "Hospital room is not available")
+    })
+    @PostMapping("/{id}/admissions")
+    public ResponseEntity<?> admitPatient(@PathVariable Long id, @RequestParam Long patientId) {
+        try {
+            return ResponseEntity.ok(HospitalRoomDTO.fromEntity(hospitalRoomService.admitPatient(id, patientId)));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Error: " + e.getMessage());
+        } catch (RoomUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Admit a patient to any free room", description = "Assign a patient to the first free hospital room of the given type.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Patient admitted successfully"),
+        @ApiResponse(responseCode = "400", description = "Missing room type"),
+        @ApiResponse(responseCode = "404", description = "Patient not found"),
+        @ApiResponse(responseCode = "409", description = "No free hospital room of that type")
+    })
+    @PostMapping("/admissions")
+    public ResponseEntity<?> admitPatientToFreeRoom(@RequestParam(required = false) String type, @RequestParam Long patientId) {
+        try {
+            return ResponseEntity.ok(HospitalRoomDTO.fromEntity(hospitalRoomService.admitPatientToFreeRoom(type, patientId)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Invalid request: " + e.getMessage());
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Error: " + e.getMessage());
+        } catch (RoomUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Discharge a patient", description = "Remove a patient from a hospital room and mark the room as free.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Patient discharged successfully"),
+        @ApiResponse(responseCode = "400", description = "Patient is not admitted to this room"),
+        @ApiResponse(responseCode = "404", description = "Patient not found")
+    })
+    @DeleteMapping("/{id}/admissions/{patientId}")
+    public ResponseEntity<?> dischargePatient(@PathVariable Long id, @PathVariable Long patientId) {
+        try {
+            return ResponseEntity.ok(HospitalRoomDTO.fromEntity(hospitalRoomService.dischargePatient(id, patientId)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Invalid request: " + e.getMessage());
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
     @Operation(summary = "Update a hospital room", description = "Modify the details of an existing hospital room.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Hospital room updated successfully"),
-        @ApiResponse(responseCode = "404", description = "Hospital room not found")
+        @ApiResponse(responseCode = "404", description = "Hospital room not found"),
+        @ApiResponse(responseCode = "409", description = "Hospital room was modified by a concurrent request"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<HospitalRoomDTO> updateHospitalRoom(@PathVariable Long id, @RequestBody HospitalRoomDTO hospitalRoomDTO) {
-        return hospitalRoomRepository.findById(id).map(room -> {
-            room.setRoomNumber(hospitalRoomDTO.getRoomNumber());
-            room.setType(hospitalRoomDTO.getType());
-            room.setAvailability(hospitalRoomDTO.getAvailability());
-
-            HospitalRoom updatedRoom = hospitalRoomRepository.save(room);
-            return ResponseEntity.ok(HospitalRoomDTO.fromEntity(updatedRoom));
-        }).orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<?> updateHospitalRoom(@PathVariable Long id, @RequestBody HospitalRoomDTO hospitalRoomDTO,
+                                                WebRequest request) {
+        try {
+            Long version = hospitalRoomService.getRoomVersion(id);
+            if (request.checkNotModified(ETags.of(version))) {
+                return null;
+            }
+            HospitalRoom updatedRoom = hospitalRoomService.updateRoom(id, hospitalRoomDTO.toEntity(),
+                    ETags.hasIfMatch(request) ? version : null);
+            return ResponseEntity.ok().eTag(ETags.of(updatedRoom.getVersion())).body(HospitalRoomDTO.fromEntity(updatedRoom));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ETags.conflict(request, "Hospital room with ID " + id + " was modified by another request.");
+        }
     }
 
     @Operation(summary = "Delete a hospital room", description = "Remove a hospital room from the system by its ID.")
@@ -92,11 +196,12 @@ public class HospitalRoomController {
     })
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteHospitalRoom(@PathVariable Long id) {
-        if (hospitalRoomRepository.existsById(id)) {
-            hospitalRoomRepository.deleteById(id);
+        try {
+            hospitalRoomService.deleteRoom(id);
             return ResponseEntity.ok("Hospital room deleted successfully.");
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Error: " + e.getMessage());
         }
-        return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                .body("Error: Hospital room with ID " + id + " not found.");
     }
 }
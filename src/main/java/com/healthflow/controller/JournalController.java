@@ -0,0 +1,57 @@
+package com.healthflow.controller;
+
+import com.healthflow.dto.CursorPage;
+import com.healthflow.service.ChangeJournal;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/journal")
+@Tag(name = "Change journal", description = "API for reading the journal of committed entity changes")
+public class JournalController {
+
+    private final ChangeJournal changeJournal;
+
+    public JournalController(ChangeJournal changeJournal) {
+        this.changeJournal = changeJournal;
+    }
+
+    @Operation(summary = "Scan the change journal",
+               description = "Retrieves committed patient, medical record, prescription and appointment changes in the order they were written, read from the journal files rather than the database. Filter by entity type, entity ID and commit time.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Page of journal entries retrieved successfully",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPage.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid entity, time range, cursor or limit", content = @Content)
+    })
+    // JSON only: entry states are embedded as raw JSON, which the binary formats cannot carry.
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> scanJournal(@RequestParam(required = false) String entity,
+                                         @RequestParam(required = false) Long entityId,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                         @RequestParam(required = false) String after,
+                                         @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(changeJournal.scan(entity, entityId, from, to, after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Invalid request: " + e.getMessage());
+        }
+    }
+}
@@ -1,8 +1,16 @@
 package com.healthflow.controller;
 
+import com.healthflow.dto.BulkResultDTO;
+import com.healthflow.dto.CursorPage;
 import com.healthflow.dto.MedicalRecordDTO;
 import com.healthflow.models.MedicalRecord;
+import com.healthflow.models.Patient;
 import com.healthflow.repository.MedicalRecordRepository;
+import com.healthflow.repository.PatientRepository;
+import com.healthflow.service.BulkImportService;
+import com.healthflow.service.ExportFormat;
+import com.healthflow.service.ExportService;
+import com.healthflow.service.MedicalRecordService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -10,13 +18,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletResponse;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/medicalRecords")
@@ -24,42 +39,88 @@ import java.util.stream.Collectors;
 public class MedicalRecordController {
 
     private final MedicalRecordRepository medicalRecordRepository;
+    private final MedicalRecordService medicalRecordService;
+    private final PatientRepository patientRepository;
+    private final ExportService exportService;
+    private final BulkImportService bulkImportService;
 
-    public MedicalRecordController(MedicalRecordRepository medicalRecordRepository) {
+    public MedicalRecordController(MedicalRecordRepository medicalRecordRepository, MedicalRecordService medicalRecordService,
+                                   PatientRepository patientRepository, ExportService exportService,
+                                   BulkImportService bulkImportService) {
         this.medicalRecordRepository = medicalRecordRepository;
+        this.medicalRecordService = medicalRecordService;
+        this.patientRepository = patientRepository;
+        this.exportService = exportService;
+        this.bulkImportService = bulkImportService;
     }
 
-    private MedicalRecordDTO convertToDTO(MedicalRecord medicalRecord) {
-        return new MedicalRecordDTO(
-                medicalRecord.getId(),
-                medicalRecord.getPatient().getId(),  
-                medicalRecord.getDiagnosis(),
-                medicalRecord.getTreatment(),
-                medicalRecord.getDate()
-        );
+    // Request bodies carry the patient's ID only; a reference keeps that unversioned copy from being taken for a new patient.
+    private Patient patientReference(Patient patient) {
+        return patient == null ? null : patientRepository.getReferenceById(patient.getId());
     }
 
-    @Operation(summary = "Get all medical records", description = "Retrieves a list of all medical records")
+    @Operation(summary = "Get all medical records", description = "Retrieves a page of medical records ordered by ID")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Page of medical records retrieved successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPage.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit")
+    })
     @GetMapping
-    public List<MedicalRecordDTO> getAllMedicalRecords() {
-        List<MedicalRecord> medicalRecords = medicalRecordRepository.findAll();
-        return medicalRecords.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public ResponseEntity<?> getAllMedicalRecords(@RequestParam(required = false) String after,
+                                                  @RequestParam(required = false) Integer limit) {
+        try {
+            int pageSize = CursorPage.resolveLimit(limit);
+            List<MedicalRecord> rows = medicalRecordRepository.findByIdGreaterThanOrderByIdAsc(
+                    CursorPage.decodeIdCursor(after), Limit.of(pageSize + 1));
+            return ResponseEntity.ok(CursorPage.fromRows(rows, pageSize, record -> CursorPage.encodeCursor(record.getId()))
+                    .map(MedicalRecordDTO::fromEntity));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Export all medical records", description = "Streams every medical record as NDJSON or CSV without loading the whole table into memory.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+        @ApiResponse(responseCode = "400", description = "Unsupported export format")
+    })
+    @GetMapping("/export")
+    public ResponseEntity<?> exportMedicalRecords(@RequestParam(defaultValue = "ndjson") String format,
+                                                  HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        }
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"medicalRecords." + exportFormat.getExtension() + "\"");
+        exportService.exportMedicalRecords(exportFormat, response.getOutputStream());
+        return null;
     }
 
     @Operation(summary = "Get a medical record by ID", description = "Retrieves a specific medical record by its ID")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Medical record retrieved successfully",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = MedicalRecordDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Not modified since the version in If-None-Match", content = @Content),
         @ApiResponse(responseCode = "404", description = "Medical record not found")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<?> getMedicalRecordById(@PathVariable Long id) {
+    public ResponseEntity<?> getMedicalRecordById(@PathVariable Long id, WebRequest request) {
         try {
+            Long version = medicalRecordRepository.findVersionById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Medical record with ID " + id + " not found."));
+            if (request.checkNotModified(ETags.of(version))) {
+                return null;
+            }
             MedicalRecord medicalRecord = medicalRecordRepository.findById(id)
                     .orElseThrow(() -> new EntityNotFoundException("Medical record with ID " + id + " not found."));
-            return ResponseEntity.ok(convertToDTO(medicalRecord));
+            return ResponseEntity.ok(MedicalRecordDTO.fromEntity(medicalRecord));
         } catch (EntityNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body("Error: " + e.getMessage());
@@ -75,26 +136,59 @@ public class MedicalRecordController {
     @PostMapping
     public ResponseEntity<?> createMedicalRecord(@RequestBody MedicalRecord medicalRecord) {
         try {
+            medicalRecord.setPatient(patientReference(medicalRecord.getPatient()));
             MedicalRecord savedRecord = medicalRecordRepository.save(medicalRecord);
-            return ResponseEntity.status(HttpStatus.CREATED).body(convertToDTO(savedRecord));
+            return ResponseEntity.status(HttpStatus.CREATED).body(MedicalRecordDTO.fromEntity(savedRecord));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body("Error: Unable to create medical record. " + e.getMessage());
         }
     }
 
+    @Operation(summary = "Create medical records in bulk", description = "Inserts many medical records in batched transactions and reports the items that could not be created.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Bulk insert processed; failed items are listed with their errors",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized request", content = @Content)
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createMedicalRecordsInBulk(@RequestBody List<MedicalRecordDTO> medicalRecords) {
+        try {
+            return ResponseEntity.ok(bulkImportService.importMedicalRecords(medicalRecords));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        }
+    }
+
     @Operation(summary = "Update a medical record", description = "Updates an existing medical record by its ID")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Medical record updated successfully"),
+        @ApiResponse(responseCode = "404", description = "Medical record not found"),
+        @ApiResponse(responseCode = "409", description = "Medical record was modified by a concurrent request"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version")
+    })
     @PutMapping("/{id}")
-    public ResponseEntity<String> updateMedicalRecord(@PathVariable Long id, @RequestBody MedicalRecord medicalRecordDetails) {
-        return medicalRecordRepository.findById(id).map(record -> {
-            record.setPatient(medicalRecordDetails.getPatient());
+    public ResponseEntity<?> updateMedicalRecord(@PathVariable Long id, @RequestBody MedicalRecord medicalRecordDetails,
+                                                 WebRequest request) {
+        Optional<MedicalRecord> existingRecord = medicalRecordRepository.findById(id);
+        if (existingRecord.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Medical record not found.");
+        }
+        MedicalRecord record = existingRecord.get();
+        if (request.checkNotModified(ETags.of(record.getVersion()))) {
+            return null;
+        }
+        try {
+            record.setPatient(patientReference(medicalRecordDetails.getPatient()));
             record.setDiagnosis(medicalRecordDetails.getDiagnosis());
             record.setTreatment(medicalRecordDetails.getTreatment());
             record.setDate(medicalRecordDetails.getDate());
-            medicalRecordRepository.save(record);
-            return ResponseEntity.ok("Medical record updated successfully.");
-        }).orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
-                .body("Medical record not found."));
+            MedicalRecord savedRecord = medicalRecordRepository.save(record);
+            return ResponseEntity.ok().eTag(ETags.of(savedRecord.getVersion())).body("Medical record updated successfully.");
+        } catch (OptimisticLockingFailureException e) {
+            return ETags.conflict(request, "Medical record with ID " + id + " was modified by another request.");
+        }
     }
 
     @Operation(summary = "Delete a medical record", description = "Deletes a medical record by its ID")
@@ -105,8 +199,7 @@ public class MedicalRecordController {
         @DeleteMapping("/{id}")
         public ResponseEntity<?> deleteMedicalRecord(@PathVariable Long id) {
             try {
-                if (medicalRecordRepository.existsById(id)) {
-                    medicalRecordRepository.deleteById(id);
+                if (medicalRecordService.deleteMedicalRecord(id)) {
                     return ResponseEntity.ok("Medical record deleted successfully.");
                 }
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -1,7 +1,12 @@
 package com.healthflow.controller;
 
+import com.healthflow.dto.BulkResultDTO;
+import com.healthflow.dto.CursorPage;
 import com.healthflow.dto.MedicationDTO;
+import com.healthflow.dto.StockLevelDTO;
+import com.healthflow.dto.StockReservationDTO;
 import com.healthflow.models.Medication;
+import com.healthflow.service.BulkImportService;
 import com.healthflow.service.MedicationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,12 +14,15 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
+
 import java.util.List;
 
 @RestController
@@ -23,38 +31,70 @@ import java.util.List;
 public class MedicationController {
 
     private final MedicationService medicationService;
+    private final BulkImportService bulkImportService;
 
-    public MedicationController(MedicationService medicationService) {
+    public MedicationController(MedicationService medicationService,
+                                BulkImportService bulkImportService) {
         this.medicationService = medicationService;
+        this.bulkImportService = bulkImportService;
     }
 
-    @Operation(summary = "Get all medications", description = "Retrieves a list of all available medications.")
+    @Operation(summary = "Get all medications", description = "Retrieves a page of available medications ordered by ID.")
     @ApiResponses({
-        @ApiResponse(responseCode = "200", description = "List of medications retrieved successfully", 
-                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = MedicationDTO.class)))
+        @ApiResponse(responseCode = "200", description = "Page of medications retrieved successfully", 
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPage.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit", content = @Content(mediaType = "application/json"))
     })
     @GetMapping
-    public ResponseEntity<List<MedicationDTO>> getAllMedications() {
-        List<MedicationDTO> medications = medicationService.getAllMedications()
-                .stream()
-                .map(MedicationDTO::fromEntity)
-                .toList();
-        
-        return medications.isEmpty() 
-                ? ResponseEntity.status(HttpStatus.NO_CONTENT).build()
-                : ResponseEntity.ok(medications);
+    public ResponseEntity<?> getAllMedications(@RequestParam(required = false) String after,
+                                               @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPage<MedicationDTO> medications = medicationService.getMedications(after, limit)
+                    .map(MedicationDTO::fromEntity);
+            
+            return medications.items().isEmpty() 
+                    ? ResponseEntity.status(HttpStatus.NO_CONTENT).build()
+                    : ResponseEntity.ok(medications);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Get expiring medications",
+               description = "Retrieves medications whose expiration date falls within the given number of days (30 by default), soonest first, answered from memory. Already expired medications come first unless 'includeExpired' is false.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Page of expiring medications retrieved successfully",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPage.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid days, cursor or limit", content = @Content)
+    })
+    @GetMapping("/expiring")
+    public ResponseEntity<?> getExpiringMedications(@RequestParam(required = false) Integer days,
+                                                    @RequestParam(defaultValue = "true") boolean includeExpired,
+                                                    @RequestParam(required = false) String after,
+                                                    @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(medicationService.getExpiringMedications(days, includeExpired, after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Invalid request: " + e.getMessage());
+        }
     }
 
     @Operation(summary = "Get medication by ID", description = "Retrieves a specific medication by its ID.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Medication retrieved successfully", 
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = MedicationDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Not modified since the version in If-None-Match", content = @Content),
         @ApiResponse(responseCode = "404", description = "Medication not found", content = @Content(mediaType = "application/json"))
     })
     @GetMapping("/{id}")
-    public ResponseEntity<?> getMedicationById(@PathVariable Long id) {
+    public ResponseEntity<?> getMedicationById(@PathVariable Long id, WebRequest request) {
         try {
             Medication medication = medicationService.getMedicationById(id);
+            if (request.checkNotModified(ETags.of(medication.getVersion()))) {
+                return null;
+            }
             return ResponseEntity.ok(MedicationDTO.fromEntity(medication));
         } catch (EntityNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -87,23 +127,50 @@ public class MedicationController {
         }
     }
     
+    @Operation(summary = "Create medications in bulk", description = "Inserts many medications in batched transactions and reports the items that could not be created.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Bulk insert processed; failed items are listed with their errors",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized request", content = @Content)
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createMedicationsInBulk(@RequestBody List<MedicationDTO> medications) {
+        try {
+            return ResponseEntity.ok(bulkImportService.importMedications(medications));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        }
+    }
+
     @Operation(summary = "Update a medication", description = "Updates the details of an existing medication.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Medication updated successfully", 
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = MedicationDTO.class))),
         @ApiResponse(responseCode = "404", description = "Medication not found", content = @Content(mediaType = "application/json")),
-        @ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content(mediaType = "application/json"))
+        @ApiResponse(responseCode = "400", description = "Invalid request data", content = @Content(mediaType = "application/json")),
+        @ApiResponse(responseCode = "409", description = "Medication was modified by a concurrent request", content = @Content(mediaType = "application/json")),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version", content = @Content)
     })
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateMedication(@PathVariable Long id, @Valid @RequestBody MedicationDTO medicationDTO) {
+    public ResponseEntity<?> updateMedication(@PathVariable Long id, @Valid @RequestBody MedicationDTO medicationDTO,
+                                              WebRequest request) {
         try {
-            Medication updatedMedication = medicationService.updateMedication(id, medicationDTO.toEntity());
-            return ResponseEntity.ok(MedicationDTO.fromEntity(updatedMedication));
+            Long version = medicationService.getMedicationVersion(id);
+            if (request.checkNotModified(ETags.of(version))) {
+                return null;
+            }
+            Medication updatedMedication = medicationService.updateMedication(id, medicationDTO.toEntity(),
+                    ETags.hasIfMatch(request) ? version : null);
+            return ResponseEntity.ok().eTag(ETags.of(updatedMedication.getVersion()))
+                    .body(MedicationDTO.fromEntity(updatedMedication));
     
         } catch (EntityNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body("Error: Medication with ID " + id + " not found.");
     
+        } catch (OptimisticLockingFailureException e) {
+            return ETags.conflict(request, "Medication with ID " + id + " was modified by another request.");
+    
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body("Error: " + e.getMessage());
@@ -114,6 +181,97 @@ public class MedicationController {
         }
     }    
 
+    @Operation(summary = "Dispense a medication", description = "Atomically takes units out of stock; never lets the stock go negative.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Stock reduced successfully", 
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = StockLevelDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid amount or not enough stock", content = @Content(mediaType = "application/json")),
+        @ApiResponse(responseCode = "404", description = "Medication not found", content = @Content(mediaType = "application/json"))
+    })
+    @PostMapping("/{id}/dispense")
+    public ResponseEntity<?> dispenseMedication(@PathVariable Long id, @RequestParam int amount) {
+        try {
+            return ResponseEntity.ok(new StockLevelDTO(id, medicationService.reduceStock(id, amount)));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Error: Medication with ID " + id + " not found.");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Restock a medication", description = "Atomically adds units to the stock of a medication.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Stock increased successfully", 
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = StockLevelDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid amount", content = @Content(mediaType = "application/json")),
+        @ApiResponse(responseCode = "404", description = "Medication not found", content = @Content(mediaType = "application/json"))
+    })
+    @PostMapping("/{id}/restock")
+    public ResponseEntity<?> restockMedication(@PathVariable Long id, @RequestParam int amount) {
+        try {
+            return ResponseEntity.ok(new StockLevelDTO(id, medicationService.increaseStock(id, amount)));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Error: Medication with ID " + id + " not found.");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Reserve medication stock", description = "Takes units out of stock until the reservation is committed, released or expires.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "201", description = "Stock reserved successfully", 
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = StockReservationDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid amount or not enough stock", content = @Content(mediaType = "application/json")),
+        @ApiResponse(responseCode = "404", description = "Medication not found", content = @Content(mediaType = "application/json"))
+    })
+    @PostMapping("/{id}/reservations")
+    public ResponseEntity<?> reserveMedication(@PathVariable Long id, @RequestParam int amount) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(StockReservationDTO.fromEntity(medicationService.reserveStock(id, amount)));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Error: Medication with ID " + id + " not found.");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Error: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Commit a stock reservation", description = "Confirms that the reserved units were dispensed.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Reservation committed successfully", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Reservation not found or expired", content = @Content)
+    })
+    @PostMapping("/reservations/{reservationId}/commit")
+    public ResponseEntity<String> commitReservation(@PathVariable String reservationId) {
+        try {
+            medicationService.commitReservation(reservationId);
+            return ResponseEntity.ok("Reservation successfully committed.");
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Error: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Release a stock reservation", description = "Returns the reserved units to stock.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Reservation released successfully", 
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = StockLevelDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Reservation not found or expired", content = @Content)
+    })
+    @DeleteMapping("/reservations/{reservationId}")
+    public ResponseEntity<?> releaseReservation(@PathVariable String reservationId) {
+        try {
+            return ResponseEntity.ok(medicationService.releaseReservation(reservationId));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Error: " + e.getMessage());
+        }
+    }
+
     @Operation(summary = "Delete a medication", description = "Removes a medication from the system.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Medication successfully deleted", content = @Content),
@@ -1,17 +1,24 @@
 package com.healthflow.controller;
 
+import com.healthflow.dto.BulkResultDTO;
+import com.healthflow.dto.CursorPage;
 import com.healthflow.dto.PatientDTO;
 import com.healthflow.models.Patient;
+import com.healthflow.service.BulkImportService;
+import com.healthflow.service.MedicalRecordService;
 import com.healthflow.service.PatientService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
@@ -25,38 +32,73 @@ import java.util.List;
 public class PatientController {
 
     private final PatientService patientService;
+    private final MedicalRecordService medicalRecordService;
+    private final BulkImportService bulkImportService;
 
-    public PatientController(PatientService patientService) {
+    public PatientController(PatientService patientService,
+                             MedicalRecordService medicalRecordService,
+                             BulkImportService bulkImportService) {
         this.patientService = patientService;
+        this.medicalRecordService = medicalRecordService;
+        this.bulkImportService = bulkImportService;
     }
 
-    @Operation(summary = "Get all patients", description = "Retrieves a list of all registered patients.")
+    @Operation(summary = "Get all patients", description = "Retrieves a page of registered patients ordered by ID.")
     @ApiResponses({
-        @ApiResponse(responseCode = "200", description = "List of patients retrieved successfully", 
-                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = PatientDTO.class))),
-        @ApiResponse(responseCode = "204", description = "No patients found", content = @Content)
+        @ApiResponse(responseCode = "200", description = "Page of patients retrieved successfully", 
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPage.class))),
+        @ApiResponse(responseCode = "204", description = "No patients found", content = @Content),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or limit", content = @Content)
     })
     @GetMapping
-    public ResponseEntity<List<PatientDTO>> getAllPatients() {
-        List<PatientDTO> patients = patientService.getAllPatients()
-                .stream()
-                .map(PatientDTO::fromEntity)
-                .toList();
+    public ResponseEntity<?> getAllPatients(@RequestParam(required = false) String after,
+                                            @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPage<PatientDTO> patients = patientService.getPatients(after, limit)
+                    .map(PatientDTO::fromEntity);
 
-        return patients.isEmpty() 
-                ? ResponseEntity.status(HttpStatus.NO_CONTENT).build()
-                : ResponseEntity.ok(patients);
+            return patients.items().isEmpty() 
+                    ? ResponseEntity.status(HttpStatus.NO_CONTENT).build()
+                    : ResponseEntity.ok(patients);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Invalid request: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Search patients", description = "Finds patients by partial first name, last name, phone number or address, ignoring case and accents. Best matches come first.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Matching patients retrieved successfully",
+                     content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = PatientDTO.class)))),
+        @ApiResponse(responseCode = "400", description = "Query too short or invalid limit", content = @Content)
+    })
+    @GetMapping("/search")
+    public ResponseEntity<?> searchPatients(@RequestParam(required = false) String q,
+                                            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(patientService.searchPatients(q, limit).stream()
+                    .map(PatientDTO::fromEntity)
+                    .toList());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Invalid request: " + e.getMessage());
+        }
     }
 
     @Operation(summary = "Get patient by ID", description = "Retrieves a patient's details by their ID.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Patient retrieved successfully", 
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = PatientDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Not modified since the version in If-None-Match", content = @Content),
         @ApiResponse(responseCode = "404", description = "Patient not found", content = @Content)
     })
     @GetMapping("/{id}")
-    public ResponseEntity<?> getPatientById(@PathVariable Long id) {
+    public ResponseEntity<?> getPatientById(@PathVariable Long id, WebRequest request) {
         try {
+            // Revalidation only reads the version column; the patient is loaded when it has changed.
+            if (request.checkNotModified(ETags.of(patientService.getPatientVersion(id)))) {
+                return null;
+            }
             Patient patient = patientService.getPatientById(id);
             return ResponseEntity.ok(PatientDTO.fromEntity(patient));
         } catch (EntityNotFoundException e) {
@@ -65,6 +107,33 @@ public class PatientController {
         }
     }
 
+    @Operation(summary = "Get a patient's medical history",
+               description = "Retrieves a page of the patient's medical records, newest first. With 'since' (an ISO date-time, or the 'syncCursor' of the previous sync), returns only the records created or updated after that point, oldest change first, so clients can sync incrementally.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Page of medical records retrieved successfully; a SyncPage when 'since' is given",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = CursorPage.class))),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor, limit or timestamp", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Patient not found", content = @Content)
+    })
+    @GetMapping("/{id}/medicalRecords")
+    public ResponseEntity<?> getPatientMedicalRecords(@PathVariable Long id,
+                                                      @RequestParam(required = false) String after,
+                                                      @RequestParam(required = false) Integer limit,
+                                                      @RequestParam(required = false) String since) {
+        try {
+            if (since == null || since.isBlank()) {
+                return ResponseEntity.ok(medicalRecordService.getPatientHistory(id, after, limit));
+            }
+            return ResponseEntity.ok(medicalRecordService.getPatientHistoryChanges(id, since, after, limit));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body("Error: Patient with ID " + id + " not found.");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Invalid request: " + e.getMessage());
+        }
+    }
+
     @Operation(summary = "Create a new patient", description = "Registers a new patient with the given details.")
     @ApiResponses({
         @ApiResponse(responseCode = "201", description = "Patient created successfully", 
@@ -85,20 +154,45 @@ public class PatientController {
         }
     }
 
+    @Operation(summary = "Create patients in bulk", description = "Inserts many patients in batched transactions and reports the items that could not be created.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Bulk insert processed; failed items are listed with their errors",
+                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Empty or oversized request", content = @Content)
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createPatientsInBulk(@RequestBody List<PatientDTO> patients) {
+        try {
+            return ResponseEntity.ok(bulkImportService.importPatients(patients));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid request: " + e.getMessage());
+        }
+    }
+
     @Operation(summary = "Update a patient", description = "Updates the details of an existing patient.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Patient updated successfully", 
                      content = @Content(mediaType = "application/json", schema = @Schema(implementation = PatientDTO.class))),
-        @ApiResponse(responseCode = "404", description = "Patient not found", content = @Content)
+        @ApiResponse(responseCode = "404", description = "Patient not found", content = @Content),
+        @ApiResponse(responseCode = "409", description = "Patient was modified by a concurrent request", content = @Content),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version", content = @Content)
     })
     @PutMapping("/{id}")
-    public ResponseEntity<?> updatePatient(@PathVariable Long id, @Valid @RequestBody PatientDTO patientDTO) {
+    public ResponseEntity<?> updatePatient(@PathVariable Long id, @Valid @RequestBody PatientDTO patientDTO,
+                                           WebRequest request) {
         try {
-            Patient updatedPatient = patientService.updatePatient(id, patientDTO.toEntity());
-            return ResponseEntity.ok(PatientDTO.fromEntity(updatedPatient));
+            Long version = patientService.getPatientVersion(id);
+            if (request.checkNotModified(ETags.of(version))) {
+                return null;
+            }
+            Patient updatedPatient = patientService.updatePatient(id, patientDTO.toEntity(),
+                    ETags.hasIfMatch(request) ? version : null);
+            return ResponseEntity.ok().eTag(ETags.of(updatedPatient.getVersion())).body(PatientDTO.fromEntity(updatedPatient));
         } catch (EntityNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body("Error: Patient with ID " + id + " not found.");
+        } catch (OptimisticLockingFailureException e) {
+            return ETags.conflict(request, "Patient with ID " + id + " was modified by another request.");
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body("Invalid data: " + e.getMessage());
@@ -1,16 +1,26 @@
 package com.healthflow.controller;
 
+import com.healthflow.dto.CursorPage;
 import com.healthflow.dto.PrescriptionDTO;
+import com.healthflow.repository.PrescriptionRepository;
+import com.healthflow.service.ExportFormat;
+import com.healthflow.service.ExportService;
 import com.healthflow.service.PrescriptionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 
-import java.util.List;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
 
 @RestController
@@ -20,30 +30,59 @@ import java.util.Optional;
 public class PrescriptionController {
 
     private final PrescriptionService prescriptionService;
+    private final ExportService exportService;
 
-    public PrescriptionController(PrescriptionService prescriptionService) {
+    public PrescriptionController(PrescriptionService prescriptionService, ExportService exportService) {
         this.prescriptionService = prescriptionService;
+        this.exportService = exportService;
     }
 
     @GetMapping
-    @Operation(summary = "Get all prescriptions", description = "Retrieve a list of all prescriptions")
-    public ResponseEntity<List<PrescriptionDTO>> getAllPrescriptions() {
+    @Operation(summary = "Get all prescriptions", description = "Retrieve a page of prescriptions ordered by ID")
+    public ResponseEntity<?> getAllPrescriptions(@RequestParam(required = false) String after,
+                                                 @RequestParam(required = false) Integer limit) {
         try {
-            List<PrescriptionDTO> prescriptions = prescriptionService.getAllPrescriptions();
+            CursorPage<PrescriptionDTO> prescriptions = prescriptionService.getPrescriptions(after, limit);
             return ResponseEntity.ok(prescriptions);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid request: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Export all prescriptions", description = "Stream every prescription as NDJSON or CSV without loading the whole table into memory")
+    public ResponseEntity<?> exportPrescriptions(@RequestParam(defaultValue = "ndjson") String format,
+                                                 HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromParameter(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: " + e.getMessage());
+        }
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"prescriptions." + exportFormat.getExtension() + "\"");
+        exportService.exportPrescriptions(exportFormat, response.getOutputStream());
+        return null;
+    }
+
     @GetMapping("/{id}")
-    @Operation(summary = "Get prescription by ID", description = "Retrieve a specific prescription by its ID")
-    public ResponseEntity<String> getPrescriptionById(@PathVariable Long id) {
+    @Operation(summary = "Get prescription by ID", description = "Retrieve a specific prescription by its ID. The ETag covers the embedded patient, doctor and medication, so a change to any of them is seen on revalidation.")
+    public ResponseEntity<?> getPrescriptionById(@PathVariable Long id, WebRequest request) {
         try {
+            if (request.checkNotModified(eTag(prescriptionService.getPrescriptionVersions(id)))) {
+                return null;
+            }
             Optional<PrescriptionDTO> prescriptionDTO = prescriptionService.getPrescriptionById(id);
             return prescriptionDTO
-                    .map(prescription -> ResponseEntity.ok("Prescription found!"))
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
                     .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Prescription not found with ID: " + id));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Prescription not found with ID: " + id);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error retrieving prescription: " + e.getMessage());
         }
@@ -70,18 +109,26 @@ public class PrescriptionController {
 
     @PutMapping("/{id}")
     @Operation(summary = "Update an existing prescription", description = "Modify details of an existing prescription")
-    public ResponseEntity<String> updatePrescription(@PathVariable Long id, @RequestBody PrescriptionDTO prescriptionDTO, BindingResult bindingResult) {
+    public ResponseEntity<?> updatePrescription(@PathVariable Long id, @RequestBody PrescriptionDTO prescriptionDTO,
+                                                BindingResult bindingResult, WebRequest request) {
         if (bindingResult.hasErrors()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Validation error: " + bindingResult.getAllErrors());
         }
 
         try {
-            Optional<PrescriptionDTO> existingPrescription = prescriptionService.getPrescriptionById(id);
-            if (existingPrescription.isEmpty()) {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Prescription not found with ID: " + id);
+            PrescriptionRepository.Versions versions = prescriptionService.getPrescriptionVersions(id);
+            if (request.checkNotModified(eTag(versions))) {
+                return null;
             }
-            prescriptionService.updatePrescription(id, prescriptionDTO);
-            return ResponseEntity.ok("Prescription updated successfully!");
+            prescriptionService.updatePrescription(id, prescriptionDTO,
+                    ETags.hasIfMatch(request) ? versions.getPrescription() : null);
+            return ResponseEntity.ok()
+                    .eTag(eTag(prescriptionService.getPrescriptionVersions(id)))
+                    .body("Prescription updated successfully!");
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Prescription not found with ID: " + id);
+        } catch (OptimisticLockingFailureException e) {
+            return ETags.conflict(request, "Prescription with ID " + id + " was modified by another request.");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error updating prescription: " + e.getMessage());
         }
@@ -102,6 +149,10 @@ public class PrescriptionController {
         }
     }
 
+    private static String eTag(PrescriptionRepository.Versions versions) {
+        return ETags.of(versions.getPrescription(), versions.getPatient(), versions.getDoctor(), versions.getMedication());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<String> handleException(Exception e) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Internal Server Error: " + e.getMessage());
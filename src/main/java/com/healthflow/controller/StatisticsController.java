@@ -0,0 +1,87 @@
+package com.healthflow.controller;
+
+import com.healthflow.dto.AppointmentStatsDTO;
+import com.healthflow.dto.OccupancyStatsDTO;
+import com.healthflow.dto.PrescriptionStatsDTO;
+import com.healthflow.service.StatisticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/stats")
+@Tag(name = "Statistics", description = "API for counters that are kept up to date as data changes")
+public class StatisticsController {
+
+    private final StatisticsService statisticsService;
+
+    public StatisticsController(StatisticsService statisticsService) {
+        this.statisticsService = statisticsService;
+    }
+
+    @Operation(summary = "Count a doctor's appointments",
+               description = "Retrieves the doctor's appointments per status for every day from 'from' through 'to' (today by default, at most 366 days).")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Daily appointment counts retrieved successfully",
+                     content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = AppointmentStatsDTO.class)))),
+        @ApiResponse(responseCode = "400", description = "Missing doctor ID or invalid date range", content = @Content)
+    })
+    @GetMapping("/appointments")
+    public ResponseEntity<?> getAppointmentStats(@RequestParam(required = false) Long doctorId,
+                                                 @RequestParam(required = false)
+                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                 @RequestParam(required = false)
+                                                 @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(statisticsService.getAppointmentStats(doctorId, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Invalid request: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Count a medication's prescriptions",
+               description = "Retrieves the medication's prescriptions per week, starting on Monday, for the weeks from 'from' through 'to' (the last twelve weeks by default).")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Weekly prescription counts retrieved successfully",
+                     content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = PrescriptionStatsDTO.class)))),
+        @ApiResponse(responseCode = "400", description = "Missing medication ID or invalid date range", content = @Content)
+    })
+    @GetMapping("/prescriptions")
+    public ResponseEntity<?> getPrescriptionStats(@RequestParam(required = false) Long medicationId,
+                                                  @RequestParam(required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                  @RequestParam(required = false)
+                                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(statisticsService.getPrescriptionStats(medicationId, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Invalid request: " + e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Count occupied beds", description = "Retrieves the number of admitted patients per hospital room type.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Occupancy retrieved successfully",
+                     content = @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = OccupancyStatsDTO.class))))
+    })
+    @GetMapping("/occupancy")
+    public ResponseEntity<List<OccupancyStatsDTO>> getOccupancy() {
+        return ResponseEntity.ok(statisticsService.getOccupancy());
+    }
+}
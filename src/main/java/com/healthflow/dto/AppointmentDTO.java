@@ -1,5 +1,6 @@
 package com.healthflow.dto;
 
+import com.healthflow.mapper.AppointmentMapper;
 import com.healthflow.models.Appointment;
 import lombok.*;
 
@@ -17,21 +18,11 @@ public class AppointmentDTO {
     private String status;
 
     public static AppointmentDTO fromEntity(Appointment appointment) {
-        return new AppointmentDTO(
-            appointment.getId(),
-            appointment.getPatient().getId(),
-            appointment.getDoctor().getId(),
-            appointment.getDate(),
-            appointment.getStatus()
-        );
+        return AppointmentMapper.INSTANCE.toDto(appointment);
     }
 
     public Appointment toEntity() {
-        Appointment appointment = new Appointment();
-        appointment.setId(this.id);
-        appointment.setDate(this.date);
-        appointment.setStatus(this.status);
-        return appointment;
+        return AppointmentMapper.INSTANCE.toEntity(this);
     }
 }
 
@@ -0,0 +1,25 @@
+package com.healthflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Schema(description = "Appointments of a doctor on one day, counted per status")
+public record AppointmentStatsDTO(
+
+    @Schema(description = "ID of the doctor", example = "1")
+    Long doctorId,
+
+    @Schema(description = "Day of the appointments", example = "2025-03-14")
+    LocalDate date,
+
+    @Schema(description = "Number of appointments per status; statuses without appointments are left out",
+            example = "{\"SCHEDULED\": 6, \"CANCELLED\": 1}")
+    Map<String, Long> byStatus,
+
+    @Schema(description = "Number of appointments of the day", example = "7")
+    long total
+
+) {
+}
@@ -0,0 +1,34 @@
+package com.healthflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Outcome of a bulk insert, item by item")
+public record BulkResultDTO(
+
+    @Schema(description = "Number of items received", example = "3")
+    int received,
+
+    @Schema(description = "Number of items created", example = "2")
+    int created,
+
+    @Schema(description = "IDs of the created items in request order, null for items that failed", example = "[101, null, 102]")
+    List<Long> ids,
+
+    @Schema(description = "Errors of the items that could not be created")
+    List<ItemError> errors
+
+) {
+    @Schema(description = "Error of a single bulk item")
+    public record ItemError(
+
+        @Schema(description = "Zero-based position of the item in the request", example = "1")
+        int index,
+
+        @Schema(description = "Reason why the item was rejected", example = "Patient with ID 42 not found.")
+        String message
+
+    ) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.healthflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Hit, miss and eviction counters of a cache since startup")
+public record CacheStatsDTO(
+
+    @Schema(description = "Name of the cache", example = "doctors")
+    String name,
+
+    @Schema(description = "Approximate number of cached entries", example = "42")
+    long size,
+
+    @Schema(description = "Number of lookups served from the cache", example = "1200")
+    long hits,
+
+    @Schema(description = "Number of lookups that went to the database", example = "42")
+    long misses,
+
+    @Schema(description = "Share of lookups served from the cache", example = "0.966")
+    double hitRate,
+
+    @Schema(description = "Number of entries evicted because of size or age", example = "0")
+    long evictions
+
+) {
+}
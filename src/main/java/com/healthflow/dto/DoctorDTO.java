@@ -1,5 +1,6 @@
 package com.healthflow.dto;
 
+import com.healthflow.mapper.DoctorMapper;
 import com.healthflow.models.Doctor;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
@@ -36,24 +37,10 @@ public record DoctorDTO(
 
 ) {
     public static DoctorDTO fromEntity(Doctor doctor) {
-        return new DoctorDTO(
-            doctor.getId(),
-            doctor.getFirstName(),
-            doctor.getLastName(),
-            doctor.getSpecialty(),
-            doctor.getPhone(),
-            doctor.getEmail()
-        );
+        return DoctorMapper.INSTANCE.toDto(doctor);
     }
 
     public Doctor toEntity() {
-        Doctor doctor = new Doctor();
-        doctor.setId(this.id());
-        doctor.setFirstName(this.firstName());
-        doctor.setLastName(this.lastName());
-        doctor.setSpecialty(this.specialty());
-        doctor.setPhone(this.phone());
-        doctor.setEmail(this.email());
-        return doctor;
+        return DoctorMapper.INSTANCE.toEntity(this);
     }
 }
@@ -0,0 +1,29 @@
+package com.healthflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+@Schema(description = "A medication that has expired or is about to")
+public record ExpiringMedicationDTO(
+
+    @Schema(description = "ID of the medication", example = "1")
+    Long id,
+
+    @Schema(description = "Name of the medication", example = "Paracetamol")
+    String name,
+
+    @Schema(description = "Dosage of the medication", example = "500mg")
+    String dosage,
+
+    @Schema(description = "Expiration date of the medication", example = "2025-07-01")
+    LocalDate expirationDate,
+
+    @Schema(description = "Days left until the expiration date, negative once expired", example = "12")
+    long daysUntilExpiry,
+
+    @Schema(description = "Whether the expiration date has passed", example = "false")
+    boolean expired
+
+) {
+}
@@ -1,5 +1,6 @@
 package com.healthflow.dto;
 
+import com.healthflow.mapper.HospitalRoomMapper;
 import com.healthflow.models.HospitalRoom;
 import lombok.*;
 
@@ -15,20 +16,10 @@ public class HospitalRoomDTO {
     private Boolean availability;
 
     public static HospitalRoomDTO fromEntity(HospitalRoom hospitalRoom) {
-        return new HospitalRoomDTO(
-                hospitalRoom.getId(),
-                hospitalRoom.getRoomNumber(),
-                hospitalRoom.getType(),
-                hospitalRoom.getAvailability()
-        );
+        return HospitalRoomMapper.INSTANCE.toDto(hospitalRoom);
     }
 
     public HospitalRoom toEntity() {
-        HospitalRoom hospitalRoom = new HospitalRoom();
-        hospitalRoom.setId(this.id);
-        hospitalRoom.setRoomNumber(this.roomNumber);
-        hospitalRoom.setType(this.type);
-        hospitalRoom.setAvailability(this.availability);
-        return hospitalRoom;
+        return HospitalRoomMapper.INSTANCE.toEntity(this);
     }
 }
@@ -0,0 +1,29 @@
+package com.healthflow.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "A committed entity change read from the change journal")
+public record JournalEntryDTO(
+
+    @Schema(description = "Time the change was committed", example = "2025-03-01T10:15:30.123456Z")
+    Instant timestamp,
+
+    @Schema(description = "Kind of change", example = "UPDATE", allowableValues = {"CREATE", "UPDATE", "DELETE"})
+    String operation,
+
+    @Schema(description = "Entity type", example = "Patient",
+            allowableValues = {"Patient", "MedicalRecord", "Prescription", "Appointment"})
+    String entity,
+
+    @Schema(description = "ID of the changed entity", example = "1")
+    Long entityId,
+
+    @JsonRawValue
+    @Schema(description = "State of the entity after the change, or before it for deletions", type = "object")
+    String state
+
+) {
+}
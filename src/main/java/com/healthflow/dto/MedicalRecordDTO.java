@@ -1,6 +1,10 @@
 package com.healthflow.dto;
 
+import com.healthflow.mapper.MedicalRecordMapper;
+import com.healthflow.models.MedicalRecord;
+
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 public class MedicalRecordDTO {
 
@@ -9,13 +13,27 @@ public class MedicalRecordDTO {
     private String diagnosis;
     private String treatment;
     private LocalDate date;
+    private LocalDateTime updatedAt;
+
+    public MedicalRecordDTO() {
+    }
 
     public MedicalRecordDTO(Long id, Long patientId, String diagnosis, String treatment, LocalDate date) {
+        this(id, patientId, diagnosis, treatment, date, null);
+    }
+
+    public MedicalRecordDTO(Long id, Long patientId, String diagnosis, String treatment, LocalDate date,
+                            LocalDateTime updatedAt) {
         this.id = id;
         this.patientId = patientId;
         this.diagnosis = diagnosis;
         this.treatment = treatment;
         this.date = date;
+        this.updatedAt = updatedAt;
+    }
+
+    public static MedicalRecordDTO fromEntity(MedicalRecord medicalRecord) {
+        return MedicalRecordMapper.INSTANCE.toDto(medicalRecord);
     }
 
     public Long getId() {
@@ -57,4 +75,12 @@ public class MedicalRecordDTO {
     public void setDate(LocalDate date) {
         this.date = date;
     }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
@@ -1,5 +1,6 @@
 package com.healthflow.dto;
 
+import com.healthflow.mapper.MedicationMapper;
 import com.healthflow.models.Medication;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
@@ -36,24 +37,10 @@ public record MedicationDTO(
 
 ) {
     public static MedicationDTO fromEntity(Medication medication) {
-        return new MedicationDTO(
-            medication.getId(),
-            medication.getName(),
-            medication.getDosage(),
-            medication.getDescription() != null ? medication.getDescription() : "", 
-            medication.getStock(),
-            medication.getExpirationDate()
-        );
+        return MedicationMapper.INSTANCE.toDto(medication);
     }
 
     public Medication toEntity() {
-        Medication medication = new Medication();
-        medication.setId(this.id());  
-        medication.setName(this.name());
-        medication.setDosage(this.dosage());
-        medication.setDescription(this.description() != null ? this.description() : "");  
-        medication.setStock(this.stock());
-        medication.setExpirationDate(this.expirationDate());
-        return medication;
+        return MedicationMapper.INSTANCE.toEntity(this);
     }
 }
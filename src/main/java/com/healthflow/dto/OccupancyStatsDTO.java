@@ -0,0 +1,15 @@
+package com.healthflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Beds taken by admitted patients in rooms of one type")
+public record OccupancyStatsDTO(
+
+    @Schema(description = "Type of hospital room", example = "ICU")
+    String roomType,
+
+    @Schema(description = "Number of admitted patients", example = "8")
+    long occupiedBeds
+
+) {
+}
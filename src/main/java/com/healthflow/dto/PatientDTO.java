@@ -1,5 +1,6 @@
 package com.healthflow.dto;
 
+import com.healthflow.mapper.PatientMapper;
 import com.healthflow.models.Patient;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
@@ -42,26 +43,10 @@ public record PatientDTO(
 
 ) {
     public static PatientDTO fromEntity(Patient patient) {
-        return new PatientDTO(
-            patient.getId(),
-            patient.getFirstName(),
-            patient.getLastName(),
-            patient.getDateOfBirth(),
-            patient.getGender(),
-            patient.getAddress(),
-            patient.getPhone()
-        );
+        return PatientMapper.INSTANCE.toDto(patient);
     }
 
     public Patient toEntity() {
-        Patient patient = new Patient();
-        patient.setId(this.id());
-        patient.setFirstName(this.firstName());
-        patient.setLastName(this.lastName());
-        patient.setDateOfBirth(this.dateOfBirth());
-        patient.setGender(this.gender());
-        patient.setAddress(this.address());
-        patient.setPhone(this.phone());
-        return patient;
+        return PatientMapper.INSTANCE.toEntity(this);
     }
 }
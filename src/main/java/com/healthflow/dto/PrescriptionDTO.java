@@ -1,5 +1,6 @@
 package com.healthflow.dto;
 
+import com.healthflow.mapper.PrescriptionMapper;
 import com.healthflow.models.Prescription;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
@@ -34,29 +35,13 @@ public record PrescriptionDTO(
         if (prescription == null) {
             throw new IllegalArgumentException("Prescription cannot be null");
         }
-
-        PatientDTO patientDTO = PatientDTO.fromEntity(prescription.getPatient());
-        DoctorDTO doctorDTO = DoctorDTO.fromEntity(prescription.getDoctor());
-        MedicationDTO medicationDTO = MedicationDTO.fromEntity(prescription.getMedication());
-
-        return new PrescriptionDTO(
-            prescription.getId(),
-            patientDTO,
-            doctorDTO,
-            medicationDTO,
-            prescription.getPrescriptionDate()
-        );
+        return PrescriptionMapper.INSTANCE.toDto(prescription);
     }
 
     public Prescription toEntity() {
         if (this.patient() == null || this.doctor() == null || this.medication() == null) {
             throw new IllegalArgumentException("Patient, Doctor, and Medication cannot be null");
         }
-        return new Prescription(
-            this.patient().toEntity(), 
-            this.doctor().toEntity(), 
-            this.medication().toEntity(), 
-            this.prescriptionDate()
-        );
+        return PrescriptionMapper.INSTANCE.toEntity(this);
     }
 }
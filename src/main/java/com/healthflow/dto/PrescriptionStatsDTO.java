@@ -0,0 +1,20 @@
+package com.healthflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+@Schema(description = "Prescriptions of a medication in one week")
+public record PrescriptionStatsDTO(
+
+    @Schema(description = "ID of the medication", example = "1")
+    Long medicationId,
+
+    @Schema(description = "Monday the week starts on", example = "2025-03-10")
+    LocalDate weekStart,
+
+    @Schema(description = "Number of prescriptions dated in the week", example = "12")
+    long prescriptions
+
+) {
+}
@@ -0,0 +1,15 @@
+package com.healthflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Current stock of a medication after a stock operation")
+public record StockLevelDTO(
+
+    @Schema(description = "ID of the medication", example = "1")
+    Long medicationId,
+
+    @Schema(description = "Units left in stock", example = "148")
+    int stock
+
+) {
+}
@@ -0,0 +1,32 @@
+package com.healthflow.dto;
+
+import com.healthflow.models.StockReservation;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "Units of a medication held back until the reservation is committed, released or expires")
+public record StockReservationDTO(
+
+    @Schema(description = "ID of the reservation", example = "1b4e28ba-2fa1-11d2-883f-0016d3cca427")
+    String id,
+
+    @Schema(description = "ID of the reserved medication", example = "1")
+    Long medicationId,
+
+    @Schema(description = "Reserved units", example = "2")
+    int amount,
+
+    @Schema(description = "Time after which uncommitted units return to stock", example = "2025-03-24T10:15:00")
+    LocalDateTime expiresAt
+
+) {
+    public static StockReservationDTO fromEntity(StockReservation reservation) {
+        return new StockReservationDTO(
+            reservation.getId(),
+            reservation.getMedicationId(),
+            reservation.getAmount(),
+            reservation.getExpiresAt()
+        );
+    }
+}
@@ -0,0 +1,25 @@
+package com.healthflow.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "A page of changes with opaque cursors for the next page and for the next sync")
+public record SyncPage<T>(
+
+    @Schema(description = "Items of the current page, oldest change first")
+    List<T> items,
+
+    @Schema(description = "IDs of the items deleted within the range of this page")
+    List<Long> deletedIds,
+
+    @Schema(description = "Cursor to pass as 'after' to fetch the next page, null when this is the last page",
+            example = "MjAyNC0wNS0wMVQxMDowMHwxMg")
+    String nextCursor,
+
+    @Schema(description = "Cursor to pass as 'since' to fetch the changes made after this page; never null",
+            example = "MjAyNC0wNS0wMVQxMDowMHwxMg")
+    String syncCursor
+
+) {
+}
@@ -0,0 +1,30 @@
+package com.healthflow.mapper;
+
+import com.healthflow.dto.AppointmentDTO;
+import com.healthflow.models.Appointment;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Mapper(config = MappingConfig.class)
+public interface AppointmentMapper {
+
+    AppointmentMapper INSTANCE = Mappers.getMapper(AppointmentMapper.class);
+
+    @Mapping(target = "patientId", source = "patient.id")
+    @Mapping(target = "doctorId", source = "doctor.id")
+    AppointmentDTO toDto(Appointment appointment);
+
+    // The services resolve patient and doctor from the IDs themselves.
+    @Mapping(target = "patient", ignore = true)
+    @Mapping(target = "doctor", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Appointment toEntity(AppointmentDTO appointmentDTO);
+
+    List<AppointmentDTO> toDtos(List<Appointment> appointments);
+
+    Stream<AppointmentDTO> toDtos(Stream<Appointment> appointments);
+}
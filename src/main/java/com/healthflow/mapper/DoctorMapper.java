@@ -0,0 +1,30 @@
+package com.healthflow.mapper;
+
+import com.healthflow.dto.DoctorDTO;
+import com.healthflow.models.Doctor;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Mapper(config = MappingConfig.class)
+public interface DoctorMapper {
+
+    DoctorMapper INSTANCE = Mappers.getMapper(DoctorMapper.class);
+
+    DoctorDTO toDto(Doctor doctor);
+
+    @Mapping(target = "appointments", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Doctor toEntity(DoctorDTO doctorDTO);
+
+    // A detached copy for the doctor cache, without the lazily loaded appointments.
+    @Mapping(target = "appointments", ignore = true)
+    Doctor copy(Doctor doctor);
+
+    List<DoctorDTO> toDtos(List<Doctor> doctors);
+
+    Stream<DoctorDTO> toDtos(Stream<Doctor> doctors);
+}
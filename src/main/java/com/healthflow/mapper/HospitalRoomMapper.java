@@ -0,0 +1,30 @@
+package com.healthflow.mapper;
+
+import com.healthflow.dto.HospitalRoomDTO;
+import com.healthflow.models.HospitalRoom;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Mapper(config = MappingConfig.class)
+public interface HospitalRoomMapper {
+
+    HospitalRoomMapper INSTANCE = Mappers.getMapper(HospitalRoomMapper.class);
+
+    HospitalRoomDTO toDto(HospitalRoom hospitalRoom);
+
+    @Mapping(target = "patients", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    HospitalRoom toEntity(HospitalRoomDTO hospitalRoomDTO);
+
+    // A detached copy for the room cache, without the patients.
+    @Mapping(target = "patients", ignore = true)
+    HospitalRoom copy(HospitalRoom hospitalRoom);
+
+    List<HospitalRoomDTO> toDtos(List<HospitalRoom> hospitalRooms);
+
+    Stream<HospitalRoomDTO> toDtos(Stream<HospitalRoom> hospitalRooms);
+}
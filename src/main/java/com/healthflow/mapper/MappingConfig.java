@@ -0,0 +1,14 @@
+package com.healthflow.mapper;
+
+import org.mapstruct.MapperConfig;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Shared settings of the entity/DTO mappers. Their implementations are generated by the MapStruct annotation
+ * processor at compile time as plain getter/setter calls, so mapping involves no reflection at runtime. A target
+ * property that no source property maps to fails the build, so that a field added to an entity or DTO cannot
+ * be silently dropped; properties left out on purpose are ignored explicitly.
+ */
+@MapperConfig(unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface MappingConfig {
+}
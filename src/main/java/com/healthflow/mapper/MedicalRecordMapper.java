@@ -0,0 +1,23 @@
+package com.healthflow.mapper;
+
+import com.healthflow.dto.MedicalRecordDTO;
+import com.healthflow.models.MedicalRecord;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Mapper(config = MappingConfig.class)
+public interface MedicalRecordMapper {
+
+    MedicalRecordMapper INSTANCE = Mappers.getMapper(MedicalRecordMapper.class);
+
+    @Mapping(target = "patientId", source = "patient.id")
+    MedicalRecordDTO toDto(MedicalRecord medicalRecord);
+
+    List<MedicalRecordDTO> toDtos(List<MedicalRecord> medicalRecords);
+
+    Stream<MedicalRecordDTO> toDtos(Stream<MedicalRecord> medicalRecords);
+}
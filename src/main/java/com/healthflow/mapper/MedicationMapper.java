@@ -0,0 +1,30 @@
+package com.healthflow.mapper;
+
+import com.healthflow.dto.MedicationDTO;
+import com.healthflow.models.Medication;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Mapper(config = MappingConfig.class)
+public interface MedicationMapper {
+
+    MedicationMapper INSTANCE = Mappers.getMapper(MedicationMapper.class);
+
+    @Mapping(target = "description", defaultValue = "")
+    MedicationDTO toDto(Medication medication);
+
+    @Mapping(target = "description", defaultValue = "")
+    @Mapping(target = "version", ignore = true)
+    Medication toEntity(MedicationDTO medicationDTO);
+
+    // A detached copy for the medication cache.
+    Medication copy(Medication medication);
+
+    List<MedicationDTO> toDtos(List<Medication> medications);
+
+    Stream<MedicationDTO> toDtos(Stream<Medication> medications);
+}
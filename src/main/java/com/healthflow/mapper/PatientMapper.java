@@ -0,0 +1,27 @@
+package com.healthflow.mapper;
+
+import com.healthflow.dto.PatientDTO;
+import com.healthflow.models.Patient;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Mapper(config = MappingConfig.class)
+public interface PatientMapper {
+
+    PatientMapper INSTANCE = Mappers.getMapper(PatientMapper.class);
+
+    PatientDTO toDto(Patient patient);
+
+    @Mapping(target = "hospitalRoom", ignore = true)
+    @Mapping(target = "medicalHistory", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Patient toEntity(PatientDTO patientDTO);
+
+    List<PatientDTO> toDtos(List<Patient> patients);
+
+    Stream<PatientDTO> toDtos(Stream<Patient> patients);
+}
@@ -0,0 +1,25 @@
+package com.healthflow.mapper;
+
+import com.healthflow.dto.PrescriptionDTO;
+import com.healthflow.models.Prescription;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.factory.Mappers;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Mapper(config = MappingConfig.class, uses = {PatientMapper.class, DoctorMapper.class, MedicationMapper.class})
+public interface PrescriptionMapper {
+
+    PrescriptionMapper INSTANCE = Mappers.getMapper(PrescriptionMapper.class);
+
+    PrescriptionDTO toDto(Prescription prescription);
+
+    @Mapping(target = "version", ignore = true)
+    Prescription toEntity(PrescriptionDTO prescriptionDTO);
+
+    List<PrescriptionDTO> toDtos(List<Prescription> prescriptions);
+
+    Stream<PrescriptionDTO> toDtos(Stream<Prescription> prescriptions);
+}
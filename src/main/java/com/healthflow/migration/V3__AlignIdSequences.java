@@ -0,0 +1,43 @@
+package com.healthflow.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Rows created while ids came from identity columns are not known to the id sequences of V2, so a
+ * freshly created sequence would hand out ids that are already taken. Every sequence that is behind
+ * its table is restarted right after the table's highest id.
+ */
+@Component
+public class V3__AlignIdSequences extends BaseJavaMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(V3__AlignIdSequences.class);
+
+    private static final Map<String, String> SEQUENCES_BY_TABLE = Map.of(
+            "patient", "patient_seq",
+            "appointment", "appointment_seq",
+            "medical_record", "medical_record_seq",
+            "medication", "medication_seq");
+
+    @Override
+    public void migrate(Context context) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        SEQUENCES_BY_TABLE.forEach((table, sequence) -> {
+            Long maxId = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+            Long nextValue = jdbcTemplate.queryForObject(
+                    "select base_value from information_schema.sequences where lower(sequence_name) = ?",
+                    Long.class, sequence);
+            if (maxId != null && nextValue != null && nextValue <= maxId) {
+                jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (maxId + 1));
+                log.info("Restarted sequence {} at {} to skip existing {} rows", sequence, maxId + 1, table);
+            }
+        });
+    }
+}
@@ -1,17 +1,28 @@
 package com.healthflow.models;
 
+import com.healthflow.service.ChangeJournalListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(ChangeJournalListener.class)
+// A doctor or patient cannot have two appointments that are not cancelled at the same time. The unique
+// constraints are on a column computed by the database, see V6__free_cancelled_appointment_slots.sql.
+@Table(indexes = {
+    @Index(name = "idx_appointment_doctor_date", columnList = "doctor_id, date, id"),
+    @Index(name = "idx_appointment_patient_date", columnList = "patient_id, date, id"),
+    @Index(name = "idx_appointment_date", columnList = "date, id")
+})
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @ToString
 public class Appointment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_seq")
+    @SequenceGenerator(name = "appointment_seq", sequenceName = "appointment_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -24,4 +35,8 @@ public class Appointment {
 
     private LocalDateTime date;
     private String status;
+
+    @Version
+    @ColumnDefault("0")
+    private Long version;
 }
@@ -3,6 +3,7 @@ package com.healthflow.models;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.List;
 
@@ -41,4 +42,8 @@ public class Doctor {
     @OneToMany(mappedBy = "doctor", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @OrderBy("date DESC")
     private List<Appointment> appointments;
+
+    @Version
+    @ColumnDefault("0")
+    private Long version;
 }
@@ -2,6 +2,7 @@ package com.healthflow.models;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.util.List;
 
 @Entity
@@ -21,4 +22,8 @@ public class HospitalRoom {
     @OneToMany(mappedBy = "hospitalRoom", cascade = CascadeType.ALL, orphanRemoval = true)
     @ToString.Exclude
     private List<Patient> patients;
+
+    @Version
+    @ColumnDefault("0")
+    private Long version;
 }
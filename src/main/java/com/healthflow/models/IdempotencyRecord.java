@@ -0,0 +1,42 @@
+package com.healthflow.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * The stored response of a POST that carried an {@code Idempotency-Key}. The key, method and path are
+ * kept only as a hash, and the request body only as a fingerprint, so every row is the response plus
+ * a few dozen bytes.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_idempotency_record_created_at", columnList = "created_at"))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@ToString(exclude = "body")
+public class IdempotencyRecord {
+
+    @Id
+    @Column(length = 43)
+    private String id;
+
+    @Column(nullable = false, length = 32)
+    private byte[] fingerprint;
+
+    @Column(nullable = false)
+    private int status;
+
+    private String contentType;
+
+    @Lob
+    private byte[] body;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+}
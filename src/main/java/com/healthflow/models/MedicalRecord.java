@@ -1,17 +1,28 @@
 package com.healthflow.models;
 
+import com.healthflow.service.ChangeJournalListener;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(ChangeJournalListener.class)
+@Table(indexes = {
+    @Index(name = "idx_medical_record_patient_date", columnList = "patient_id, date, id"),
+    @Index(name = "idx_medical_record_patient_updated", columnList = "patient_id, updated_at, id")
+})
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @ToString
 public class MedicalRecord {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "medical_record_seq")
+    @SequenceGenerator(name = "medical_record_seq", sequenceName = "medical_record_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -21,4 +32,12 @@ public class MedicalRecord {
     private String diagnosis;
     private String treatment;
     private LocalDate date;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Version
+    @ColumnDefault("0")
+    private Long version;
 }
@@ -0,0 +1,29 @@
+package com.healthflow.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A deleted medical record, kept so that incremental sync can report the deletion to clients that
+ * hold a copy of the patient's history.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_medical_record_deletion_patient", columnList = "patient_id, deleted_at, record_id"))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@ToString
+public class MedicalRecordDeletion {
+
+    @Id
+    private Long recordId;
+
+    @Column(nullable = false)
+    private Long patientId;
+
+    @CreationTimestamp
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -2,14 +2,17 @@ package com.healthflow.models;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = @Index(name = "idx_medication_expiration", columnList = "expiration_date, id"))
 public class Medication {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "medication_seq")
+    @SequenceGenerator(name = "medication_seq", sequenceName = "medication_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Name cannot be empty")
@@ -30,6 +33,10 @@ public class Medication {
     @Future(message = "Expiration date must be in the future")
     private LocalDate expirationDate;
 
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     public Medication() {}
 
     public Medication(String name, String dosage, String description, int stock, LocalDate expirationDate) {
@@ -58,6 +65,9 @@ public class Medication {
     public LocalDate getExpirationDate() { return expirationDate; }
     public void setExpirationDate(LocalDate expirationDate) { this.expirationDate = expirationDate; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     @Override
     public String toString() {
         return "Medication{id=" + id + 
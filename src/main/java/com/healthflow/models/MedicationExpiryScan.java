@@ -0,0 +1,28 @@
+package com.healthflow.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * How far the medication expiry scan has got, so a restart carries on from there instead of
+ * announcing every expired and expiring medication again. There is a single row.
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@ToString
+public class MedicationExpiryScan {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private LocalDate expiredBefore;
+
+    @Column(nullable = false)
+    private LocalDate warnedThrough;
+}
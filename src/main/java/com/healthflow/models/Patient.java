@@ -1,14 +1,17 @@
 package com.healthflow.models;
 
+import com.healthflow.service.ChangeJournalListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.util.List;
 
 @Entity
+@EntityListeners(ChangeJournalListener.class)
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @ToString(exclude = "medicalHistory")
@@ -16,7 +19,8 @@ import java.util.List;
 public class Patient {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patient_seq")
+    @SequenceGenerator(name = "patient_seq", sequenceName = "patient_seq", allocationSize = 50)
     private Long id;
 
     @Size(max = 50, message = "First name must be at most 50 characters")
@@ -51,4 +55,8 @@ public class Patient {
     @OrderBy("date DESC")
     @JsonIgnore
     private List<MedicalRecord> medicalHistory;
+
+    @Version
+    @ColumnDefault("0")
+    private Long version;
 }
@@ -1,11 +1,18 @@
 package com.healthflow.models;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.healthflow.service.ChangeJournalListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDate;
 import java.util.Objects;
 
 @Entity
+@EntityListeners(ChangeJournalListener.class)
+@Table(indexes = {
+    @Index(name = "idx_prescription_patient_date", columnList = "patient_id, prescription_date, id"),
+    @Index(name = "idx_prescription_medication_date", columnList = "medication_id, prescription_date, id")
+})
 public class Prescription {
 
     @Id
@@ -29,6 +36,10 @@ public class Prescription {
 
     private LocalDate prescriptionDate;
 
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
     public Prescription() {}
 
     public Prescription(Patient patient, Doctor doctor, Medication medication, LocalDate prescriptionDate) {
@@ -54,6 +65,9 @@ public class Prescription {
     public LocalDate getPrescriptionDate() { return prescriptionDate; }
     public void setPrescriptionDate(LocalDate prescriptionDate) { this.prescriptionDate = prescriptionDate; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     @Override
     public String toString() {
         return "Prescription{" +
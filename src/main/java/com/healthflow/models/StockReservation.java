@@ -0,0 +1,32 @@
+package com.healthflow.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(indexes = @Index(name = "idx_stock_reservation_expires_at", columnList = "expires_at"))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@ToString
+public class StockReservation {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "medication_id", nullable = false)
+    private Long medicationId;
+
+    @Column(nullable = false)
+    private int amount;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+}
@@ -0,0 +1,18 @@
+package com.healthflow.repository;
+
+import com.healthflow.dto.AppointmentDTO;
+import com.healthflow.models.Appointment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface AppointmentQueries {
+
+    /**
+     * Selects the appointments matching {@code specification} straight into DTOs, so that the patient
+     * and doctor of each row are not loaded.
+     */
+    List<AppointmentDTO> findDtos(Specification<Appointment> specification, Sort sort, Limit limit);
+}
@@ -0,0 +1,41 @@
+package com.healthflow.repository;
+
+import com.healthflow.dto.AppointmentDTO;
+import com.healthflow.models.Appointment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+class AppointmentQueriesImpl implements AppointmentQueries {
+
+    private final EntityManager entityManager;
+
+    AppointmentQueriesImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<AppointmentDTO> findDtos(Specification<Appointment> specification, Sort sort, Limit limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AppointmentDTO> query = cb.createQuery(AppointmentDTO.class);
+        Root<Appointment> root = query.from(Appointment.class);
+        query.select(cb.construct(AppointmentDTO.class, root.get("id"), root.get("patient").get("id"),
+                root.get("doctor").get("id"), root.get("date"), root.get("status")));
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit.max())
+                .getResultList();
+    }
+}
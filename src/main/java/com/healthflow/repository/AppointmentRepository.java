@@ -1,9 +1,29 @@
 package com.healthflow.repository;
 
+import com.healthflow.dto.AppointmentDTO;
 import com.healthflow.models.Appointment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
+public interface AppointmentRepository extends JpaRepository<Appointment, Long>, AppointmentQueries {
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.healthflow.dto.AppointmentDTO(a.id, a.patient.id, a.doctor.id, a.date, a.status) " +
+           "from Appointment a order by a.id")
+    Stream<AppointmentDTO> streamAllAsDto();
+
+    @Query("select a.version from Appointment a where a.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
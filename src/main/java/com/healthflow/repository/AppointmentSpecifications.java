@@ -0,0 +1,59 @@
+package com.healthflow.repository;
+
+import com.healthflow.models.Appointment;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Predicates for appointment queries. Patient and doctor are compared by their foreign key columns,
+ * so none of them joins another table.
+ */
+public final class AppointmentSpecifications {
+
+    private AppointmentSpecifications() {
+    }
+
+    public static Specification<Appointment> hasStatusIn(Collection<String> statuses) {
+        return (root, query, cb) -> root.get("status").in(statuses);
+    }
+
+    public static Specification<Appointment> hasDoctor(Long doctorId) {
+        return (root, query, cb) -> cb.equal(root.get("doctor").get("id"), doctorId);
+    }
+
+    public static Specification<Appointment> hasPatient(Long patientId) {
+        return (root, query, cb) -> cb.equal(root.get("patient").get("id"), patientId);
+    }
+
+    public static Specification<Appointment> startsAtOrAfter(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), from);
+    }
+
+    public static Specification<Appointment> startsBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.get("date"), to);
+    }
+
+    public static Specification<Appointment> isDated() {
+        return (root, query, cb) -> cb.isNotNull(root.get("date"));
+    }
+
+    public static Specification<Appointment> idAfter(Long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    // Written as a range on date plus a tie-break, rather than "date > :date or (date = :date and id > :id)",
+    // so that the date condition alone bounds the index scan.
+    public static Specification<Appointment> after(LocalDateTime date, Long id) {
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("date"), date),
+                cb.or(cb.greaterThan(root.get("date"), date), cb.greaterThan(root.get("id"), id)));
+    }
+
+    public static Specification<Appointment> before(LocalDateTime date, Long id) {
+        return (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("date"), date),
+                cb.or(cb.lessThan(root.get("date"), date), cb.lessThan(root.get("id"), id)));
+    }
+}
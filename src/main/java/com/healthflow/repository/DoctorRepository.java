@@ -1,9 +1,24 @@
 package com.healthflow.repository;
 
 import com.healthflow.models.Doctor;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
+
+    List<Doctor> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select d.id from Doctor d where d.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select d.version from Doctor d where d.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
@@ -1,9 +1,25 @@
 package com.healthflow.repository;
 
 import com.healthflow.models.HospitalRoom;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface HospitalRoomRepository extends JpaRepository<HospitalRoom, Long> {
+
+    List<HospitalRoom> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Modifying
+    @Query("update HospitalRoom r set r.availability = false, r.version = r.version + 1 where r.id = :id and r.availability = true")
+    int occupy(@Param("id") Long id);
+
+    @Query("select r.version from HospitalRoom r where r.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,21 @@
+package com.healthflow.repository;
+
+import com.healthflow.models.MedicalRecordDeletion;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MedicalRecordDeletionRepository extends JpaRepository<MedicalRecordDeletion, Long> {
+
+    @Query("select d from MedicalRecordDeletion d where d.patientId = :patientId " +
+           "and (d.deletedAt > :since or (d.deletedAt = :since and d.recordId > :id)) " +
+           "order by d.deletedAt, d.recordId")
+    List<MedicalRecordDeletion> findDeletedSince(@Param("patientId") Long patientId, @Param("since") LocalDateTime since,
+                                                 @Param("id") Long id, Limit limit);
+}
@@ -1,9 +1,61 @@
 package com.healthflow.repository;
 
+import com.healthflow.dto.MedicalRecordDTO;
 import com.healthflow.models.MedicalRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Long> {
+
+    List<MedicalRecord> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.healthflow.dto.MedicalRecordDTO(m.id, m.patient.id, m.diagnosis, m.treatment, m.date, m.updatedAt) " +
+           "from MedicalRecord m order by m.id")
+    Stream<MedicalRecordDTO> streamAllAsDto();
+
+    // A patient's history, newest first: dated records by (date, id) descending, then undated records by id.
+
+    @Query("select new com.healthflow.dto.MedicalRecordDTO(m.id, m.patient.id, m.diagnosis, m.treatment, m.date, m.updatedAt) " +
+           "from MedicalRecord m where m.patient.id = :patientId and m.date is not null " +
+           "order by m.date desc, m.id desc")
+    List<MedicalRecordDTO> findHistory(@Param("patientId") Long patientId, Limit limit);
+
+    @Query("select new com.healthflow.dto.MedicalRecordDTO(m.id, m.patient.id, m.diagnosis, m.treatment, m.date, m.updatedAt) " +
+           "from MedicalRecord m where m.patient.id = :patientId " +
+           "and (m.date < :date or (m.date = :date and m.id < :id)) " +
+           "order by m.date desc, m.id desc")
+    List<MedicalRecordDTO> findHistoryBefore(@Param("patientId") Long patientId, @Param("date") LocalDate date,
+                                             @Param("id") Long id, Limit limit);
+
+    @Query("select new com.healthflow.dto.MedicalRecordDTO(m.id, m.patient.id, m.diagnosis, m.treatment, m.date, m.updatedAt) " +
+           "from MedicalRecord m where m.patient.id = :patientId and m.date is null and m.id < :id " +
+           "order by m.id desc")
+    List<MedicalRecordDTO> findUndatedHistoryBefore(@Param("patientId") Long patientId, @Param("id") Long id, Limit limit);
+
+    @Query("select new com.healthflow.dto.MedicalRecordDTO(m.id, m.patient.id, m.diagnosis, m.treatment, m.date, m.updatedAt) " +
+           "from MedicalRecord m where m.patient.id = :patientId " +
+           "and (m.updatedAt > :since or (m.updatedAt = :since and m.id > :id)) " +
+           "order by m.updatedAt, m.id")
+    List<MedicalRecordDTO> findChangedSince(@Param("patientId") Long patientId, @Param("since") LocalDateTime since,
+                                            @Param("id") Long id, Limit limit);
+
+    @Query("select m.version from MedicalRecord m where m.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,9 @@
+package com.healthflow.repository;
+
+import com.healthflow.models.MedicationExpiryScan;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MedicationExpiryScanRepository extends JpaRepository<MedicationExpiryScan, Integer> {
+}
@@ -1,9 +1,42 @@
 package com.healthflow.repository;
 
 import com.healthflow.models.Medication;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface MedicationRepository extends JpaRepository<Medication, Long> {
+
+    List<Medication> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select m.stock from Medication m where m.id = :id")
+    Optional<Integer> findStockById(@Param("id") Long id);
+
+    @Modifying
+    @Query("update Medication m set m.stock = m.stock - :amount, m.version = m.version + 1 where m.id = :id and m.stock >= :amount")
+    int decrementStock(@Param("id") Long id, @Param("amount") int amount);
+
+    @Modifying
+    @Query("update Medication m set m.stock = m.stock + :amount, m.version = m.version + 1 where m.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("amount") int amount);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Medication> streamAllByOrderByExpirationDateAscIdAsc();
+
+    @Query("select m.version from Medication m where m.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
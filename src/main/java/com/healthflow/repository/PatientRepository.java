@@ -1,9 +1,53 @@
 package com.healthflow.repository;
 
+import com.healthflow.dto.PatientDTO;
 import com.healthflow.models.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, Long> {
+
+    List<Patient> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select p.id from Patient p where p.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "hospitalRoom")
+    List<Patient> findByIdIn(Collection<Long> ids);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.healthflow.dto.PatientDTO(p.id, p.firstName, p.lastName, p.dateOfBirth, p.gender, p.address, p.phone) " +
+           "from Patient p order by p.id")
+    Stream<PatientDTO> streamAllAsDto();
+
+    @Query("select p.version from Patient p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * An admitted patient and the type of their room, for recounting the occupancy statistics.
+     */
+    interface Admission {
+        Long getPatientId();
+        String getRoomType();
+    }
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select p.id as patientId, r.type as roomType from Patient p join p.hospitalRoom r")
+    Stream<Admission> streamAdmissions();
 }
@@ -1,10 +1,64 @@
 package com.healthflow.repository;
 
 import com.healthflow.models.Prescription;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface PrescriptionRepository extends JpaRepository<Prescription, Long> {
-}
 
+    String SELECT_WITH_ASSOCIATIONS = "select p from Prescription p " +
+            "join fetch p.patient pa left join fetch pa.hospitalRoom " +
+            "join fetch p.doctor join fetch p.medication ";
+
+    @Query(SELECT_WITH_ASSOCIATIONS + "where p.id > :id order by p.id")
+    List<Prescription> findPageWithAssociations(@Param("id") Long id, Limit limit);
+
+    @Query(SELECT_WITH_ASSOCIATIONS + "where p.id = :id")
+    Optional<Prescription> findWithAssociationsById(@Param("id") Long id);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_WITH_ASSOCIATIONS + "order by p.id")
+    Stream<Prescription> streamAllWithAssociations();
+
+    /**
+     * Versions of a prescription and of the patient, doctor and medication embedded in its DTO.
+     */
+    interface Versions {
+        Long getPrescription();
+        Long getPatient();
+        Long getDoctor();
+        Long getMedication();
+    }
+
+    @Query("select p.version as prescription, pa.version as patient, d.version as doctor, m.version as medication " +
+           "from Prescription p join p.patient pa join p.doctor d join p.medication m where p.id = :id")
+    Optional<Versions> findVersionsById(@Param("id") Long id);
+
+    /**
+     * Medication and date of a prescription, for recounting the prescription statistics.
+     */
+    interface MedicationDate {
+        Long getId();
+        Long getMedicationId();
+        LocalDate getPrescriptionDate();
+    }
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select p.id as id, p.medication.id as medicationId, p.prescriptionDate as prescriptionDate from Prescription p")
+    Stream<MedicationDate> streamMedicationDates();
+}
@@ -0,0 +1,22 @@
+package com.healthflow.repository;
+
+import com.healthflow.models.StockReservation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+
+    List<StockReservation> findByExpiresAtBefore(LocalDateTime now, Limit limit);
+
+    @Modifying
+    @Query("delete from StockReservation r where r.id = :id")
+    int deleteReservation(@Param("id") String id);
+}
@@ -0,0 +1,8 @@
+package com.healthflow.service;
+
+public class AppointmentConflictException extends RuntimeException {
+
+    public AppointmentConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,46 @@
+package com.healthflow.service;
+
+import com.healthflow.models.Appointment;
+import com.healthflow.repository.AppointmentSpecifications;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Conditions an appointment listing is narrowed down by; null or empty ones do not filter. {@code from}
+ * is inclusive and {@code to} exclusive.
+ */
+public record AppointmentFilter(Set<String> statuses, Long doctorId, Long patientId,
+                                LocalDateTime from, LocalDateTime to) {
+
+    public static final AppointmentFilter NONE = new AppointmentFilter(null, null, null, null, null);
+
+    public AppointmentFilter {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'.");
+        }
+    }
+
+    List<Specification<Appointment>> toSpecifications() {
+        List<Specification<Appointment>> specifications = new ArrayList<>();
+        if (statuses != null && !statuses.isEmpty()) {
+            specifications.add(AppointmentSpecifications.hasStatusIn(statuses));
+        }
+        if (doctorId != null) {
+            specifications.add(AppointmentSpecifications.hasDoctor(doctorId));
+        }
+        if (patientId != null) {
+            specifications.add(AppointmentSpecifications.hasPatient(patientId));
+        }
+        if (from != null) {
+            specifications.add(AppointmentSpecifications.startsAtOrAfter(from));
+        }
+        if (to != null) {
+            specifications.add(AppointmentSpecifications.startsBefore(to));
+        }
+        return specifications;
+    }
+}
@@ -0,0 +1,194 @@
+package com.healthflow.service;
+
+import com.healthflow.dto.AppointmentDTO;
+import com.healthflow.models.Appointment;
+import com.healthflow.repository.AppointmentRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+/**
+ * Keeps every booked appointment slot in per-doctor and per-patient sorted maps so that
+ * double-booking can be rejected with two O(log n) lookups instead of a database query.
+ * All appointments last {@code healthflow.appointments.slot-duration}, so two bookings
+ * overlap exactly when their start times are less than one slot apart. Appointments without a
+ * date and cancelled appointments do not hold a slot.
+ * <p>
+ * New start times must lie on the slot grid, a whole number of slots after midnight. Two aligned
+ * bookings overlap only when they start at the same time, which the unique constraints of V6 reject
+ * in the database as well, so overlaps are caught even between application instances. Bookings
+ * made before the grid was enforced keep their start time and are only checked here.
+ */
+@Service
+@Timed(value = "healthflow.service", histogram = true)
+public class AppointmentScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentScheduler.class);
+
+    // Matches the booked_date column of V6__free_cancelled_appointment_slots.sql
+    static final String CANCELLED = "Cancelled";
+
+    private final AppointmentRepository appointmentRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration slotDuration;
+
+    private final ConcurrentMap<Long, NavigableMap<LocalDateTime, Booking>> doctorBookings = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, NavigableMap<LocalDateTime, Booking>> patientBookings = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Booking> bookingsByAppointment = new ConcurrentHashMap<>();
+
+    public AppointmentScheduler(AppointmentRepository appointmentRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${healthflow.appointments.slot-duration:30m}") Duration slotDuration) {
+        this.appointmentRepository = appointmentRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        if (slotDuration.isNegative() || slotDuration.isZero() || Duration.ofDays(1).toNanos() % slotDuration.toNanos() != 0) {
+            throw new IllegalArgumentException("healthflow.appointments.slot-duration must divide a day evenly, not " + slotDuration + ".");
+        }
+        this.slotDuration = slotDuration;
+    }
+
+    @PostConstruct
+    void rebuildIndex() {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<AppointmentDTO> appointments = appointmentRepository.streamAllAsDto()) {
+                appointments.filter(appointment -> holdsSlot(appointment.getDate(), appointment.getStatus()))
+                        .forEach(appointment -> {
+                            Booking booking = new Booking(appointment.getDoctorId(), appointment.getPatientId(), appointment.getDate());
+                            booking.appointmentId = appointment.getId();
+                            bookFor(doctorBookings, booking.doctorId).put(booking.start, booking);
+                            bookFor(patientBookings, booking.patientId).put(booking.start, booking);
+                            bookingsByAppointment.put(booking.appointmentId, booking);
+                        });
+            }
+        });
+        log.info("Indexed {} booked appointment slots", bookingsByAppointment.size());
+    }
+
+    /**
+     * Saves a new or rescheduled appointment after checking that neither its doctor nor its
+     * patient already has an overlapping booking. Saving it without a date or as cancelled
+     * frees the slot it held.
+     *
+     * @throws AppointmentConflictException if the slot is already taken
+     * @throws IllegalArgumentException if a new start time is not on the slot grid
+     */
+    public Appointment schedule(Appointment appointment) {
+        Booking previous = appointment.getId() != null ? bookingsByAppointment.get(appointment.getId()) : null;
+        if (!holdsSlot(appointment.getDate(), appointment.getStatus())) {
+            Appointment saved = appointmentRepository.save(appointment);
+            if (previous != null) {
+                release(previous);
+            }
+            return saved;
+        }
+
+        Booking reservation = reserve(appointment.getDoctor().getId(), appointment.getPatient().getId(),
+                appointment.getDate(), previous);
+        try {
+            Appointment saved = appointmentRepository.save(appointment);
+            if (previous != null) {
+                release(previous);
+            }
+            confirm(reservation, saved.getId());
+            return saved;
+        } catch (RuntimeException e) {
+            release(reservation);
+            throw e;
+        }
+    }
+
+    /**
+     * Frees the slot of a deleted appointment.
+     */
+    public void cancel(Long appointmentId) {
+        Booking booking = bookingsByAppointment.get(appointmentId);
+        if (booking != null) {
+            release(booking);
+        }
+    }
+
+    Booking reserve(Long doctorId, Long patientId, LocalDateTime start, Booking replacing) {
+        if ((replacing == null || !replacing.start.equals(start))
+                && start.toLocalTime().toNanoOfDay() % slotDuration.toNanos() != 0) {
+            throw new IllegalArgumentException("Appointments start on a " + slotDuration.toMinutes()
+                    + "-minute slot boundary, counted from midnight; " + start + " is not one.");
+        }
+        Booking reservation = new Booking(doctorId, patientId, start);
+        NavigableMap<LocalDateTime, Booking> doctorBook = bookFor(doctorBookings, doctorId);
+        NavigableMap<LocalDateTime, Booking> patientBook = bookFor(patientBookings, patientId);
+        // Doctor book first, then patient book: the two lock sets never overlap, so a fixed order cannot deadlock.
+        synchronized (doctorBook) {
+            synchronized (patientBook) {
+                if (overlaps(doctorBook, start, replacing)) {
+                    throw new AppointmentConflictException("Doctor with ID " + doctorId + " already has an appointment overlapping " + start + ".");
+                }
+                if (overlaps(patientBook, start, replacing)) {
+                    throw new AppointmentConflictException("Patient with ID " + patientId + " already has an appointment overlapping " + start + ".");
+                }
+                doctorBook.put(start, reservation);
+                patientBook.put(start, reservation);
+            }
+        }
+        return reservation;
+    }
+
+    void confirm(Booking reservation, Long appointmentId) {
+        reservation.appointmentId = appointmentId;
+        bookingsByAppointment.put(appointmentId, reservation);
+    }
+
+    void release(Booking booking) {
+        NavigableMap<LocalDateTime, Booking> doctorBook = bookFor(doctorBookings, booking.doctorId);
+        NavigableMap<LocalDateTime, Booking> patientBook = bookFor(patientBookings, booking.patientId);
+        synchronized (doctorBook) {
+            synchronized (patientBook) {
+                doctorBook.remove(booking.start, booking);
+                patientBook.remove(booking.start, booking);
+            }
+        }
+        if (booking.appointmentId != null) {
+            bookingsByAppointment.remove(booking.appointmentId, booking);
+        }
+    }
+
+    static boolean holdsSlot(LocalDateTime date, String status) {
+        return date != null && !CANCELLED.equalsIgnoreCase(status);
+    }
+
+    private boolean overlaps(NavigableMap<LocalDateTime, Booking> book, LocalDateTime start, Booking ignored) {
+        return book.subMap(start.minus(slotDuration), false, start.plus(slotDuration), false)
+                .values().stream()
+                .anyMatch(booking -> booking != ignored);
+    }
+
+    private static NavigableMap<LocalDateTime, Booking> bookFor(ConcurrentMap<Long, NavigableMap<LocalDateTime, Booking>> books, Long ownerId) {
+        return books.computeIfAbsent(ownerId, id -> new TreeMap<>());
+    }
+
+    static final class Booking {
+        private final Long doctorId;
+        private final Long patientId;
+        private final LocalDateTime start;
+        private volatile Long appointmentId;
+
+        private Booking(Long doctorId, Long patientId, LocalDateTime start) {
+            this.doctorId = doctorId;
+            this.patientId = patientId;
+            this.start = start;
+        }
+    }
+}
@@ -1,13 +1,23 @@
 package com.healthflow.service;
 
+import com.healthflow.dto.AppointmentDTO;
+import com.healthflow.dto.CursorPage;
 import com.healthflow.models.Appointment;
 import com.healthflow.repository.AppointmentRepository;
+import com.healthflow.repository.AppointmentSpecifications;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Optional;
 
 @Service
+@Timed(value = "healthflow.service", histogram = true)
 public class AppointmentService {
 
     private final AppointmentRepository appointmentRepository;
@@ -16,10 +26,51 @@ public class AppointmentService {
         this.appointmentRepository = appointmentRepository;
     }
 
+    @Transactional(readOnly = true)
     public List<Appointment> getAllAppointments() {
         return appointmentRepository.findAll();
     }
 
+    /**
+     * Pages through the appointments matching {@code filter} in the given order. The filter and the
+     * cursor position become a single SQL predicate, so with a doctor or patient and a date range the
+     * page is one range scan of the (doctor_id, date) or (patient_id, date) index. Sorting by date
+     * leaves out appointments without a date. The cursor holds the sort keys of the last row returned
+     * and is only valid for the same filter and sort.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AppointmentDTO> findAppointments(AppointmentFilter filter, AppointmentSort sort,
+                                                       String after, Integer limit) {
+        int pageSize = CursorPage.resolveLimit(limit);
+        List<Specification<Appointment>> specifications = filter.toSpecifications();
+        if (sort == AppointmentSort.ID) {
+            specifications.add(AppointmentSpecifications.idAfter(CursorPage.decodeIdCursor(after)));
+        } else {
+            specifications.add(AppointmentSpecifications.isDated());
+            if (after != null && !after.isBlank()) {
+                String[] keys = CursorPage.decodeCursor(after, 2);
+                LocalDateTime date;
+                long id;
+                try {
+                    date = LocalDateTime.parse(keys[0]);
+                    id = Long.parseLong(keys[1]);
+                } catch (NumberFormatException | DateTimeParseException e) {
+                    throw new IllegalArgumentException("Invalid cursor: " + after);
+                }
+                specifications.add(sort == AppointmentSort.DATE
+                        ? AppointmentSpecifications.after(date, id)
+                        : AppointmentSpecifications.before(date, id));
+            }
+        }
+
+        List<AppointmentDTO> rows = appointmentRepository.findDtos(Specification.allOf(specifications),
+                sort.getSort(), Limit.of(pageSize + 1));
+        return CursorPage.fromRows(rows, pageSize, appointment -> sort == AppointmentSort.ID
+                ? CursorPage.encodeCursor(appointment.getId())
+                : CursorPage.encodeCursor(appointment.getDate(), appointment.getId()));
+    }
+
+    @Transactional(readOnly = true)
     public Optional<Appointment> getAppointmentById(Long id) {
         return appointmentRepository.findById(id);
     }
@@ -0,0 +1,33 @@
+package com.healthflow.service;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+
+/**
+ * Orders of an appointment listing. Every order ends on the ID, so that it is total and can be paged
+ * with a cursor on the sort keys.
+ */
+public enum AppointmentSort {
+
+    ID("id", Sort.by("id")),
+    DATE("date", Sort.by("date", "id")),
+    DATE_DESC("-date", Sort.by(Sort.Direction.DESC, "date", "id"));
+
+    private final String parameter;
+    private final Sort sort;
+
+    AppointmentSort(String parameter, Sort sort) {
+        this.parameter = parameter;
+        this.sort = sort;
+    }
+
+    public Sort getSort() { return sort; }
+
+    public static AppointmentSort fromParameter(String value) {
+        return Arrays.stream(values())
+                .filter(sort -> sort.parameter.equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unsupported sort: " + value + ". Use id, date or -date."));
+    }
+}
@@ -0,0 +1,319 @@
+package com.healthflow.service;
+
+import com.healthflow.dto.AppointmentDTO;
+import com.healthflow.dto.BulkResultDTO;
+import com.healthflow.dto.MedicalRecordDTO;
+import com.healthflow.dto.MedicationDTO;
+import com.healthflow.dto.PatientDTO;
+import com.healthflow.models.Appointment;
+import com.healthflow.models.Doctor;
+import com.healthflow.models.MedicalRecord;
+import com.healthflow.models.Medication;
+import com.healthflow.models.Patient;
+import com.healthflow.repository.DoctorRepository;
+import com.healthflow.repository.PatientRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Inserts large lists of entities in chunks, one transaction per chunk. Entities use pooled
+ * sequence ids, so Hibernate can group each chunk's inserts into JDBC batches. Items that fail
+ * validation are reported and skipped. If a chunk fails while flushing, its items are retried
+ * one by one so that only the offending items are rejected.
+ */
+@Service
+@Timed(value = "healthflow.service", histogram = true)
+public class BulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final PatientRepository patientRepository;
+    private final DoctorRepository doctorRepository;
+    private final PatientService patientService;
+    private final PatientSearchIndex patientSearchIndex;
+    private final MedicationService medicationService;
+    private final MedicationExpiryTracker medicationExpiryTracker;
+    private final AppointmentScheduler appointmentScheduler;
+    private final StatisticsService statisticsService;
+    private final int chunkSize;
+    private final int maxItems;
+
+    public BulkImportService(EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             PatientRepository patientRepository,
+                             DoctorRepository doctorRepository,
+                             PatientService patientService,
+                             PatientSearchIndex patientSearchIndex,
+                             MedicationService medicationService,
+                             MedicationExpiryTracker medicationExpiryTracker,
+                             AppointmentScheduler appointmentScheduler,
+                             StatisticsService statisticsService,
+                             @Value("${healthflow.bulk.chunk-size:1000}") int chunkSize,
+                             @Value("${healthflow.bulk.max-items:10000}") int maxItems) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.patientRepository = patientRepository;
+        this.doctorRepository = doctorRepository;
+        this.patientService = patientService;
+        this.patientSearchIndex = patientSearchIndex;
+        this.medicationService = medicationService;
+        this.medicationExpiryTracker = medicationExpiryTracker;
+        this.appointmentScheduler = appointmentScheduler;
+        this.statisticsService = statisticsService;
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+    }
+
+    public BulkResultDTO importPatients(List<PatientDTO> patients) {
+        return importAll("patients", patients, new ItemHandler<PatientDTO, Patient>() {
+            @Override
+            public Patient toEntity(PatientDTO dto) {
+                Patient patient = dto.toEntity();
+                patient.setId(null);
+                patientService.validatePatient(patient);
+                return patient;
+            }
+
+            @Override
+            public Long idOf(Patient patient) {
+                return patient.getId();
+            }
+
+            @Override
+            public void afterCommit(Patient patient) {
+                patientSearchIndex.put(patient);
+            }
+        });
+    }
+
+    public BulkResultDTO importMedications(List<MedicationDTO> medications) {
+        return importAll("medications", medications, new ItemHandler<MedicationDTO, Medication>() {
+            @Override
+            public Medication toEntity(MedicationDTO dto) {
+                Medication medication = dto.toEntity();
+                medication.setId(null);
+                medicationService.validateMedication(medication);
+                return medication;
+            }
+
+            @Override
+            public Long idOf(Medication medication) {
+                return medication.getId();
+            }
+
+            @Override
+            public void afterCommit(Medication medication) {
+                medicationExpiryTracker.put(medication);
+            }
+        });
+    }
+
+    public BulkResultDTO importMedicalRecords(List<MedicalRecordDTO> medicalRecords) {
+        return importAll("medical records", medicalRecords, new ItemHandler<MedicalRecordDTO, MedicalRecord>() {
+            private Set<Long> existingPatients = Set.of();
+
+            @Override
+            public void prepareChunk(List<MedicalRecordDTO> chunk) {
+                existingPatients = new HashSet<>(patientRepository.findExistingIds(referencedIds(chunk, MedicalRecordDTO::getPatientId)));
+            }
+
+            @Override
+            public MedicalRecord toEntity(MedicalRecordDTO dto) {
+                requireReference("Patient", dto.getPatientId(), existingPatients);
+                return new MedicalRecord(null, entityManager.getReference(Patient.class, dto.getPatientId()),
+                        dto.getDiagnosis(), dto.getTreatment(), dto.getDate(), null, null);
+            }
+
+            @Override
+            public Long idOf(MedicalRecord medicalRecord) {
+                return medicalRecord.getId();
+            }
+        });
+    }
+
+    public BulkResultDTO importAppointments(List<AppointmentDTO> appointments) {
+        return importAll("appointments", appointments, new AppointmentHandler());
+    }
+
+    private <T, E> BulkResultDTO importAll(String kind, List<T> items, ItemHandler<T, E> handler) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Bulk request must contain at least one item.");
+        }
+        if (items.size() > maxItems) {
+            throw new IllegalArgumentException("Bulk request cannot contain more than " + maxItems + " items.");
+        }
+
+        long startedAt = System.nanoTime();
+        Long[] ids = new Long[items.size()];
+        List<BulkResultDTO.ItemError> errors = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            importChunk(items, from, Math.min(from + chunkSize, items.size()), handler, ids, errors);
+        }
+
+        int created = (int) Arrays.stream(ids).filter(Objects::nonNull).count();
+        log.info("Bulk imported {} of {} {} in {} ms", created, items.size(), kind,
+                (System.nanoTime() - startedAt) / 1_000_000);
+        errors.sort((left, right) -> Integer.compare(left.index(), right.index()));
+        return new BulkResultDTO(items.size(), created, Arrays.asList(ids), errors);
+    }
+
+    private <T, E> void importChunk(List<T> items, int from, int to, ItemHandler<T, E> handler,
+                                    Long[] ids, List<BulkResultDTO.ItemError> errors) {
+        Map<Integer, E> staged = new LinkedHashMap<>();
+        List<BulkResultDTO.ItemError> rejected = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                handler.prepareChunk(items.subList(from, to).stream().filter(Objects::nonNull).toList());
+                for (int index = from; index < to; index++) {
+                    T item = items.get(index);
+                    if (item == null) {
+                        rejected.add(new BulkResultDTO.ItemError(index, "Item cannot be null."));
+                        continue;
+                    }
+                    try {
+                        E entity = handler.toEntity(item);
+                        staged.put(index, entity);
+                        entityManager.persist(entity);
+                    } catch (IllegalArgumentException | AppointmentConflictException e) {
+                        E entity = staged.remove(index);
+                        if (entity != null) {
+                            handler.afterRollback(entity);
+                        }
+                        rejected.add(new BulkResultDTO.ItemError(index, e.getMessage()));
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            staged.values().forEach(handler::afterRollback);
+            if (to - from == 1) {
+                errors.add(new BulkResultDTO.ItemError(from,
+                        "Could not be stored: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+                return;
+            }
+            // Something in the chunk violated a database constraint; isolate it by retrying item by item.
+            for (int index = from; index < to; index++) {
+                importChunk(items, index, index + 1, handler, ids, errors);
+            }
+            return;
+        }
+
+        errors.addAll(rejected);
+        staged.forEach((index, entity) -> {
+            ids[index] = handler.idOf(entity);
+            handler.afterCommit(entity);
+        });
+    }
+
+    private static <T> Set<Long> referencedIds(List<T> items, Function<T, Long> idOf) {
+        Set<Long> ids = new HashSet<>();
+        for (T item : items) {
+            Long id = idOf.apply(item);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private static void requireReference(String kind, Long id, Set<Long> existingIds) {
+        if (id == null) {
+            throw new IllegalArgumentException(kind + " ID is required.");
+        }
+        if (!existingIds.contains(id)) {
+            throw new IllegalArgumentException(kind + " with ID " + id + " not found.");
+        }
+    }
+
+    private interface ItemHandler<T, E> {
+
+        default void prepareChunk(List<T> chunk) {
+        }
+
+        E toEntity(T item);
+
+        Long idOf(E entity);
+
+        default void afterCommit(E entity) {
+        }
+
+        default void afterRollback(E entity) {
+        }
+    }
+
+    /**
+     * Reserves every appointment's slot in the {@link AppointmentScheduler} before inserting it,
+     * confirms the reservations once the chunk commits and releases them if it rolls back.
+     */
+    private final class AppointmentHandler implements ItemHandler<AppointmentDTO, Appointment> {
+
+        private final Map<Appointment, AppointmentScheduler.Booking> reservations = new IdentityHashMap<>();
+        private Set<Long> existingDoctors = Set.of();
+        private Set<Long> existingPatients = Set.of();
+
+        @Override
+        public void prepareChunk(List<AppointmentDTO> chunk) {
+            existingDoctors = new HashSet<>(doctorRepository.findExistingIds(referencedIds(chunk, AppointmentDTO::getDoctorId)));
+            existingPatients = new HashSet<>(patientRepository.findExistingIds(referencedIds(chunk, AppointmentDTO::getPatientId)));
+        }
+
+        @Override
+        public Appointment toEntity(AppointmentDTO dto) {
+            requireReference("Doctor", dto.getDoctorId(), existingDoctors);
+            requireReference("Patient", dto.getPatientId(), existingPatients);
+
+            Appointment appointment = dto.toEntity();
+            appointment.setId(null);
+            appointment.setDoctor(entityManager.getReference(Doctor.class, dto.getDoctorId()));
+            appointment.setPatient(entityManager.getReference(Patient.class, dto.getPatientId()));
+            if (AppointmentScheduler.holdsSlot(appointment.getDate(), appointment.getStatus())) {
+                reservations.put(appointment, appointmentScheduler.reserve(dto.getDoctorId(), dto.getPatientId(),
+                        appointment.getDate(), null));
+            }
+            return appointment;
+        }
+
+        @Override
+        public Long idOf(Appointment appointment) {
+            return appointment.getId();
+        }
+
+        @Override
+        public void afterCommit(Appointment appointment) {
+            AppointmentScheduler.Booking reservation = reservations.remove(appointment);
+            if (reservation != null) {
+                appointmentScheduler.confirm(reservation, appointment.getId());
+            }
+            statisticsService.appointmentSaved(appointment);
+        }
+
+        @Override
+        public void afterRollback(Appointment appointment) {
+            AppointmentScheduler.Booking reservation = reservations.remove(appointment);
+            if (reservation != null) {
+                appointmentScheduler.release(reservation);
+            }
+        }
+    }
+}
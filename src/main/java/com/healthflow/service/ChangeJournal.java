@@ -0,0 +1,364 @@
+package com.healthflow.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthflow.dto.CursorPage;
+import com.healthflow.dto.JournalEntryDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.healthflow.service.ChangeJournalReader.BODY_HEADER;
+import static com.healthflow.service.ChangeJournalReader.RECORD_HEADER;
+
+/**
+ * Append-only journal of committed patient, medical record, prescription and appointment changes.
+ * {@link ChangeJournalListener} hands over every entity write; the changes of a transaction are held
+ * back until it commits and then queued, so request threads never touch the disk. A single writer
+ * thread drains the queue in batches, appends one binary record per change to a memory-mapped
+ * segment file (see {@link ChangeJournalReader} for the layout) and forces each batch to disk once,
+ * so a burst of commits shares one fsync. A new segment is started whenever the current one is full.
+ */
+@Component
+public class ChangeJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeJournal.class);
+
+    private static final int MAX_BATCH = 1024;
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final BlockingQueue<Change> queue;
+    private final ChangeJournalReader reader;
+
+    private Thread writer;
+
+    // Only touched by the writer thread once it has started.
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int position;
+    private int forcedPosition;
+    private long lastTimestamp;
+
+    public ChangeJournal(ObjectMapper objectMapper,
+                         @Value("${healthflow.journal.enabled:true}") boolean enabled,
+                         @Value("${healthflow.journal.directory:./data/journal}") String directory,
+                         @Value("${healthflow.journal.segment-size:16MB}") DataSize segmentSize,
+                         @Value("${healthflow.journal.queue-capacity:65536}") int queueCapacity) {
+        if (segmentSize.toBytes() < RECORD_HEADER + BODY_HEADER || segmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal segment size must be between 26 bytes and 2GB.");
+        }
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentSize = (int) segmentSize.toBytes();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.reader = new ChangeJournalReader(this.directory);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        if (!enabled) {
+            log.info("Change journal is disabled");
+            return;
+        }
+        Files.createDirectories(directory);
+        recover();
+        writer = new Thread(this::drain, "change-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Appending entity changes to the journal in {}", directory.toAbsolutePath());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        queue.put(Change.SHUTDOWN);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Records a change to be journaled once the current transaction commits; changes of a rolled back
+     * transaction are dropped. Outside a transaction the change is queued right away.
+     */
+    void record(Operation operation, Entity entity, Long entityId, Object state) {
+        if (writer == null || entityId == null) {
+            return;
+        }
+        Change change = new Change(operation, entity, entityId, state, null);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(List.of(change));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Change> pending = (List<Change>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<Change> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(changes);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeJournal.this);
+                }
+            });
+            pending = changes;
+        }
+        pending.add(change);
+    }
+
+    /**
+     * Waits until every change queued so far is on disk.
+     */
+    boolean awaitWritten(Duration timeout) throws InterruptedException {
+        if (writer == null) {
+            return true;
+        }
+        CountDownLatch written = new CountDownLatch(1);
+        queue.put(new Change(null, null, null, null, written));
+        return written.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public CursorPage<JournalEntryDTO> scan(String entity, Long entityId, Instant from, Instant to,
+                                            String after, Integer limit) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'.");
+        }
+        if (entityId != null && entity == null) {
+            throw new IllegalArgumentException("Filtering by entity ID requires an entity type.");
+        }
+        return reader.scan(entity == null ? null : Entity.fromName(entity), entityId, from, to, after,
+                CursorPage.resolveLimit(limit));
+    }
+
+    private void enqueue(List<Change> changes) {
+        long committedAt = ChangeJournalReader.toMicros(Instant.now());
+        try {
+            for (Change change : changes) {
+                // Blocks instead of dropping when the writer falls behind: the journal must stay complete.
+                queue.put(change.committedAt(committedAt));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while journaling committed changes; {} changes were not journaled", changes.size());
+        }
+    }
+
+    private void drain() {
+        List<Change> batch = new ArrayList<>(MAX_BATCH);
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, MAX_BATCH - 1);
+            for (Change change : batch) {
+                if (change == Change.SHUTDOWN) {
+                    running = false;
+                } else if (change.operation() != null) {
+                    append(change);
+                }
+            }
+            force();
+            batch.stream().filter(change -> change.written() != null).forEach(change -> change.written().countDown());
+            batch.clear();
+        }
+        close();
+    }
+
+    private void append(Change change) {
+        try {
+            byte[] state = objectMapper.writeValueAsBytes(change.state());
+            int bodyLength = BODY_HEADER + state.length;
+            if (bodyLength > segmentSize - RECORD_HEADER) {
+                log.error("Skipping journal record for {} {}: {} bytes do not fit in a segment",
+                        change.entity().getName(), change.entityId(), bodyLength);
+                return;
+            }
+            if (segment == null || bodyLength > segment.capacity() - position - RECORD_HEADER) {
+                rotate();
+            }
+            long timestamp = Math.max(change.timestamp(), lastTimestamp);
+            int body = position + RECORD_HEADER;
+            segment.putLong(body, timestamp)
+                    .put(body + 8, change.operation().code)
+                    .put(body + 9, change.entity().code)
+                    .putLong(body + 10, change.entityId())
+                    .put(body + BODY_HEADER, state);
+            segment.putInt(position + 4, ChangeJournalReader.checksum(segment, body, bodyLength));
+            // The length goes in last, so a record cut short by a crash reads as the end of the data.
+            segment.putInt(position, bodyLength);
+            position = body + bodyLength;
+            lastTimestamp = timestamp;
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not journal {} of {} {}", change.operation(), change.entity().getName(), change.entityId(), e);
+        }
+    }
+
+    private void force() {
+        if (segment != null && position > forcedPosition) {
+            segment.force(forcedPosition, position - forcedPosition);
+            forcedPosition = position;
+        }
+    }
+
+    private void rotate() throws IOException {
+        force();
+        close();
+        // Records are never stamped before the segment that holds them was opened, which lets readers
+        // skip whole segments by name when scanning a time range.
+        long openedAt = Math.max(ChangeJournalReader.toMicros(Instant.now()), lastTimestamp + 1);
+        open(directory.resolve(ChangeJournalReader.segmentName(openedAt)), segmentSize);
+        lastTimestamp = openedAt;
+    }
+
+    /**
+     * Reopens the newest segment and continues after its last intact record, clearing whatever a crash
+     * left half-written behind it.
+     */
+    private void recover() throws IOException {
+        List<Path> segments = reader.segments();
+        if (segments.isEmpty()) {
+            return;
+        }
+        Path last = segments.get(segments.size() - 1);
+        open(last, (int) Math.min(Files.size(last), Integer.MAX_VALUE));
+        lastTimestamp = ChangeJournalReader.openedAt(last.getFileName().toString());
+        int bodyLength;
+        while ((bodyLength = ChangeJournalReader.bodyLengthAt(segment, position)) > 0) {
+            lastTimestamp = Math.max(lastTimestamp, segment.getLong(position + RECORD_HEADER));
+            position += RECORD_HEADER + bodyLength;
+        }
+        int end = position;
+        while (end < segment.capacity() && segment.get(end) != 0) {
+            segment.put(end++, (byte) 0);
+        }
+        forcedPosition = position;
+        if (end > position) {
+            segment.force(position, end - position);
+            log.warn("Discarded {} bytes of a torn record at the end of journal segment {}", end - position, last);
+        }
+    }
+
+    private void open(Path file, int size) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        position = 0;
+        forcedPosition = 0;
+    }
+
+    private void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not close journal segment", e);
+        } finally {
+            channel = null;
+            segment = null;
+        }
+    }
+
+    public enum Operation {
+        CREATE(1), UPDATE(2), DELETE(3);
+
+        private final byte code;
+
+        Operation(int code) {
+            this.code = (byte) code;
+        }
+
+        static Operation fromCode(byte code) {
+            for (Operation operation : values()) {
+                if (operation.code == code) {
+                    return operation;
+                }
+            }
+            throw new IllegalStateException("Unknown journal operation code: " + code);
+        }
+    }
+
+    public enum Entity {
+        PATIENT(1, "Patient"), MEDICAL_RECORD(2, "MedicalRecord"), PRESCRIPTION(3, "Prescription"), APPOINTMENT(4, "Appointment");
+
+        private final byte code;
+        private final String name;
+
+        Entity(int code, String name) {
+            this.code = (byte) code;
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        static Entity fromCode(byte code) {
+            for (Entity entity : values()) {
+                if (entity.code == code) {
+                    return entity;
+                }
+            }
+            throw new IllegalStateException("Unknown journal entity code: " + code);
+        }
+
+        public static Entity fromName(String name) {
+            for (Entity entity : values()) {
+                if (entity.name.equalsIgnoreCase(name) || entity.name().equalsIgnoreCase(name)) {
+                    return entity;
+                }
+            }
+            throw new IllegalArgumentException("Unknown entity: " + name
+                    + ". Expected one of Patient, MedicalRecord, Prescription, Appointment.");
+        }
+    }
+
+    private record Change(Operation operation, Entity entity, Long entityId, Object state, CountDownLatch written,
+                          long timestamp) {
+
+        static final Change SHUTDOWN = new Change(null, null, null, null, null);
+
+        Change(Operation operation, Entity entity, Long entityId, Object state, CountDownLatch written) {
+            this(operation, entity, entityId, state, written, 0L);
+        }
+
+        Change committedAt(long timestamp) {
+            return new Change(operation, entity, entityId, state, written, timestamp);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.healthflow.service;
+
+import com.healthflow.dto.AppointmentDTO;
+import com.healthflow.dto.MedicalRecordDTO;
+import com.healthflow.dto.PatientDTO;
+import com.healthflow.models.Appointment;
+import com.healthflow.models.MedicalRecord;
+import com.healthflow.models.Patient;
+import com.healthflow.models.Prescription;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Entity listener that forwards patient, medical record, prescription and appointment writes to the
+ * {@link ChangeJournal}. The entity state is copied into its DTO here, on the request thread, so the
+ * writer thread never touches a managed entity. Bulk JPQL updates bypass entity listeners and are
+ * therefore not journaled.
+ */
+@Component
+public class ChangeJournalListener {
+
+    private final ObjectProvider<ChangeJournal> changeJournal;
+
+    public ChangeJournalListener(ObjectProvider<ChangeJournal> changeJournal) {
+        this.changeJournal = changeJournal;
+    }
+
+    @PostPersist
+    void created(Object entity) {
+        record(ChangeJournal.Operation.CREATE, entity);
+    }
+
+    @PostUpdate
+    void updated(Object entity) {
+        record(ChangeJournal.Operation.UPDATE, entity);
+    }
+
+    @PostRemove
+    void removed(Object entity) {
+        record(ChangeJournal.Operation.DELETE, entity);
+    }
+
+    private void record(ChangeJournal.Operation operation, Object entity) {
+        ChangeJournal journal = changeJournal.getIfAvailable();
+        if (journal == null) {
+            return;
+        }
+        if (entity instanceof Patient patient) {
+            journal.record(operation, ChangeJournal.Entity.PATIENT, patient.getId(), PatientDTO.fromEntity(patient));
+        } else if (entity instanceof MedicalRecord record) {
+            journal.record(operation, ChangeJournal.Entity.MEDICAL_RECORD, record.getId(), MedicalRecordDTO.fromEntity(record));
+        } else if (entity instanceof Prescription prescription) {
+            journal.record(operation, ChangeJournal.Entity.PRESCRIPTION, prescription.getId(), prescriptionState(prescription));
+        } else if (entity instanceof Appointment appointment) {
+            journal.record(operation, ChangeJournal.Entity.APPOINTMENT, appointment.getId(), AppointmentDTO.fromEntity(appointment));
+        }
+    }
+
+    // PrescriptionDTO embeds the full patient, doctor and medication; the journal only keeps their IDs.
+    private static Map<String, Object> prescriptionState(Prescription prescription) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("id", prescription.getId());
+        state.put("patientId", prescription.getPatient().getId());
+        state.put("doctorId", prescription.getDoctor().getId());
+        state.put("medicationId", prescription.getMedication().getId());
+        state.put("prescriptionDate", prescription.getPrescriptionDate());
+        return state;
+    }
+}
@@ -0,0 +1,203 @@
+package com.healthflow.service;
+
+import com.healthflow.dto.CursorPage;
+import com.healthflow.dto.JournalEntryDTO;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Reads the change journal written by {@link ChangeJournal} straight from its segment files,
+ * without the database. Also usable from the command line to replay the journal as NDJSON:
+ * <pre>
+ * java -cp target/healthflow-0.0.1-SNAPSHOT.jar -Dloader.main=com.healthflow.service.ChangeJournalReader \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher data/journal [entity] [entityId]
+ * </pre>
+ *
+ * <h2>Segment layout</h2>
+ * Segments are named {@code journal-<epoch micros>.seg} after the time they were opened, and hold
+ * records back to back, followed by zeroes:
+ * <pre>
+ * int   body length (0 marks the end of the written data)
+ * int   CRC32 of the body
+ * long  timestamp, epoch microseconds
+ * byte  operation code
+ * byte  entity code
+ * long  entity ID
+ * byte[] entity state as UTF-8 JSON
+ * </pre>
+ */
+public class ChangeJournalReader {
+
+    static final String SEGMENT_PREFIX = "journal-";
+    static final String SEGMENT_SUFFIX = ".seg";
+    static final int RECORD_HEADER = 8;
+    static final int BODY_HEADER = 18;
+
+    private final Path directory;
+
+    public ChangeJournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: ChangeJournalReader <journal directory> [entity] [entityId]");
+            System.exit(2);
+        }
+        ChangeJournal.Entity entity = args.length > 1 ? ChangeJournal.Entity.fromName(args[1]) : null;
+        Long entityId = args.length > 2 ? Long.valueOf(args[2]) : null;
+        ChangeJournalReader reader = new ChangeJournalReader(Paths.get(args[0]));
+        PrintStream out = System.out;
+        String cursor = null;
+        do {
+            CursorPage<JournalEntryDTO> page = reader.scan(entity, entityId, null, null, cursor, CursorPage.MAX_LIMIT);
+            page.items().forEach(entry -> out.printf("{\"timestamp\":\"%s\",\"operation\":\"%s\",\"entity\":\"%s\",\"entityId\":%d,\"state\":%s}%n",
+                    entry.timestamp(), entry.operation(), entry.entity(), entry.entityId(), entry.state()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+    }
+
+    /**
+     * Returns journal entries in the order they were written, optionally restricted to one entity
+     * type, one entity and a time range. The cursor holds the segment and offset to resume from.
+     */
+    public CursorPage<JournalEntryDTO> scan(ChangeJournal.Entity entity, Long entityId, Instant from, Instant to,
+                                            String after, int limit) {
+        long fromMicros = from == null ? Long.MIN_VALUE : toMicros(from);
+        long toMicros = to == null ? Long.MAX_VALUE : toMicros(to);
+        String startSegment = null;
+        int startOffset = 0;
+        if (after != null && !after.isBlank()) {
+            String[] keys = CursorPage.decodeCursor(after, 2);
+            startSegment = keys[0];
+            try {
+                startOffset = Integer.parseInt(keys[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + after);
+            }
+        }
+
+        List<Path> segments = segments();
+        List<JournalEntryDTO> entries = new ArrayList<>();
+        String lastSegment = null;
+        int lastOffset = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            String name = segments.get(i).getFileName().toString();
+            if (startSegment != null && name.compareTo(startSegment) < 0) {
+                continue;
+            }
+            if (openedAt(name) > toMicros) {
+                break;
+            }
+            // A segment only holds records written before the next segment was opened.
+            if (i + 1 < segments.size() && openedAt(segments.get(i + 1).getFileName().toString()) < fromMicros) {
+                continue;
+            }
+            ByteBuffer segment = map(segments.get(i));
+            int offset = name.equals(startSegment) ? startOffset : 0;
+            int bodyLength;
+            while ((bodyLength = bodyLengthAt(segment, offset)) > 0) {
+                int body = offset + RECORD_HEADER;
+                offset = body + bodyLength;
+                long timestamp = segment.getLong(body);
+                if (timestamp > toMicros) {
+                    break;
+                }
+                ChangeJournal.Entity recordEntity = ChangeJournal.Entity.fromCode(segment.get(body + 9));
+                long recordEntityId = segment.getLong(body + 10);
+                if (timestamp < fromMicros || (entity != null && recordEntity != entity)
+                        || (entityId != null && recordEntityId != entityId)) {
+                    continue;
+                }
+                if (entries.size() == limit) {
+                    return new CursorPage<>(entries, CursorPage.encodeCursor(lastSegment, lastOffset));
+                }
+                byte[] state = new byte[bodyLength - BODY_HEADER];
+                segment.get(body + BODY_HEADER, state);
+                entries.add(new JournalEntryDTO(fromMicros(timestamp),
+                        ChangeJournal.Operation.fromCode(segment.get(body + 8)).name(),
+                        recordEntity.getName(), recordEntityId, new String(state, StandardCharsets.UTF_8)));
+                lastSegment = name;
+                lastOffset = offset;
+            }
+        }
+        return new CursorPage<>(entries, null);
+    }
+
+    List<Path> segments() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list journal segments in " + directory, e);
+        }
+    }
+
+    /**
+     * Returns the body length of the record at {@code offset}, or 0 when the written data ends there,
+     * either because nothing follows or because the record is torn and fails its checksum.
+     */
+    static int bodyLengthAt(ByteBuffer segment, int offset) {
+        if (offset + RECORD_HEADER > segment.limit()) {
+            return 0;
+        }
+        int bodyLength = segment.getInt(offset);
+        if (bodyLength < BODY_HEADER || bodyLength > segment.limit() - offset - RECORD_HEADER
+                || segment.getInt(offset + 4) != checksum(segment, offset + RECORD_HEADER, bodyLength)) {
+            return 0;
+        }
+        return bodyLength;
+    }
+
+    static String segmentName(long openedAtMicros) {
+        return SEGMENT_PREFIX + String.format("%020d", openedAtMicros) + SEGMENT_SUFFIX;
+    }
+
+    static long openedAt(String segmentName) {
+        return Long.parseLong(segmentName.substring(SEGMENT_PREFIX.length(), segmentName.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static long toMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    static Instant fromMicros(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+    }
+
+    static int checksum(ByteBuffer buffer, int from, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(from, length));
+        return (int) crc.getValue();
+    }
+
+    static MappedByteBuffer map(Path segment) {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read journal segment " + segment, e);
+        }
+    }
+}
@@ -1,14 +1,23 @@
 package com.healthflow.service;
 
+import com.healthflow.config.CacheConfig;
+import com.healthflow.dto.CursorPage;
 import com.healthflow.models.Doctor;
 import com.healthflow.repository.DoctorRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.util.List;
 
 @Service
+@Timed(value = "healthflow.service", histogram = true)
 public class DoctorService {
 
     private final DoctorRepository doctorRepository;
@@ -17,10 +26,16 @@ public class DoctorService {
         this.doctorRepository = doctorRepository;
     }
 
-    public List<Doctor> getAllDoctors() {
-        return doctorRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<Doctor> getDoctors(String after, Integer limit) {
+        int pageSize = CursorPage.resolveLimit(limit);
+        List<Doctor> rows = doctorRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.decodeIdCursor(after), Limit.of(pageSize + 1));
+        return CursorPage.fromRows(rows, pageSize, doctor -> CursorPage.encodeCursor(doctor.getId()));
     }
 
+    @Cacheable(CacheConfig.DOCTORS)
+    @Transactional(readOnly = true)
     public Doctor getDoctorById(Long id) {
         return doctorRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Doctor not found with ID: " + id));
@@ -31,9 +46,17 @@ public class DoctorService {
         return doctorRepository.save(doctor);
     }
 
-    public Doctor updateDoctor(Long id, Doctor doctorDetails) {
+    @Transactional(readOnly = true)
+    public Long getDoctorVersion(Long id) {
+        return doctorRepository.findVersionById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Doctor not found with ID: " + id));
+    }
+
+    @CachePut(cacheNames = CacheConfig.DOCTORS, key = "#id")
+    public Doctor updateDoctor(Long id, Doctor doctorDetails, Long expectedVersion) {
         Doctor existingDoctor = doctorRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Doctor not found with ID: " + id));
+        EntityVersions.require(expectedVersion, existingDoctor.getVersion(), "Doctor with ID " + id);
 
         validateDoctor(doctorDetails);
 
@@ -46,6 +69,7 @@ public class DoctorService {
         return doctorRepository.save(existingDoctor);
     }
 
+    @CacheEvict(CacheConfig.DOCTORS)
     public void deleteDoctor(Long id) {
         if (!doctorRepository.existsById(id)) {
             throw new EntityNotFoundException("Doctor not found with ID: " + id);
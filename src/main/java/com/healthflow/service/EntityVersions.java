@@ -0,0 +1,19 @@
+package com.healthflow.service;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+final class EntityVersions {
+
+    private EntityVersions() {
+    }
+
+    /**
+     * Fails when the caller based its update on a version other than the one just loaded. A change that
+     * commits after the entity was loaded is still caught by Hibernate's version check on flush.
+     */
+    static void require(Long expectedVersion, Long actualVersion, String entityDescription) {
+        if (expectedVersion != null && !expectedVersion.equals(actualVersion)) {
+            throw new OptimisticLockingFailureException(entityDescription + " was modified by another request.");
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.healthflow.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthflow.dto.AppointmentDTO;
+import com.healthflow.dto.MedicalRecordDTO;
+import com.healthflow.dto.PrescriptionDTO;
+import com.healthflow.models.Prescription;
+import com.healthflow.repository.AppointmentRepository;
+import com.healthflow.repository.MedicalRecordRepository;
+import com.healthflow.repository.PrescriptionRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+@Service
+@Timed(value = "healthflow.service", histogram = true)
+public class ExportService {
+
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private static final List<String> APPOINTMENT_COLUMNS =
+            List.of("id", "patientId", "doctorId", "date", "status");
+    private static final List<String> MEDICAL_RECORD_COLUMNS =
+            List.of("id", "patientId", "diagnosis", "treatment", "date");
+    private static final List<String> PRESCRIPTION_COLUMNS =
+            List.of("id", "patientId", "patientFirstName", "patientLastName",
+                    "doctorId", "doctorFirstName", "doctorLastName",
+                    "medicationId", "medicationName", "medicationDosage", "prescriptionDate");
+
+    private final AppointmentRepository appointmentRepository;
+    private final MedicalRecordRepository medicalRecordRepository;
+    private final PrescriptionRepository prescriptionRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(AppointmentRepository appointmentRepository,
+                         MedicalRecordRepository medicalRecordRepository,
+                         PrescriptionRepository prescriptionRepository,
+                         EntityManager entityManager,
+                         ObjectMapper objectMapper) {
+        this.appointmentRepository = appointmentRepository;
+        this.medicalRecordRepository = medicalRecordRepository;
+        this.prescriptionRepository = prescriptionRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportAppointments(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<AppointmentDTO> rows = appointmentRepository.streamAllAsDto()) {
+            write(rows, format, out, APPOINTMENT_COLUMNS, appointment -> Arrays.asList(
+                    appointment.getId(), appointment.getPatientId(), appointment.getDoctorId(),
+                    appointment.getDate(), appointment.getStatus()));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportMedicalRecords(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<MedicalRecordDTO> rows = medicalRecordRepository.streamAllAsDto()) {
+            write(rows, format, out, MEDICAL_RECORD_COLUMNS, medicalRecord -> Arrays.asList(
+                    medicalRecord.getId(), medicalRecord.getPatientId(), medicalRecord.getDiagnosis(),
+                    medicalRecord.getTreatment(), medicalRecord.getDate()));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportPrescriptions(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<Prescription> rows = prescriptionRepository.streamAllWithAssociations()) {
+            int[] converted = {0};
+            // Prescriptions stream as entities, so the persistence context is cleared periodically
+            // to keep the patients, doctors and medications seen so far from piling up in memory.
+            Stream<PrescriptionDTO> dtos = rows.map(prescription -> {
+                PrescriptionDTO dto = PrescriptionDTO.fromEntity(prescription);
+                if (++converted[0] % FLUSH_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+                return dto;
+            });
+            write(dtos, format, out, PRESCRIPTION_COLUMNS, prescription -> Arrays.asList(
+                    prescription.id(),
+                    prescription.patient().id(), prescription.patient().firstName(), prescription.patient().lastName(),
+                    prescription.doctor().id(), prescription.doctor().firstName(), prescription.doctor().lastName(),
+                    prescription.medication().id(), prescription.medication().name(), prescription.medication().dosage(),
+                    prescription.prescriptionDate()));
+        }
+    }
+
+    private <T> void write(Stream<T> rows, ExportFormat format, OutputStream out,
+                           List<String> columns, Function<T, List<Object>> csvRow) throws IOException {
+        switch (format) {
+            case NDJSON -> writeNdjson(rows.iterator(), out);
+            case CSV -> writeCsv(rows.iterator(), out, columns, csvRow);
+        }
+    }
+
+    private <T> void writeNdjson(Iterator<T> rows, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            int written = 0;
+            while (rows.hasNext()) {
+                objectMapper.writeValue(generator, rows.next());
+                generator.writeRaw('\n');
+                if (++written == 1 || written % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+        }
+    }
+
+    private <T> void writeCsv(Iterator<T> rows, OutputStream out,
+                              List<String> columns, Function<T, List<Object>> csvRow) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvLine(writer, columns);
+        writer.flush();
+        int written = 0;
+        while (rows.hasNext()) {
+            writeCsvLine(writer, csvRow.apply(rows.next()));
+            if (++written % FLUSH_INTERVAL == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values.get(i)));
+        }
+        writer.write('\n');
+    }
+
+    private String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,34 +1,240 @@
 package com.healthflow.service;
 
+import com.healthflow.config.CacheConfig;
+import com.healthflow.dto.CursorPage;
 import com.healthflow.models.HospitalRoom;
+import com.healthflow.models.Patient;
 import com.healthflow.repository.HospitalRoomRepository;
+import com.healthflow.repository.PatientRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
+@Timed(value = "healthflow.service", histogram = true)
 public class HospitalRoomService {
 
     private final HospitalRoomRepository hospitalRoomRepository;
+    private final PatientRepository patientRepository;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final StatisticsService statisticsService;
+    private final Cache roomCache;
 
-    public HospitalRoomService(HospitalRoomRepository hospitalRoomRepository) {
+    public HospitalRoomService(HospitalRoomRepository hospitalRoomRepository,
+                               PatientRepository patientRepository,
+                               RoomAvailabilityIndex availabilityIndex,
+                               StatisticsService statisticsService,
+                               CacheManager cacheManager) {
         this.hospitalRoomRepository = hospitalRoomRepository;
+        this.patientRepository = patientRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.statisticsService = statisticsService;
+        this.roomCache = cacheManager.getCache(CacheConfig.HOSPITAL_ROOMS);
     }
 
-    public List<HospitalRoom> getAllRooms() {
-        return hospitalRoomRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<HospitalRoom> getRooms(String after, Integer limit) {
+        int pageSize = CursorPage.resolveLimit(limit);
+        List<HospitalRoom> rows = hospitalRoomRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.decodeIdCursor(after), Limit.of(pageSize + 1));
+        return CursorPage.fromRows(rows, pageSize, room -> CursorPage.encodeCursor(room.getId()));
     }
 
-    public Optional<HospitalRoom> getRoomById(Long id) {
-        return hospitalRoomRepository.findById(id);
+    @Cacheable(CacheConfig.HOSPITAL_ROOMS)
+    @Transactional(readOnly = true)
+    public HospitalRoom getRoomById(Long id) {
+        return hospitalRoomRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Hospital room with ID " + id + " not found."));
+    }
+
+    /**
+     * Returns up to {@code limit} free rooms of the given type. The availability index picks the
+     * rooms; their details come from the room cache, so only rooms missing there are loaded.
+     * The cache stores and returns copies, never the rooms loaded here.
+     */
+    @Transactional(readOnly = true)
+    public List<HospitalRoom> findFreeRooms(String type, Integer limit) {
+        if (!StringUtils.hasText(type)) {
+            throw new IllegalArgumentException("Room type is required.");
+        }
+        List<Long> roomIds = availabilityIndex.findFree(type, CursorPage.resolveLimit(limit));
+
+        Map<Long, HospitalRoom> rooms = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long roomId : roomIds) {
+            HospitalRoom cached = roomCache.get(roomId, HospitalRoom.class);
+            if (cached != null) {
+                rooms.put(roomId, cached);
+            } else {
+                missing.add(roomId);
+            }
+        }
+        for (HospitalRoom room : hospitalRoomRepository.findAllById(missing)) {
+            roomCache.put(room.getId(), room);
+            rooms.put(room.getId(), room);
+        }
+        return roomIds.stream().map(rooms::get).filter(Objects::nonNull).toList();
     }
 
     public HospitalRoom saveRoom(HospitalRoom hospitalRoom) {
-        return hospitalRoomRepository.save(hospitalRoom);
+        HospitalRoom savedRoom = hospitalRoomRepository.save(hospitalRoom);
+        availabilityIndex.put(savedRoom);
+        return savedRoom;
     }
 
+    @Transactional(readOnly = true)
+    public Long getRoomVersion(Long id) {
+        return hospitalRoomRepository.findVersionById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Hospital room with ID " + id + " not found."));
+    }
+
+    @CachePut(cacheNames = CacheConfig.HOSPITAL_ROOMS, key = "#id")
+    public HospitalRoom updateRoom(Long id, HospitalRoom roomDetails, Long expectedVersion) {
+        HospitalRoom existingRoom = hospitalRoomRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Hospital room with ID " + id + " not found."));
+        EntityVersions.require(expectedVersion, existingRoom.getVersion(), "Hospital room with ID " + id);
+
+        existingRoom.setRoomNumber(roomDetails.getRoomNumber());
+        existingRoom.setType(roomDetails.getType());
+        existingRoom.setAvailability(roomDetails.getAvailability());
+
+        HospitalRoom savedRoom = hospitalRoomRepository.save(existingRoom);
+        availabilityIndex.put(savedRoom);
+        return savedRoom;
+    }
+
+    @CacheEvict(CacheConfig.HOSPITAL_ROOMS)
     public void deleteRoom(Long id) {
+        if (!hospitalRoomRepository.existsById(id)) {
+            throw new EntityNotFoundException("Hospital room with ID " + id + " not found.");
+        }
         hospitalRoomRepository.deleteById(id);
+        availabilityIndex.remove(id);
+    }
+
+    /**
+     * Admits a patient to the given room, moving them out of their current room if they have one.
+     *
+     * @throws RoomUnavailableException if the room is already occupied
+     */
+    @Transactional
+    public HospitalRoom admitPatient(Long roomId, Long patientId) {
+        return admit(findPatient(patientId), roomId);
+    }
+
+    /**
+     * Admits a patient to any free room of the given type.
+     *
+     * @throws RoomUnavailableException if every room of the type is occupied
+     */
+    @Transactional
+    public HospitalRoom admitPatientToFreeRoom(String type, Long patientId) {
+        if (!StringUtils.hasText(type)) {
+            throw new IllegalArgumentException("Room type is required.");
+        }
+        Patient patient = findPatient(patientId);
+        while (true) {
+            Long roomId = availabilityIndex.claimAny(type);
+            if (roomId == null) {
+                throw new RoomUnavailableException("No free hospital room of type " + type + ".");
+            }
+            HospitalRoom currentRoom = patient.getHospitalRoom();
+            if (currentRoom != null && currentRoom.getId().equals(roomId)) {
+                // The patient already holds the room the index offered; occupy() would leave the loaded room stale.
+                onCompletion(() -> roomCache.evict(roomId), () -> availabilityIndex.markFree(roomId));
+                currentRoom.setAvailability(false);
+                return currentRoom;
+            }
+            // A room the index still believed free may have been taken by another instance; its bit stays cleared.
+            if (hospitalRoomRepository.occupy(roomId) == 1) {
+                return moveInto(patient, roomId);
+            }
+        }
+    }
+
+    @Transactional
+    public HospitalRoom dischargePatient(Long roomId, Long patientId) {
+        Patient patient = findPatient(patientId);
+        HospitalRoom room = patient.getHospitalRoom();
+        if (room == null || !room.getId().equals(roomId)) {
+            throw new IllegalArgumentException("Patient with ID " + patientId + " is not admitted to hospital room with ID " + roomId + ".");
+        }
+        discharge(patient);
+        return room;
+    }
+
+    HospitalRoom admit(Patient patient, Long roomId) {
+        HospitalRoom currentRoom = patient.getHospitalRoom();
+        if (currentRoom != null && currentRoom.getId().equals(roomId)) {
+            return currentRoom;
+        }
+        if (!hospitalRoomRepository.existsById(roomId)) {
+            throw new EntityNotFoundException("Hospital room with ID " + roomId + " not found.");
+        }
+        if (!availabilityIndex.claim(roomId) || hospitalRoomRepository.occupy(roomId) == 0) {
+            throw new RoomUnavailableException("Hospital room with ID " + roomId + " is not available.");
+        }
+        return moveInto(patient, roomId);
+    }
+
+    void discharge(Patient patient) {
+        HospitalRoom room = patient.getHospitalRoom();
+        if (room == null) {
+            return;
+        }
+        // The room is managed here, so freeing it through the entity lets Hibernate check and bump its version.
+        room.setAvailability(true);
+        patient.setHospitalRoom(null);
+        statisticsService.patientDischarged(patient.getId());
+        Long roomId = room.getId();
+        onCompletion(() -> {
+            availabilityIndex.markFree(roomId);
+            roomCache.evict(roomId);
+        }, () -> { });
+    }
+
+    private HospitalRoom moveInto(Patient patient, Long roomId) {
+        onCompletion(() -> roomCache.evict(roomId), () -> availabilityIndex.markFree(roomId));
+        discharge(patient);
+        HospitalRoom room = hospitalRoomRepository.findById(roomId)
+                .orElseThrow(() -> new EntityNotFoundException("Hospital room with ID " + roomId + " not found."));
+        room.setAvailability(false);
+        patient.setHospitalRoom(room);
+        statisticsService.patientAdmitted(patient.getId(), room.getType());
+        return room;
+    }
+
+    private Patient findPatient(Long patientId) {
+        return patientRepository.findById(patientId)
+                .orElseThrow(() -> new EntityNotFoundException("Patient not found with ID: " + patientId));
+    }
+
+    private void onCompletion(Runnable afterCommit, Runnable afterRollback) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    afterCommit.run();
+                } else {
+                    afterRollback.run();
+                }
+            }
+        });
     }
 }
@@ -0,0 +1,110 @@
+package com.healthflow.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.healthflow.models.IdempotencyRecord;
+import com.healthflow.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Responses of requests sent with an {@code Idempotency-Key}, kept for {@code healthflow.idempotency.ttl}.
+ * Recent responses are held in memory up to {@code healthflow.idempotency.memory-size}; every response is
+ * also written to the {@code idempotency_record} table, so retries still find it after an eviction or
+ * a restart. Requests that are still running are tracked separately, so that a duplicate arriving in the
+ * meantime can wait for the original instead of running a second time.
+ */
+@Service
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    // Rough size of a cached response besides its body, for weighing entries against the memory limit.
+    private static final int ENTRY_OVERHEAD = 128;
+
+    public record StoredResponse(byte[] fingerprint, int status, String contentType, byte[] body) {
+    }
+
+    private final IdempotencyRecordRepository repository;
+    private final Duration ttl;
+    private final Cache<String, StoredResponse> recent;
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> running = new ConcurrentHashMap<>();
+
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            @Value("${healthflow.idempotency.ttl:24h}") Duration ttl,
+                            @Value("${healthflow.idempotency.memory-size:16MB}") DataSize memorySize) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.recent = Caffeine.newBuilder()
+                .maximumWeight(memorySize.toBytes())
+                .weigher((String id, StoredResponse response) -> ENTRY_OVERHEAD + response.body().length)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Returns the stored response for {@code id}, or {@code null} if there is none or it has expired.
+     */
+    // Read-write on purpose, so it runs on the primary: a lagging replica could miss a response stored a moment ago.
+    @Transactional
+    public StoredResponse find(String id) {
+        StoredResponse cached = recent.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        return repository.findById(id)
+                .filter(stored -> stored.getCreatedAt().isAfter(LocalDateTime.now().minus(ttl)))
+                .map(stored -> {
+                    StoredResponse response = new StoredResponse(stored.getFingerprint(), stored.getStatus(),
+                            stored.getContentType(), stored.getBody() == null ? new byte[0] : stored.getBody());
+                    recent.put(id, response);
+                    return response;
+                })
+                .orElse(null);
+    }
+
+    public void save(String id, StoredResponse response) {
+        recent.put(id, response);
+        try {
+            repository.save(new IdempotencyRecord(id, response.fingerprint(), response.status(),
+                    response.contentType(), response.body(), LocalDateTime.now(), null));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance stored a response for the same key first; keep that one.
+            log.debug("Response for idempotency key {} was already stored", id);
+        }
+    }
+
+    /**
+     * Marks the request {@code id} as running with {@code response} completing when it finishes.
+     *
+     * @return {@code null} if the caller now runs the request, or the future of the request already running
+     */
+    public CompletableFuture<StoredResponse> start(String id, CompletableFuture<StoredResponse> response) {
+        return running.putIfAbsent(id, response);
+    }
+
+    public void finish(String id, CompletableFuture<StoredResponse> response) {
+        running.remove(id, response);
+    }
+
+    @Scheduled(fixedDelayString = "${healthflow.idempotency.purge-interval:1h}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = repository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency records", purged);
+        }
+    }
+}
@@ -1,35 +1,210 @@
 package com.healthflow.service;
 
+import com.healthflow.dto.CursorPage;
+import com.healthflow.dto.MedicalRecordDTO;
+import com.healthflow.dto.SyncPage;
 import com.healthflow.models.MedicalRecord;
+import com.healthflow.models.MedicalRecordDeletion;
+import com.healthflow.repository.MedicalRecordDeletionRepository;
 import com.healthflow.repository.MedicalRecordRepository;
+import com.healthflow.repository.PatientRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
+@Timed(value = "healthflow.service", histogram = true)
 public class MedicalRecordService {
 
     private final MedicalRecordRepository medicalRecordRepository;
+    private final MedicalRecordDeletionRepository medicalRecordDeletionRepository;
+    private final PatientRepository patientRepository;
+    private final Duration syncSafetyWindow;
 
-    public MedicalRecordService(MedicalRecordRepository medicalRecordRepository) {
+    public MedicalRecordService(MedicalRecordRepository medicalRecordRepository,
+                                MedicalRecordDeletionRepository medicalRecordDeletionRepository,
+                                PatientRepository patientRepository,
+                                @Value("${healthflow.medical-records.sync-safety-window:30s}") Duration syncSafetyWindow) {
         this.medicalRecordRepository = medicalRecordRepository;
+        this.medicalRecordDeletionRepository = medicalRecordDeletionRepository;
+        this.patientRepository = patientRepository;
+        this.syncSafetyWindow = syncSafetyWindow;
     }
 
+    @Transactional(readOnly = true)
     public List<MedicalRecord> getAllMedicalRecords() {
         return medicalRecordRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public Optional<MedicalRecord> getMedicalRecordById(Long id) {
         return medicalRecordRepository.findById(id);
     }
 
+    /**
+     * Pages through a patient's medical history newest first. Records are ordered by date and ID,
+     * both descending, and records without a date come last. The cursor holds the date and ID of
+     * the last record returned.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<MedicalRecordDTO> getPatientHistory(Long patientId, String after, Integer limit) {
+        requirePatient(patientId);
+        int pageSize = CursorPage.resolveLimit(limit);
+
+        List<MedicalRecordDTO> rows = new ArrayList<>();
+        long undatedBefore = Long.MAX_VALUE;
+        if (after == null || after.isBlank()) {
+            rows.addAll(medicalRecordRepository.findHistory(patientId, Limit.of(pageSize + 1)));
+        } else {
+            String[] keys = CursorPage.decodeCursor(after, 2);
+            long id = parseKey(after, () -> Long.parseLong(keys[1]));
+            if (keys[0].isEmpty()) {
+                undatedBefore = id;
+            } else {
+                LocalDate date = parseKey(after, () -> LocalDate.parse(keys[0]));
+                rows.addAll(medicalRecordRepository.findHistoryBefore(patientId, date, id, Limit.of(pageSize + 1)));
+            }
+        }
+        if (rows.size() <= pageSize) {
+            rows.addAll(medicalRecordRepository.findUndatedHistoryBefore(patientId, undatedBefore,
+                    Limit.of(pageSize + 1 - rows.size())));
+        }
+        return CursorPage.fromRows(rows, pageSize, record -> CursorPage.encodeCursor(
+                record.getDate() == null ? "" : record.getDate(), record.getId()));
+    }
+
+    /**
+     * Returns the patient's records created or updated after {@code since}, oldest change first,
+     * together with the IDs of the records deleted in the same range, for clients that keep a local
+     * copy of the history in sync. {@code since} is an ISO date-time for the first sync and the sync
+     * cursor of the previous response after that. Both cursors hold the update time and ID of the last
+     * change returned, so records updated in the same instant are neither skipped nor returned twice.
+     * <p>
+     * Update times are stamped when a transaction flushes, not when it commits, so a change can become
+     * visible after later ones were already returned. The sync cursor therefore never moves past the
+     * safety window: changes made within it are returned again by the next sync, and clients apply
+     * them by ID.
+     */
+    @Transactional(readOnly = true)
+    public SyncPage<MedicalRecordDTO> getPatientHistoryChanges(Long patientId, String since,
+                                                              String after, Integer limit) {
+        requirePatient(patientId);
+        int pageSize = CursorPage.resolveLimit(limit);
+        // Everything stamped before this point has committed by the time the queries below run.
+        ChangePosition settled = new ChangePosition(LocalDateTime.now().minus(syncSafetyWindow), Long.MAX_VALUE);
+
+        ChangePosition position = after != null && !after.isBlank()
+                ? ChangePosition.fromCursor(after)
+                : ChangePosition.fromSince(since);
+        List<Change> changes = new ArrayList<>();
+        medicalRecordRepository.findChangedSince(patientId, position.updatedAt(), position.id(), Limit.of(pageSize + 1))
+                .forEach(record -> changes.add(new Change(ChangePosition.of(record), record)));
+        medicalRecordDeletionRepository.findDeletedSince(patientId, position.updatedAt(), position.id(), Limit.of(pageSize + 1))
+                .forEach(deletion -> changes.add(new Change(ChangePosition.of(deletion), null)));
+        changes.sort(Comparator.comparing(Change::position));
+
+        CursorPage<Change> page = CursorPage.fromRows(changes, pageSize, change -> change.position().toCursor());
+        List<Change> items = page.items();
+        ChangePosition reached = items.isEmpty() ? position : items.get(items.size() - 1).position();
+        ChangePosition syncPosition = reached.compareTo(settled) < 0 ? reached : settled;
+        return new SyncPage<>(
+                items.stream().filter(Change::isUpdate).map(Change::record).toList(),
+                items.stream().filter(change -> !change.isUpdate()).map(change -> change.position().id()).toList(),
+                page.nextCursor(),
+                syncPosition.toCursor());
+    }
+
     public MedicalRecord saveMedicalRecord(MedicalRecord medicalRecord) {
         return medicalRecordRepository.save(medicalRecord);
     }
 
-    public void deleteMedicalRecord(Long id) {
-        medicalRecordRepository.deleteById(id);
+    /**
+     * Deletes the record and leaves a tombstone for incremental sync in the same transaction.
+     * Returns false if there is no such record.
+     */
+    @Transactional
+    public boolean deleteMedicalRecord(Long id) {
+        Optional<MedicalRecord> record = medicalRecordRepository.findById(id);
+        if (record.isEmpty()) {
+            return false;
+        }
+        medicalRecordDeletionRepository.save(new MedicalRecordDeletion(id, record.get().getPatient().getId(), null));
+        medicalRecordRepository.delete(record.get());
+        return true;
     }
-}
 
+    private void requirePatient(Long patientId) {
+        if (!patientRepository.existsById(patientId)) {
+            throw new EntityNotFoundException("Patient not found with ID: " + patientId);
+        }
+    }
+
+    /**
+     * The update time and ID of the last change a client has received. A plain date-time is
+     * past every record updated at or before it.
+     */
+    private record ChangePosition(LocalDateTime updatedAt, long id) implements Comparable<ChangePosition> {
+
+        static ChangePosition of(MedicalRecordDTO record) {
+            return new ChangePosition(record.getUpdatedAt(), record.getId());
+        }
+
+        static ChangePosition of(MedicalRecordDeletion deletion) {
+            return new ChangePosition(deletion.getDeletedAt(), deletion.getRecordId());
+        }
+
+        static ChangePosition fromSince(String since) {
+            try {
+                return new ChangePosition(LocalDateTime.parse(since, DateTimeFormatter.ISO_DATE_TIME), Long.MAX_VALUE);
+            } catch (DateTimeParseException e) {
+                return fromCursor(since);
+            }
+        }
+
+        static ChangePosition fromCursor(String cursor) {
+            String[] keys = CursorPage.decodeCursor(cursor, 2);
+            return new ChangePosition(parseKey(cursor, () -> LocalDateTime.parse(keys[0])),
+                    parseKey(cursor, () -> Long.parseLong(keys[1])));
+        }
+
+        String toCursor() {
+            return CursorPage.encodeCursor(updatedAt, id);
+        }
+
+        @Override
+        public int compareTo(ChangePosition other) {
+            int byTime = updatedAt.compareTo(other.updatedAt);
+            return byTime != 0 ? byTime : Long.compare(id, other.id);
+        }
+    }
+
+    /** An updated record, or a deletion when {@code record} is null. */
+    private record Change(ChangePosition position, MedicalRecordDTO record) {
+
+        boolean isUpdate() {
+            return record != null;
+        }
+    }
+
+    private static <T> T parseKey(String cursor, Supplier<T> parser) {
+        try {
+            return parser.get();
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
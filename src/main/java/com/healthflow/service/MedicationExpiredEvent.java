@@ -0,0 +1,9 @@
+package com.healthflow.service;
+
+import java.time.LocalDate;
+
+/**
+ * Published by {@link MedicationExpiryTracker} once a medication's expiration date has passed.
+ */
+public record MedicationExpiredEvent(Long medicationId, String name, LocalDate expirationDate) {
+}
@@ -0,0 +1,10 @@
+package com.healthflow.service;
+
+import java.time.LocalDate;
+
+/**
+ * Published by {@link MedicationExpiryTracker} once a medication's expiration date comes within the
+ * warning window.
+ */
+public record MedicationExpiringEvent(Long medicationId, String name, LocalDate expirationDate, long daysUntilExpiry) {
+}
@@ -0,0 +1,266 @@
+package com.healthflow.service;
+
+import com.healthflow.dto.CursorPage;
+import com.healthflow.dto.ExpiringMedicationDTO;
+import com.healthflow.models.Medication;
+import com.healthflow.models.MedicationExpiryScan;
+import com.healthflow.repository.MedicationExpiryScanRepository;
+import com.healthflow.repository.MedicationRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * Keeps every medication's expiration date in memory, ordered by date, so that expiring stock can be
+ * listed without touching the database. The set is loaded once at startup through the expiration
+ * date index and kept current by {@link MedicationService} after each committed write.
+ * <p>
+ * A scheduled scan publishes a {@link MedicationExpiringEvent} when a medication enters the warning
+ * window and a {@link MedicationExpiredEvent} when it expires. The scan remembers how far it got, so
+ * each run only visits the dates that became due since the previous one. That progress is stored in
+ * {@link MedicationExpiryScan} and read back at startup, so each event is published once, not once
+ * per application run.
+ */
+@Component
+public class MedicationExpiryTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(MedicationExpiryTracker.class);
+
+    private static final Comparator<Tracked> BY_EXPIRY =
+            Comparator.comparing(Tracked::expirationDate).thenComparingLong(Tracked::id);
+
+    private final MedicationRepository medicationRepository;
+    private final MedicationExpiryScanRepository scanRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int warningDays;
+
+    private final ConcurrentSkipListSet<Tracked> byExpiry = new ConcurrentSkipListSet<>(BY_EXPIRY);
+    private final ConcurrentMap<Long, Tracked> byId = new ConcurrentHashMap<>();
+
+    // Progress of the scan, guarded by this: events were published for every medication expiring
+    // before expiredBefore and for every medication expiring on or before warnedThrough.
+    private LocalDate expiredBefore = LocalDate.MIN;
+    private LocalDate warnedThrough = LocalDate.MIN;
+
+    public MedicationExpiryTracker(MedicationRepository medicationRepository,
+                                   MedicationExpiryScanRepository scanRepository,
+                                   ApplicationEventPublisher eventPublisher,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${healthflow.medications.expiry-warning-days:30}") int warningDays) {
+        if (warningDays < 0) {
+            throw new IllegalArgumentException("Expiry warning days cannot be negative.");
+        }
+        this.medicationRepository = medicationRepository;
+        this.scanRepository = scanRepository;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.warningDays = warningDays;
+    }
+
+    @PostConstruct
+    void rebuild() {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Medication> medications = medicationRepository.streamAllByOrderByExpirationDateAscIdAsc()) {
+                medications.forEach(medication -> track(Tracked.of(medication)));
+            }
+        });
+        scanRepository.findById(MedicationExpiryScan.ID).ifPresent(progress -> {
+            synchronized (this) {
+                expiredBefore = progress.getExpiredBefore();
+                warnedThrough = progress.getWarnedThrough();
+            }
+        });
+        log.info("Tracking expiration dates of {} medications", byId.size());
+    }
+
+    @Scheduled(fixedDelayString = "${healthflow.medications.expiry-scan-interval:5m}")
+    public void scan() {
+        scan(LocalDate.now());
+    }
+
+    void scan(LocalDate today) {
+        List<Object> events = new ArrayList<>();
+        MedicationExpiryScan progress = null;
+        synchronized (this) {
+            boolean advanced = false;
+            if (today.isAfter(expiredBefore)) {
+                between(expiredBefore, today).forEach(medication -> events.add(medication.expiredEvent()));
+                expiredBefore = today;
+                advanced = true;
+            }
+            LocalDate horizon = today.plusDays(warningDays);
+            if (horizon.isAfter(warnedThrough)) {
+                LocalDate from = warnedThrough.isBefore(today) ? today : warnedThrough.plusDays(1);
+                between(from, horizon.plusDays(1)).forEach(medication -> events.add(medication.expiringEvent(today)));
+                warnedThrough = horizon;
+                advanced = true;
+            }
+            if (advanced) {
+                progress = new MedicationExpiryScan(MedicationExpiryScan.ID, expiredBefore, warnedThrough);
+            }
+        }
+        events.forEach(eventPublisher::publishEvent);
+        // Saved after publishing: a crash in between announces these events again rather than never.
+        if (progress != null) {
+            scanRepository.save(progress);
+        }
+        if (!events.isEmpty()) {
+            log.info("Published {} medication expiry events", events.size());
+        }
+    }
+
+    /**
+     * Returns medications expiring within {@code days} days, soonest first, starting with those that
+     * have already expired when {@code includeExpired} is set. The cursor holds the date and ID of the
+     * last medication returned.
+     */
+    public CursorPage<ExpiringMedicationDTO> findExpiring(Integer days, boolean includeExpired, String after, Integer limit) {
+        return findExpiring(LocalDate.now(), days, includeExpired, after, limit);
+    }
+
+    CursorPage<ExpiringMedicationDTO> findExpiring(LocalDate today, Integer days, boolean includeExpired,
+                                                   String after, Integer limit) {
+        int withinDays = days == null ? warningDays : days;
+        if (withinDays < 0) {
+            throw new IllegalArgumentException("Days cannot be negative.");
+        }
+        int pageSize = CursorPage.resolveLimit(limit);
+        Tracked start = includeExpired ? null : Tracked.first(today);
+        boolean startInclusive = true;
+        if (after != null && !after.isBlank()) {
+            Tracked last = decodeCursor(after);
+            if (start == null || BY_EXPIRY.compare(last, start) >= 0) {
+                start = last;
+                startInclusive = false;
+            }
+        }
+        Tracked end = Tracked.first(today.plusDays(withinDays + 1L));
+        NavigableSet<Tracked> window;
+        if (start == null) {
+            window = byExpiry.headSet(end, false);
+        } else if (BY_EXPIRY.compare(start, end) < 0) {
+            window = byExpiry.subSet(start, startInclusive, end, false);
+        } else {
+            window = Collections.emptyNavigableSet();
+        }
+        List<ExpiringMedicationDTO> rows = window.stream()
+                .limit(pageSize + 1L)
+                .map(medication -> medication.toDto(today))
+                .toList();
+        return CursorPage.fromRows(rows, pageSize,
+                medication -> CursorPage.encodeCursor(medication.expirationDate(), medication.id()));
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    void put(Medication medication) {
+        put(Tracked.of(medication));
+    }
+
+    synchronized void remove(Long medicationId) {
+        Tracked previous = byId.remove(medicationId);
+        if (previous != null) {
+            byExpiry.remove(previous);
+        }
+    }
+
+    void putAfterCommit(Medication medication) {
+        // Copy the fields now; the entity may be changed again before the transaction commits.
+        Tracked tracked = Tracked.of(medication);
+        AfterCommit.run(() -> put(tracked));
+    }
+
+    void removeAfterCommit(Long medicationId) {
+        AfterCommit.run(() -> remove(medicationId));
+    }
+
+    private void put(Tracked tracked) {
+        Object event = null;
+        synchronized (this) {
+            Tracked previous = track(tracked);
+            if (previous == null || !previous.expirationDate().equals(tracked.expirationDate())) {
+                // Medications that land in a window the scan has already passed are announced right away.
+                if (tracked.expirationDate().isBefore(expiredBefore)) {
+                    event = tracked.expiredEvent();
+                } else if (!tracked.expirationDate().isAfter(warnedThrough)) {
+                    event = tracked.expiringEvent(LocalDate.now());
+                }
+            }
+        }
+        if (event != null) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    private synchronized Tracked track(Tracked tracked) {
+        Tracked previous = byId.put(tracked.id(), tracked);
+        if (previous != null) {
+            byExpiry.remove(previous);
+        }
+        byExpiry.add(tracked);
+        return previous;
+    }
+
+    private NavigableSet<Tracked> between(LocalDate from, LocalDate toExclusive) {
+        return byExpiry.subSet(Tracked.first(from), true, Tracked.first(toExclusive), false);
+    }
+
+    private static Tracked decodeCursor(String cursor) {
+        String[] keys = CursorPage.decodeCursor(cursor, 2);
+        try {
+            return new Tracked(Long.parseLong(keys[1]), null, null, LocalDate.parse(keys[0]));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private record Tracked(long id, String name, String dosage, LocalDate expirationDate) {
+
+        static Tracked of(Medication medication) {
+            return new Tracked(medication.getId(), medication.getName(), medication.getDosage(), medication.getExpirationDate());
+        }
+
+        /**
+         * Sorts before every medication expiring on the given date.
+         */
+        static Tracked first(LocalDate expirationDate) {
+            return new Tracked(Long.MIN_VALUE, null, null, expirationDate);
+        }
+
+        ExpiringMedicationDTO toDto(LocalDate today) {
+            long daysLeft = ChronoUnit.DAYS.between(today, expirationDate);
+            return new ExpiringMedicationDTO(id, name, dosage, expirationDate, daysLeft, daysLeft < 0);
+        }
+
+        MedicationExpiringEvent expiringEvent(LocalDate today) {
+            return new MedicationExpiringEvent(id, name, expirationDate, ChronoUnit.DAYS.between(today, expirationDate));
+        }
+
+        MedicationExpiredEvent expiredEvent() {
+            return new MedicationExpiredEvent(id, name, expirationDate);
+        }
+    }
+}
@@ -1,28 +1,80 @@
 package com.healthflow.service;
 
+import com.healthflow.config.CacheConfig;
+import com.healthflow.dto.CursorPage;
+import com.healthflow.dto.ExpiringMedicationDTO;
+import com.healthflow.dto.StockLevelDTO;
 import com.healthflow.models.Medication;
+import com.healthflow.models.StockReservation;
 import com.healthflow.repository.MedicationRepository;
+import com.healthflow.repository.StockReservationRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @Service
+@Timed(value = "healthflow.service", histogram = true)
 public class MedicationService {
 
-    private final MedicationRepository medicationRepository;
+    private static final Logger log = LoggerFactory.getLogger(MedicationService.class);
+    private static final int EXPIRED_RESERVATION_BATCH = 500;
 
-    public MedicationService(MedicationRepository medicationRepository) {
+    private final MedicationRepository medicationRepository;
+    private final StockReservationRepository stockReservationRepository;
+    private final MedicationExpiryTracker expiryTracker;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache medicationCache;
+    private final Duration reservationTtl;
+
+    public MedicationService(MedicationRepository medicationRepository,
+                             StockReservationRepository stockReservationRepository,
+                             MedicationExpiryTracker expiryTracker,
+                             PlatformTransactionManager transactionManager,
+                             CacheManager cacheManager,
+                             @Value("${healthflow.medications.reservation-ttl:15m}") Duration reservationTtl) {
         this.medicationRepository = medicationRepository;
+        this.stockReservationRepository = stockReservationRepository;
+        this.expiryTracker = expiryTracker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.medicationCache = cacheManager.getCache(CacheConfig.MEDICATIONS);
+        this.reservationTtl = reservationTtl;
     }
 
-    public List<Medication> getAllMedications() {
-        return medicationRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<Medication> getMedications(String after, Integer limit) {
+        int pageSize = CursorPage.resolveLimit(limit);
+        List<Medication> rows = medicationRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.decodeIdCursor(after), Limit.of(pageSize + 1));
+        return CursorPage.fromRows(rows, pageSize, medication -> CursorPage.encodeCursor(medication.getId()));
     }
 
+    public CursorPage<ExpiringMedicationDTO> getExpiringMedications(Integer days, boolean includeExpired,
+                                                                    String after, Integer limit) {
+        return expiryTracker.findExpiring(days, includeExpired, after, limit);
+    }
+
+    @Cacheable(CacheConfig.MEDICATIONS)
+    @Transactional(readOnly = true)
     public Medication getMedicationById(Long id) {
         return medicationRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Medication not found with ID: " + id));
@@ -30,12 +82,22 @@ public class MedicationService {
 
     public Medication saveMedication(Medication medication) {
         validateMedication(medication);
-        return medicationRepository.save(medication);
+        Medication savedMedication = medicationRepository.save(medication);
+        expiryTracker.putAfterCommit(savedMedication);
+        return savedMedication;
+    }
+
+    @Transactional(readOnly = true)
+    public Long getMedicationVersion(Long id) {
+        return medicationRepository.findVersionById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Medication not found with ID: " + id));
     }
 
-    public Medication updateMedication(Long id, Medication medicationDetails) {
+    @CachePut(cacheNames = CacheConfig.MEDICATIONS, key = "#id")
+    public Medication updateMedication(Long id, Medication medicationDetails, Long expectedVersion) {
         Medication existingMedication = medicationRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Medication not found with ID: " + id));
+        EntityVersions.require(expectedVersion, existingMedication.getVersion(), "Medication with ID " + id);
 
         validateMedication(medicationDetails);
 
@@ -45,46 +107,108 @@ public class MedicationService {
         existingMedication.setStock(medicationDetails.getStock());
         existingMedication.setExpirationDate(medicationDetails.getExpirationDate());
 
-        return medicationRepository.save(existingMedication);
+        Medication savedMedication = medicationRepository.save(existingMedication);
+        expiryTracker.putAfterCommit(savedMedication);
+        return savedMedication;
     }
 
+    @CacheEvict(CacheConfig.MEDICATIONS)
     public void deleteMedication(Long id) {
         if (!medicationRepository.existsById(id)) {
             throw new EntityNotFoundException("Medication not found with ID: " + id);
         }
         medicationRepository.deleteById(id);
+        expiryTracker.removeAfterCommit(id);
     }
 
     @Transactional
-    public void reduceStock(Long id, int amount) {
-        Medication medication = medicationRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Medication not found with ID: " + id));
-
+    public int reduceStock(Long id, int amount) {
         if (amount <= 0) {
             throw new IllegalArgumentException("Reduction amount must be greater than zero.");
         }
-        if (medication.getStock() < amount) {
-            throw new IllegalArgumentException("Not enough stock for medication: " + medication.getName());
+        takeStock(id, amount);
+        return currentStock(id);
+    }
+
+    @Transactional
+    public int increaseStock(Long id, int amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Increase amount must be greater than zero.");
         }
+        if (medicationRepository.incrementStock(id, amount) == 0) {
+            throw new EntityNotFoundException("Medication not found with ID: " + id);
+        }
+        evictAfterCommit(id);
+        return currentStock(id);
+    }
 
-        medication.setStock(medication.getStock() - amount);
-        medicationRepository.save(medication);
+    @Transactional
+    public StockReservation reserveStock(Long id, int amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Reservation amount must be greater than zero.");
+        }
+        takeStock(id, amount);
+        StockReservation reservation = new StockReservation(UUID.randomUUID().toString(), id, amount,
+                LocalDateTime.now().plus(reservationTtl), null);
+        return stockReservationRepository.save(reservation);
     }
 
     @Transactional
-    public void increaseStock(Long id, int amount) {
-        Medication medication = medicationRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Medication not found with ID: " + id));
+    public void commitReservation(String reservationId) {
+        if (stockReservationRepository.deleteReservation(reservationId) == 0) {
+            throw new EntityNotFoundException("Stock reservation not found or already expired: " + reservationId);
+        }
+    }
 
-        if (amount <= 0) {
-            throw new IllegalArgumentException("Increase amount must be greater than zero.");
+    @Transactional
+    public StockLevelDTO releaseReservation(String reservationId) {
+        StockReservation reservation = stockReservationRepository.findById(reservationId)
+                .orElseThrow(() -> new EntityNotFoundException("Stock reservation not found or already expired: " + reservationId));
+        // Deleting first makes a concurrent commit or release of the same reservation a no-op for this one.
+        if (stockReservationRepository.deleteReservation(reservationId) == 0) {
+            throw new EntityNotFoundException("Stock reservation not found or already expired: " + reservationId);
+        }
+        medicationRepository.incrementStock(reservation.getMedicationId(), reservation.getAmount());
+        evictAfterCommit(reservation.getMedicationId());
+        return new StockLevelDTO(reservation.getMedicationId(), currentStock(reservation.getMedicationId()));
+    }
+
+    @Scheduled(fixedDelayString = "${healthflow.medications.reservation-sweep-interval:60s}")
+    public void releaseExpiredReservations() {
+        List<StockReservation> expired = stockReservationRepository.findByExpiresAtBefore(
+                LocalDateTime.now(), Limit.of(EXPIRED_RESERVATION_BATCH));
+        for (StockReservation reservation : expired) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> releaseReservation(reservation.getId()));
+            } catch (EntityNotFoundException e) {
+                // Committed or released while the sweep was running.
+            }
+        }
+        if (!expired.isEmpty()) {
+            log.info("Released {} expired stock reservations", expired.size());
         }
+    }
 
-        medication.setStock(medication.getStock() + amount);
-        medicationRepository.save(medication);
+    private void takeStock(Long id, int amount) {
+        if (medicationRepository.decrementStock(id, amount) == 0) {
+            int available = medicationRepository.findStockById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Medication not found with ID: " + id));
+            throw new IllegalArgumentException("Not enough stock for medication with ID " + id
+                    + ": requested " + amount + ", available " + available + ".");
+        }
+        evictAfterCommit(id);
+    }
+
+    private void evictAfterCommit(Long id) {
+        AfterCommit.run(() -> medicationCache.evict(id));
+    }
+
+    private int currentStock(Long id) {
+        return medicationRepository.findStockById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Medication not found with ID: " + id));
     }
 
-    private void validateMedication(Medication medication) {
+    void validateMedication(Medication medication) {
         if (medication == null) {
             throw new IllegalArgumentException("Medication object cannot be null.");
         }
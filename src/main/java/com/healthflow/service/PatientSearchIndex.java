@@ -0,0 +1,373 @@
+package com.healthflow.service;
+
+import com.healthflow.dto.PatientDTO;
+import com.healthflow.models.Patient;
+import com.healthflow.repository.PatientRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory full-text index over patient names, phone numbers and addresses.
+ * <p>
+ * Text is folded to lower-case ASCII letters and digits (accents are stripped), split into words,
+ * and every word is indexed by its trigrams, padded with {@code ^} and {@code $} so that word
+ * prefixes and endings have their own postings. A query matches patients that contain every query word somewhere in
+ * those fields: two-letter words as a word prefix, longer words anywhere inside a word. Candidates
+ * come from intersecting the postings of the query's trigrams and are then checked and ranked,
+ * exact words above prefixes above infixes, and names above phone numbers above addresses.
+ */
+@Component
+public class PatientSearchIndex {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private static final Logger log = LoggerFactory.getLogger(PatientSearchIndex.class);
+
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int[] FIELD_WEIGHTS = {3, 3, 2, 1};
+    private static final int EXACT = 10;
+    private static final int PREFIX = 6;
+    private static final int INFIX = 3;
+
+    private final PatientRepository patientRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> slotsByPatient = new HashMap<>();
+    private Entry[] entries = new Entry[1024];
+    private int slots;
+    private int removed;
+
+    public PatientSearchIndex(PatientRepository patientRepository, PlatformTransactionManager transactionManager) {
+        this.patientRepository = patientRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PostConstruct
+    void rebuildIndex() {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<PatientDTO> patients = patientRepository.streamAllAsDto()) {
+                patients.forEach(patient -> put(patient.id(), patient.firstName(), patient.lastName(),
+                        patient.phone(), patient.address()));
+            }
+        });
+        log.info("Indexed {} patients for search with {} distinct trigrams", slotsByPatient.size(), postings.size());
+    }
+
+    /**
+     * Returns the IDs of the best matching patients, best match first.
+     *
+     * @throws IllegalArgumentException if the query has no word of at least two letters or digits
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> terms = Arrays.stream(normalize(query).split(" "))
+                .filter(term -> term.length() >= MIN_TERM_LENGTH)
+                .distinct()
+                .toList();
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain a word of at least " + MIN_TERM_LENGTH + " letters or digits.");
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>();
+            for (String term : terms) {
+                for (String key : queryKeys(term)) {
+                    Postings list = postings.get(key);
+                    if (list == null) {
+                        return List.of();
+                    }
+                    lists.add(list);
+                }
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            // Slots are visited in ascending order and ties go to the lower slot, so once the top
+            // hits all have the highest score any patient can reach, the rest cannot displace them.
+            int maxScore = 0;
+            for (String term : terms) {
+                maxScore += bestPossibleScore(term);
+            }
+            int[] cursors = new int[lists.size()];
+            PriorityQueue<Hit> best = new PriorityQueue<>(Hit.WORST_FIRST);
+            Postings smallest = lists.get(0);
+            candidates:
+            for (int i = 0; i < smallest.size; i++) {
+                int slot = smallest.slots[i];
+                for (int j = 1; j < lists.size(); j++) {
+                    Postings list = lists.get(j);
+                    cursors[j] = list.seek(slot, cursors[j]);
+                    if (cursors[j] == list.size) {
+                        break candidates;
+                    }
+                    if (list.slots[cursors[j]] != slot) {
+                        continue candidates;
+                    }
+                }
+                Entry entry = entries[slot];
+                if (entry == null) {
+                    continue;
+                }
+                int score = score(entry, terms);
+                if (score > 0) {
+                    best.add(new Hit(entry.patientId, slot, score));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                    if (best.size() == limit && best.peek().score == maxScore) {
+                        break;
+                    }
+                }
+            }
+
+            Hit[] hits = best.toArray(new Hit[0]);
+            Arrays.sort(hits, Hit.WORST_FIRST.reversed());
+            return Arrays.stream(hits).map(Hit::patientId).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(Patient patient) {
+        put(patient.getId(), patient.getFirstName(), patient.getLastName(), patient.getPhone(), patient.getAddress());
+    }
+
+    public void remove(Long patientId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsByPatient.remove(patientId);
+            if (slot != null) {
+                entries[slot] = null;
+                removed++;
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes the patient once the current transaction commits, or right away without one.
+     */
+    void putAfterCommit(Patient patient) {
+        AfterCommit.run(() -> put(patient));
+    }
+
+    void removeAfterCommit(Long patientId) {
+        AfterCommit.run(() -> remove(patientId));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsByPatient.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Long patientId, String firstName, String lastName, String phone, String address) {
+        Entry entry = new Entry(patientId, new String[]{
+                normalize(firstName), normalize(lastName), normalize(phone), normalize(address)});
+        lock.writeLock().lock();
+        try {
+            Integer previous = slotsByPatient.remove(patientId);
+            if (previous != null) {
+                entries[previous] = null;
+                removed++;
+            }
+            add(entry);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Entry entry) {
+        if (slots == entries.length) {
+            entries = Arrays.copyOf(entries, slots * 2);
+        }
+        int slot = slots++;
+        entries[slot] = entry;
+        slotsByPatient.put(entry.patientId, slot);
+        // Slots only grow, so appending keeps every postings list sorted.
+        for (String key : indexKeys(entry)) {
+            postings.computeIfAbsent(key, k -> new Postings()).add(slot);
+        }
+    }
+
+    /**
+     * Removed and updated patients leave dead slots behind; once they make up a quarter of the
+     * index, the postings are rebuilt from the live entries.
+     */
+    private void compactIfNeeded() {
+        if (removed < 1024 || removed * 4 < slots) {
+            return;
+        }
+        Entry[] live = Arrays.stream(entries, 0, slots).filter(Objects::nonNull).toArray(Entry[]::new);
+        postings.clear();
+        slotsByPatient.clear();
+        entries = new Entry[Math.max(1024, live.length * 2)];
+        slots = 0;
+        removed = 0;
+        for (Entry entry : live) {
+            add(entry);
+        }
+    }
+
+    private static int score(Entry entry, List<String> terms) {
+        int total = 0;
+        for (String term : terms) {
+            int best = 0;
+            for (int field = 0; field < entry.fields.length; field++) {
+                best = Math.max(best, match(entry.fields[field], term) * FIELD_WEIGHTS[field]);
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private static int match(String field, String term) {
+        int best = 0;
+        for (int at = field.indexOf(term); at >= 0; at = field.indexOf(term, at + 1)) {
+            boolean startsWord = at == 0 || field.charAt(at - 1) == ' ';
+            boolean endsWord = at + term.length() == field.length() || field.charAt(at + term.length()) == ' ';
+            if (startsWord && endsWord) {
+                return EXACT;
+            }
+            if (startsWord) {
+                best = PREFIX;
+            } else if (term.length() > MIN_TERM_LENGTH) {
+                best = Math.max(best, INFIX);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Upper bound of a term's score: an exact word match is only possible if some word has all the
+     * trigrams of {@code ^term$}, and a prefix match only if some word has those of {@code ^term}.
+     */
+    private int bestPossibleScore(String term) {
+        int match = postings.keySet().containsAll(trigrams("^" + term + "$")) ? EXACT
+                : postings.keySet().containsAll(trigrams("^" + term)) ? PREFIX
+                : INFIX;
+        return match * FIELD_WEIGHTS[0];
+    }
+
+    private static Set<String> indexKeys(Entry entry) {
+        Set<String> keys = new HashSet<>();
+        for (String field : entry.fields) {
+            for (String word : field.split(" ")) {
+                if (word.length() >= MIN_TERM_LENGTH) {
+                    keys.addAll(trigrams("^" + word + "$"));
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static List<String> queryKeys(String term) {
+        return term.length() == MIN_TERM_LENGTH ? List.of("^" + term) : trigrams(term);
+    }
+
+    private static List<String> trigrams(String text) {
+        List<String> trigrams = new ArrayList<>(Math.max(0, text.length() - 2));
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    /**
+     * Lower-cases, strips accents and replaces everything but letters and digits with single spaces.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            } else if (!normalized.isEmpty() && normalized.charAt(normalized.length() - 1) != ' ') {
+                normalized.append(' ');
+            }
+        }
+        int end = normalized.length();
+        return end > 0 && normalized.charAt(end - 1) == ' ' ? normalized.substring(0, end - 1) : normalized.toString();
+    }
+
+    private record Entry(long patientId, String[] fields) {
+    }
+
+    private record Hit(long patientId, int slot, int score) {
+
+        private static final Comparator<Hit> WORST_FIRST = Comparator.comparingInt(Hit::score)
+                .thenComparing(Comparator.comparingInt(Hit::slot).reversed());
+    }
+
+    /**
+     * Sorted, growable list of slots.
+     */
+    private static final class Postings {
+
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        /**
+         * Returns the position of the first slot at or after {@code from} that is not less than
+         * {@code slot}, or {@code size} if there is none. Gallops forward, so walking a list in
+         * order costs little more than a merge.
+         */
+        int seek(int slot, int from) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && slots[high] < slot) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int position = Arrays.binarySearch(slots, low, Math.min(high + 1, size), slot);
+            return position >= 0 ? position : -position - 1;
+        }
+    }
+}
@@ -1,40 +1,87 @@
 package com.healthflow.service;
 
+import com.healthflow.dto.CursorPage;
 import com.healthflow.models.Patient;
 import com.healthflow.repository.PatientRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
+@Timed(value = "healthflow.service", histogram = true)
 public class PatientService {
 
     private final PatientRepository patientRepository;
+    private final HospitalRoomService hospitalRoomService;
+    private final PatientSearchIndex searchIndex;
 
-    public PatientService(PatientRepository patientRepository) {
+    public PatientService(PatientRepository patientRepository,
+                          HospitalRoomService hospitalRoomService,
+                          PatientSearchIndex searchIndex) {
         this.patientRepository = patientRepository;
+        this.hospitalRoomService = hospitalRoomService;
+        this.searchIndex = searchIndex;
     }
 
-    public List<Patient> getAllPatients() {
-        return patientRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPage<Patient> getPatients(String after, Integer limit) {
+        int pageSize = CursorPage.resolveLimit(limit);
+        List<Patient> rows = patientRepository.findByIdGreaterThanOrderByIdAsc(
+                CursorPage.decodeIdCursor(after), Limit.of(pageSize + 1));
+        return CursorPage.fromRows(rows, pageSize, patient -> CursorPage.encodeCursor(patient.getId()));
     }
 
+    @Transactional(readOnly = true)
     public Patient getPatientById(Long id) {
         return patientRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Patient not found with ID: " + id));
     }
 
+    /**
+     * Finds patients by partial name, phone number or address, best match first.
+     */
+    @Transactional(readOnly = true)
+    public List<Patient> searchPatients(String query, Integer limit) {
+        int resultLimit = limit == null ? PatientSearchIndex.DEFAULT_LIMIT : limit;
+        if (resultLimit < 1 || resultLimit > PatientSearchIndex.MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + PatientSearchIndex.MAX_LIMIT + ".");
+        }
+        List<Long> ids = searchIndex.search(query, resultLimit);
+        Map<Long, Patient> patients = new HashMap<>();
+        patientRepository.findByIdIn(ids).forEach(patient -> patients.put(patient.getId(), patient));
+        return ids.stream().map(patients::get).filter(Objects::nonNull).toList();
+    }
+
     public Patient savePatient(Patient patient) {
         validatePatient(patient);
-        return patientRepository.save(patient);
+        Patient savedPatient = patientRepository.save(patient);
+        searchIndex.putAfterCommit(savedPatient);
+        return savedPatient;
+    }
+
+    @Transactional(readOnly = true)
+    public Long getPatientVersion(Long id) {
+        return patientRepository.findVersionById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Patient not found with ID: " + id));
     }
 
-    public Patient updatePatient(Long id, Patient patientDetails) {
+    /**
+     * Updates the patient; when {@code expectedVersion} is given, only if it is still the current version.
+     */
+    @Transactional
+    public Patient updatePatient(Long id, Patient patientDetails, Long expectedVersion) {
         Patient existingPatient = patientRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Patient not found with ID: " + id));
+        EntityVersions.require(expectedVersion, existingPatient.getVersion(), "Patient with ID " + id);
 
         validatePatient(patientDetails);
 
@@ -48,20 +95,24 @@ public class PatientService {
             existingPatient.setAddress(patientDetails.getAddress());
         }
         if (patientDetails.getHospitalRoom() != null) {
-            existingPatient.setHospitalRoom(patientDetails.getHospitalRoom());
+            hospitalRoomService.admit(existingPatient, patientDetails.getHospitalRoom().getId());
         }
 
-        return patientRepository.save(existingPatient);
+        Patient savedPatient = patientRepository.save(existingPatient);
+        searchIndex.putAfterCommit(savedPatient);
+        return savedPatient;
     }
 
+    @Transactional
     public void deletePatient(Long id) {
-        if (!patientRepository.existsById(id)) {
-            throw new EntityNotFoundException("Patient not found with ID: " + id);
-        }
-        patientRepository.deleteById(id);
+        Patient patient = patientRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Patient not found with ID: " + id));
+        hospitalRoomService.discharge(patient);
+        patientRepository.delete(patient);
+        searchIndex.removeAfterCommit(id);
     }
     
-    private void validatePatient(Patient patient) {
+    void validatePatient(Patient patient) {
         if (patient == null) {
             throw new IllegalArgumentException("Patient object cannot be null");
         }
@@ -1,30 +1,48 @@
 package com.healthflow.service;
 
+import com.healthflow.dto.CursorPage;
 import com.healthflow.dto.PrescriptionDTO;
+import com.healthflow.models.Doctor;
+import com.healthflow.models.Medication;
+import com.healthflow.models.Patient;
 import com.healthflow.models.Prescription;
 import com.healthflow.repository.PrescriptionRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "healthflow.service", histogram = true)
 public class PrescriptionService {
 
     @Autowired
     private PrescriptionRepository prescriptionRepository;
 
-    public List<PrescriptionDTO> getAllPrescriptions() {
-        List<Prescription> prescriptions = prescriptionRepository.findAll();
-        return prescriptions.stream()
-                .map(PrescriptionDTO::fromEntity)  
-                .collect(Collectors.toList());    
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Transactional(readOnly = true)
+    public CursorPage<PrescriptionDTO> getPrescriptions(String after, Integer limit) {
+        int pageSize = CursorPage.resolveLimit(limit);
+        List<Prescription> rows = prescriptionRepository.findPageWithAssociations(
+                CursorPage.decodeIdCursor(after), Limit.of(pageSize + 1));
+        return CursorPage.fromRows(rows, pageSize, prescription -> CursorPage.encodeCursor(prescription.getId()))
+                .map(PrescriptionDTO::fromEntity);
     }
 
+    @Transactional(readOnly = true)
     public Optional<PrescriptionDTO> getPrescriptionById(Long id) {
-        Optional<Prescription> prescriptionOptional = prescriptionRepository.findById(id);
+        Optional<Prescription> prescriptionOptional = prescriptionRepository.findWithAssociationsById(id);
         if (prescriptionOptional.isPresent()) {
             return Optional.of(PrescriptionDTO.fromEntity(prescriptionOptional.get()));
         } else {
@@ -32,25 +50,41 @@ public class PrescriptionService {
         }
     }
 
+    @Transactional(readOnly = true)
+    public PrescriptionRepository.Versions getPrescriptionVersions(Long id) {
+        return prescriptionRepository.findVersionsById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Prescription not found with ID: " + id));
+    }
+
+    /**
+     * Saves the prescription and returns it with its patient, doctor and medication. Runs in one
+     * transaction so the references bound from the DTO can be loaded for the result; the flush
+     * reports unknown references as a {@link org.springframework.dao.DataIntegrityViolationException}
+     * before they are loaded.
+     */
+    @Transactional
     public PrescriptionDTO createPrescription(PrescriptionDTO prescriptionDTO) {
         Prescription prescription = prescriptionDTO.toEntity();
+        setReferences(prescription, prescriptionDTO);
 
-        Prescription savedPrescription = prescriptionRepository.save(prescription);
+        Prescription savedPrescription = prescriptionRepository.saveAndFlush(prescription);
+        statisticsService.prescriptionSaved(savedPrescription);
 
         return PrescriptionDTO.fromEntity(savedPrescription);
     }
 
-    public PrescriptionDTO updatePrescription(Long id, PrescriptionDTO prescriptionDTO) {
+    @Transactional
+    public PrescriptionDTO updatePrescription(Long id, PrescriptionDTO prescriptionDTO, Long expectedVersion) {
         Optional<Prescription> prescriptionOptional = prescriptionRepository.findById(id);
         if (prescriptionOptional.isPresent()) {
             Prescription prescription = prescriptionOptional.get();
+            EntityVersions.require(expectedVersion, prescription.getVersion(), "Prescription with ID " + id);
 
-            prescription.setPatient(prescriptionDTO.patient().toEntity());
-            prescription.setDoctor(prescriptionDTO.doctor().toEntity());
-            prescription.setMedication(prescriptionDTO.medication().toEntity());
+            setReferences(prescription, prescriptionDTO);
             prescription.setPrescriptionDate(prescriptionDTO.prescriptionDate());
 
-            Prescription updatedPrescription = prescriptionRepository.save(prescription);
+            Prescription updatedPrescription = prescriptionRepository.saveAndFlush(prescription);
+            statisticsService.prescriptionSaved(updatedPrescription);
 
             return PrescriptionDTO.fromEntity(updatedPrescription);
         } else {
@@ -58,12 +92,22 @@ public class PrescriptionService {
         }
     }
 
+    @Transactional
     public void deletePrescription(Long id) {
         Optional<Prescription> prescriptionOptional = prescriptionRepository.findById(id);
         if (prescriptionOptional.isPresent()) {
             prescriptionRepository.delete(prescriptionOptional.get());
+            statisticsService.prescriptionDeleted(id);
         } else {
             throw new RuntimeException("Prescription not found");
         }
     }
+
+    // The DTO only identifies the patient, doctor and medication. References keep their unversioned
+    // copies from being taken for new entities.
+    private void setReferences(Prescription prescription, PrescriptionDTO prescriptionDTO) {
+        prescription.setPatient(entityManager.getReference(Patient.class, prescriptionDTO.patient().id()));
+        prescription.setDoctor(entityManager.getReference(Doctor.class, prescriptionDTO.doctor().id()));
+        prescription.setMedication(entityManager.getReference(Medication.class, prescriptionDTO.medication().id()));
+    }
 }
@@ -0,0 +1,178 @@
+package com.healthflow.service;
+
+import com.healthflow.models.HospitalRoom;
+import com.healthflow.repository.HospitalRoomRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Tracks which hospital rooms are free in one bitset per room type, so that finding or claiming a
+ * free room is a scan over a few machine words instead of a query over every room. Each room owns a
+ * fixed position in its type's bitset; a set bit means the room is free. Claiming clears the bit
+ * under the type's lock, so two concurrent admissions can never claim the same room.
+ * <p>
+ * The database stays the source of truth: {@link HospitalRoomService} confirms every claim with a
+ * conditional update and puts the bit back when the surrounding transaction does not commit.
+ */
+@Component
+public class RoomAvailabilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomAvailabilityIndex.class);
+
+    private final HospitalRoomRepository hospitalRoomRepository;
+
+    private final ConcurrentMap<String, TypeIndex> indexesByType = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Slot> slotsByRoom = new ConcurrentHashMap<>();
+
+    public RoomAvailabilityIndex(HospitalRoomRepository hospitalRoomRepository) {
+        this.hospitalRoomRepository = hospitalRoomRepository;
+    }
+
+    @PostConstruct
+    void rebuildIndex() {
+        hospitalRoomRepository.findAll().forEach(this::put);
+        log.info("Indexed availability of {} hospital rooms", slotsByRoom.size());
+    }
+
+    /**
+     * Returns up to {@code limit} free rooms of the given type, lowest position first.
+     */
+    public List<Long> findFree(String type, int limit) {
+        TypeIndex index = indexesByType.get(typeKey(type));
+        return index == null ? List.of() : index.findFree(limit);
+    }
+
+    public boolean isFree(Long roomId) {
+        Slot slot = slotsByRoom.get(roomId);
+        return slot != null && slot.index.isFree(slot.position);
+    }
+
+    /**
+     * Claims any free room of the given type.
+     *
+     * @return the claimed room's ID, or {@code null} if every room of the type is taken
+     */
+    Long claimAny(String type) {
+        TypeIndex index = indexesByType.get(typeKey(type));
+        return index == null ? null : index.claimAny();
+    }
+
+    /**
+     * Claims the given room if it is free.
+     *
+     * @return {@code false} if the room is unknown or already taken
+     */
+    boolean claim(Long roomId) {
+        Slot slot = slotsByRoom.get(roomId);
+        return slot != null && slot.index.claim(slot.position);
+    }
+
+    void markFree(Long roomId) {
+        Slot slot = slotsByRoom.get(roomId);
+        if (slot != null) {
+            slot.index.setFree(slot.position, true);
+        }
+    }
+
+    /**
+     * Adds a room, or moves it to its current type and availability after an update.
+     */
+    void put(HospitalRoom room) {
+        boolean free = Boolean.TRUE.equals(room.getAvailability());
+        String type = typeKey(room.getType());
+        slotsByRoom.compute(room.getId(), (roomId, slot) -> {
+            if (slot != null && slot.type.equals(type)) {
+                slot.index.setFree(slot.position, free);
+                return slot;
+            }
+            if (slot != null) {
+                slot.index.remove(slot.position);
+            }
+            TypeIndex index = indexesByType.computeIfAbsent(type, key -> new TypeIndex());
+            return new Slot(type, index, index.add(roomId, free));
+        });
+    }
+
+    void remove(Long roomId) {
+        Slot slot = slotsByRoom.remove(roomId);
+        if (slot != null) {
+            slot.index.remove(slot.position);
+        }
+    }
+
+    private static String typeKey(String type) {
+        return type == null ? "" : type.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Slot(String type, TypeIndex index, int position) {
+    }
+
+    private static final class TypeIndex {
+
+        private final BitSet free = new BitSet();
+        private final BitSet taken = new BitSet();
+        private long[] roomIds = new long[64];
+
+        synchronized int add(long roomId, boolean available) {
+            int position = taken.nextClearBit(0);
+            if (position == roomIds.length) {
+                roomIds = Arrays.copyOf(roomIds, roomIds.length * 2);
+            }
+            taken.set(position);
+            roomIds[position] = roomId;
+            free.set(position, available);
+            return position;
+        }
+
+        synchronized void remove(int position) {
+            taken.clear(position);
+            free.clear(position);
+        }
+
+        synchronized void setFree(int position, boolean available) {
+            if (taken.get(position)) {
+                free.set(position, available);
+            }
+        }
+
+        synchronized boolean isFree(int position) {
+            return free.get(position);
+        }
+
+        synchronized boolean claim(int position) {
+            if (!free.get(position)) {
+                return false;
+            }
+            free.clear(position);
+            return true;
+        }
+
+        synchronized Long claimAny() {
+            int position = free.nextSetBit(0);
+            if (position < 0) {
+                return null;
+            }
+            free.clear(position);
+            return roomIds[position];
+        }
+
+        synchronized List<Long> findFree(int limit) {
+            List<Long> rooms = new ArrayList<>(Math.min(limit, free.cardinality()));
+            for (int position = free.nextSetBit(0); position >= 0 && rooms.size() < limit;
+                 position = free.nextSetBit(position + 1)) {
+                rooms.add(roomIds[position]);
+            }
+            return rooms;
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.healthflow.service;
+
+import com.healthflow.dto.AppointmentDTO;
+import com.healthflow.dto.AppointmentStatsDTO;
+import com.healthflow.dto.OccupancyStatsDTO;
+import com.healthflow.dto.PrescriptionStatsDTO;
+import com.healthflow.models.Appointment;
+import com.healthflow.models.Prescription;
+import com.healthflow.repository.AppointmentRepository;
+import com.healthflow.repository.PatientRepository;
+import com.healthflow.repository.PrescriptionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Counts appointments per doctor, day and status, prescriptions per medication and week, and
+ * occupied beds per room type in memory, so the statistics endpoints answer from counters instead
+ * of aggregating tables. The write paths report each committed change as the entity's new state
+ * rather than as a delta, which makes applying a change twice harmless.
+ * <p>
+ * A scheduled reconciliation recounts everything from the database and replaces the counters,
+ * logging how many of them had drifted. Changes committed while it runs are replayed onto the new
+ * counters before they are swapped in.
+ */
+@Service
+public class StatisticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatisticsService.class);
+
+    static final int MAX_DAYS = 366;
+    static final String NO_STATUS = "NONE";
+
+    private final AppointmentRepository appointmentRepository;
+    private final PrescriptionRepository prescriptionRepository;
+    private final PatientRepository patientRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Writers apply changes under the read lock; swapping in reconciled counters takes the write lock.
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile Counters counters = new Counters();
+    private Queue<Consumer<Counters>> changesDuringReconcile;
+
+    public StatisticsService(AppointmentRepository appointmentRepository,
+                             PrescriptionRepository prescriptionRepository,
+                             PatientRepository patientRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.appointmentRepository = appointmentRepository;
+        this.prescriptionRepository = prescriptionRepository;
+        this.patientRepository = patientRepository;
+        // Not read-only on purpose: a lagging replica would undo changes the write paths already counted.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void initialize() {
+        counters = load();
+        log.info("Counted {} appointments, {} prescriptions and {} admitted patients",
+                counters.appointments.size(), counters.prescriptions.size(), counters.admissions.size());
+    }
+
+    @Scheduled(fixedDelayString = "${healthflow.stats.reconcile-interval:15m}",
+               initialDelayString = "${healthflow.stats.reconcile-interval:15m}")
+    public synchronized void reconcile() {
+        swapLock.writeLock().lock();
+        try {
+            changesDuringReconcile = new ConcurrentLinkedQueue<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        Counters fresh;
+        try {
+            fresh = load();
+        } catch (RuntimeException e) {
+            swapLock.writeLock().lock();
+            changesDuringReconcile = null;
+            swapLock.writeLock().unlock();
+            throw e;
+        }
+
+        swapLock.writeLock().lock();
+        try {
+            changesDuringReconcile.forEach(change -> change.accept(fresh));
+            changesDuringReconcile = null;
+            int drifted = counters.drift(fresh);
+            counters = fresh;
+            if (drifted > 0) {
+                log.warn("Reconciled statistics with the database: {} counters had drifted", drifted);
+            }
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    public void appointmentSaved(Appointment appointment) {
+        AppointmentKey key = appointment.getDate() == null ? null : new AppointmentKey(
+                appointment.getDoctor().getId(), appointment.getDate().toLocalDate(), status(appointment.getStatus()));
+        Long id = appointment.getId();
+        afterCommit(stats -> stats.appointments.set(id, key));
+    }
+
+    public void appointmentDeleted(Long appointmentId) {
+        afterCommit(stats -> stats.appointments.set(appointmentId, null));
+    }
+
+    void prescriptionSaved(Prescription prescription) {
+        PrescriptionKey key = prescription.getPrescriptionDate() == null ? null : new PrescriptionKey(
+                prescription.getMedication().getId(), weekOf(prescription.getPrescriptionDate()));
+        Long id = prescription.getId();
+        afterCommit(stats -> stats.prescriptions.set(id, key));
+    }
+
+    void prescriptionDeleted(Long prescriptionId) {
+        afterCommit(stats -> stats.prescriptions.set(prescriptionId, null));
+    }
+
+    void patientAdmitted(Long patientId, String roomType) {
+        afterCommit(stats -> stats.admissions.set(patientId, roomType(roomType)));
+    }
+
+    void patientDischarged(Long patientId) {
+        afterCommit(stats -> stats.admissions.set(patientId, null));
+    }
+
+    /**
+     * Returns the doctor's appointments per status for every day from {@code from} through {@code to},
+     * today when no dates are given.
+     */
+    public List<AppointmentStatsDTO> getAppointmentStats(Long doctorId, LocalDate from, LocalDate to) {
+        if (doctorId == null) {
+            throw new IllegalArgumentException("Doctor ID is required.");
+        }
+        LocalDate first = from != null ? from : to != null ? to : LocalDate.now();
+        LocalDate last = to != null ? to : first;
+        requireRange(first, last);
+
+        Counters current = counters;
+        List<String> statuses = current.statuses.stream().sorted().toList();
+        List<AppointmentStatsDTO> days = new ArrayList<>();
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            Map<String, Long> byStatus = new LinkedHashMap<>();
+            long total = 0;
+            for (String status : statuses) {
+                long count = current.appointments.count(new AppointmentKey(doctorId, day, status));
+                if (count > 0) {
+                    byStatus.put(status, count);
+                    total += count;
+                }
+            }
+            days.add(new AppointmentStatsDTO(doctorId, day, byStatus, total));
+        }
+        return days;
+    }
+
+    /**
+     * Returns the medication's prescriptions per week (starting on Monday) for every week overlapping
+     * {@code from} through {@code to}, the last twelve weeks when no dates are given.
+     */
+    public List<PrescriptionStatsDTO> getPrescriptionStats(Long medicationId, LocalDate from, LocalDate to) {
+        if (medicationId == null) {
+            throw new IllegalArgumentException("Medication ID is required.");
+        }
+        LocalDate last = weekOf(to != null ? to : from != null ? from.plusWeeks(11) : LocalDate.now());
+        LocalDate first = weekOf(from != null ? from : last.minusWeeks(11));
+        requireRange(first, last);
+
+        Counters current = counters;
+        List<PrescriptionStatsDTO> weeks = new ArrayList<>();
+        for (LocalDate week = first; !week.isAfter(last); week = week.plusWeeks(1)) {
+            weeks.add(new PrescriptionStatsDTO(medicationId, week,
+                    current.prescriptions.count(new PrescriptionKey(medicationId, week))));
+        }
+        return weeks;
+    }
+
+    public List<OccupancyStatsDTO> getOccupancy() {
+        return counters.admissions.counts().entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .map(entry -> new OccupancyStatsDTO(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparing(OccupancyStatsDTO::roomType))
+                .toList();
+    }
+
+    private Counters load() {
+        return transactionTemplate.execute(status -> {
+            Counters loaded = new Counters();
+            try (Stream<AppointmentDTO> appointments = appointmentRepository.streamAllAsDto()) {
+                appointments.filter(appointment -> appointment.getDate() != null)
+                        .forEach(appointment -> loaded.appointments.set(appointment.getId(), new AppointmentKey(
+                                appointment.getDoctorId(), appointment.getDate().toLocalDate(), status(appointment.getStatus()))));
+            }
+            try (Stream<PrescriptionRepository.MedicationDate> prescriptions = prescriptionRepository.streamMedicationDates()) {
+                prescriptions.filter(prescription -> prescription.getPrescriptionDate() != null)
+                        .forEach(prescription -> loaded.prescriptions.set(prescription.getId(), new PrescriptionKey(
+                                prescription.getMedicationId(), weekOf(prescription.getPrescriptionDate()))));
+            }
+            try (Stream<PatientRepository.Admission> admissions = patientRepository.streamAdmissions()) {
+                admissions.forEach(admission -> loaded.admissions.set(admission.getPatientId(), roomType(admission.getRoomType())));
+            }
+            return loaded;
+        });
+    }
+
+    private void afterCommit(Consumer<Counters> change) {
+        AfterCommit.run(() -> apply(change));
+    }
+
+    private void apply(Consumer<Counters> change) {
+        swapLock.readLock().lock();
+        try {
+            change.accept(counters);
+            Queue<Consumer<Counters>> pending = changesDuringReconcile;
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private static void requireRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_DAYS + " days.");
+        }
+    }
+
+    private static LocalDate weekOf(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static String status(String status) {
+        return status == null || status.isBlank() ? NO_STATUS : status.trim();
+    }
+
+    private static String roomType(String type) {
+        return type == null || type.isBlank() ? "" : type.trim();
+    }
+
+    private record AppointmentKey(Long doctorId, LocalDate day, String status) {
+    }
+
+    private record PrescriptionKey(Long medicationId, LocalDate week) {
+    }
+
+    private static final class Counters {
+
+        final Tally<AppointmentKey> appointments;
+        final Tally<PrescriptionKey> prescriptions = new Tally<>(key -> { });
+        final Tally<String> admissions = new Tally<>(key -> { });
+        final Set<String> statuses = ConcurrentHashMap.newKeySet();
+
+        Counters() {
+            appointments = new Tally<>(key -> statuses.add(key.status()));
+        }
+
+        int drift(Counters actual) {
+            return appointments.drift(actual.appointments)
+                    + prescriptions.drift(actual.prescriptions)
+                    + admissions.drift(actual.admissions);
+        }
+    }
+
+    /**
+     * Counts entities per key, remembering each entity's key so that moving an entity to another key,
+     * or removing it, takes it out of the count it was in.
+     */
+    private static final class Tally<K> {
+
+        private final ConcurrentMap<Long, K> keysById = new ConcurrentHashMap<>();
+        private final ConcurrentMap<K, LongAdder> counts = new ConcurrentHashMap<>();
+        private final Consumer<K> onNewKey;
+
+        Tally(Consumer<K> onNewKey) {
+            this.onNewKey = onNewKey;
+        }
+
+        /**
+         * Moves the entity to {@code key}, or stops counting it when {@code key} is null.
+         */
+        void set(Long id, K key) {
+            if (key == null) {
+                keysById.computeIfPresent(id, (ignored, previous) -> {
+                    counts.get(previous).decrement();
+                    return null;
+                });
+                return;
+            }
+            keysById.compute(id, (ignored, previous) -> {
+                if (key.equals(previous)) {
+                    return previous;
+                }
+                if (previous != null) {
+                    counts.get(previous).decrement();
+                }
+                counts.computeIfAbsent(key, newKey -> {
+                    onNewKey.accept(newKey);
+                    return new LongAdder();
+                }).increment();
+                return key;
+            });
+        }
+
+        long count(K key) {
+            LongAdder count = counts.get(key);
+            return count == null ? 0 : count.sum();
+        }
+
+        Map<K, Long> counts() {
+            Map<K, Long> snapshot = new LinkedHashMap<>();
+            counts.forEach((key, count) -> snapshot.put(key, count.sum()));
+            return snapshot;
+        }
+
+        int size() {
+            return keysById.size();
+        }
+
+        int drift(Tally<K> actual) {
+            int drifted = 0;
+            for (Map.Entry<K, LongAdder> entry : actual.counts.entrySet()) {
+                if (count(entry.getKey()) != entry.getValue().sum()) {
+                    drifted++;
+                }
+            }
+            for (K key : counts.keySet()) {
+                if (!actual.counts.containsKey(key) && count(key) != 0) {
+                    drifted++;
+                }
+            }
+            return drifted;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+-- Schema as Hibernate created it before migrations took over (spring.jpa.hibernate.ddl-auto=update).
+-- Existing databases are baselined at this version, so this script only runs on empty ones.
+
+create table doctor (
+    id bigint generated by default as identity,
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    phone varchar(255),
+    specialty varchar(255) not null,
+    primary key (id),
+    constraint UKjdtgexk368pq6d2yb3neec59d unique (email)
+);
+
+create table hospital_room (
+    id bigint generated by default as identity,
+    availability boolean,
+    room_number varchar(255),
+    type varchar(255),
+    primary key (id)
+);
+
+create table patient (
+    id bigint generated by default as identity,
+    address varchar(255),
+    date_of_birth date not null,
+    first_name varchar(255) not null,
+    gender varchar(10) not null,
+    last_name varchar(255) not null,
+    phone varchar(255),
+    hospital_room_id bigint,
+    primary key (id)
+);
+
+create table medication (
+    id bigint generated by default as identity,
+    description varchar(255),
+    dosage varchar(255) not null,
+    expiration_date date,
+    name varchar(255) not null,
+    stock integer not null,
+    primary key (id)
+);
+
+create table medical_record (
+    id bigint generated by default as identity,
+    date date,
+    diagnosis varchar(255),
+    treatment varchar(255),
+    patient_id bigint not null,
+    primary key (id)
+);
+
+create table appointment (
+    id bigint generated by default as identity,
+    date timestamp(6),
+    status varchar(255),
+    doctor_id bigint not null,
+    patient_id bigint not null,
+    primary key (id)
+);
+
+create table prescription (
+    id bigint generated by default as identity,
+    prescription_date date,
+    doctor_id bigint not null,
+    medication_id bigint not null,
+    patient_id bigint not null,
+    primary key (id)
+);
+
+alter table patient add constraint FKp8g20cvxqxma4ft13x1fop568 foreign key (hospital_room_id) references hospital_room;
+alter table medical_record add constraint FKt0lf3feuiurr73bpln2n6x0v foreign key (patient_id) references patient;
+alter table appointment add constraint FKoeb98n82eph1dx43v3y2bcmsl foreign key (doctor_id) references doctor;
+alter table appointment add constraint FK4apif2ewfyf14077ichee8g06 foreign key (patient_id) references patient;
+alter table prescription add constraint FK1ppr8greedyrey8nchpr0v4dn foreign key (doctor_id) references doctor;
+alter table prescription add constraint FKl4o7pf8dlgkvhux5s0cj4evv2 foreign key (medication_id) references medication;
+alter table prescription add constraint FKqrlh184tfvdi95erwl65p4xj3 foreign key (patient_id) references patient;
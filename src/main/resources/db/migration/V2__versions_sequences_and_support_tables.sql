@@ -0,0 +1,54 @@
+-- Everything the entities gained while ddl-auto=update still managed the schema. A database that ran
+-- with those entities already has some or all of it, hence the "if not exists" throughout.
+
+-- Optimistic locking
+alter table doctor add column if not exists version bigint default 0;
+alter table hospital_room add column if not exists version bigint default 0;
+alter table patient add column if not exists version bigint default 0;
+alter table medication add column if not exists version bigint default 0;
+alter table medical_record add column if not exists version bigint default 0;
+alter table appointment add column if not exists version bigint default 0;
+alter table prescription add column if not exists version bigint default 0;
+
+alter table medical_record add column if not exists updated_at timestamp(6);
+
+-- Batched id allocation: these ids now come from sequences handed out 50 at a time. The sequences
+-- start past the existing rows, see V3__AlignIdSequences.
+create sequence if not exists patient_seq start with 1 increment by 50;
+create sequence if not exists appointment_seq start with 1 increment by 50;
+create sequence if not exists medical_record_seq start with 1 increment by 50;
+create sequence if not exists medication_seq start with 1 increment by 50;
+alter table patient alter column id drop identity;
+alter table appointment alter column id drop identity;
+alter table medical_record alter column id drop identity;
+alter table medication alter column id drop identity;
+
+-- A doctor or a patient cannot be in two appointments at the same time.
+alter table appointment add constraint if not exists uk_appointment_doctor_date unique (doctor_id, date);
+alter table appointment add constraint if not exists uk_appointment_patient_date unique (patient_id, date);
+
+create index if not exists idx_medical_record_patient_date on medical_record (patient_id, date, id);
+create index if not exists idx_medical_record_patient_updated on medical_record (patient_id, updated_at, id);
+create index if not exists idx_medication_expiration on medication (expiration_date, id);
+
+create table if not exists stock_reservation (
+    id varchar(36) not null,
+    medication_id bigint not null,
+    amount integer not null,
+    expires_at timestamp(6) not null,
+    version bigint default 0,
+    primary key (id)
+);
+create index if not exists idx_stock_reservation_expires_at on stock_reservation (expires_at);
+
+create table if not exists idempotency_record (
+    id varchar(43) not null,
+    fingerprint varbinary(32) not null,
+    status integer not null,
+    content_type varchar(255),
+    body blob,
+    created_at timestamp(6) not null,
+    version bigint default 0,
+    primary key (id)
+);
+create index if not exists idx_idempotency_record_created_at on idempotency_record (created_at);
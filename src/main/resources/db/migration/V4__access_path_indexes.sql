@@ -0,0 +1,8 @@
+-- Composite indexes for the ways rows are actually looked up. Each one starts with the column the lookup
+-- filters on and goes on with the column it orders or ranges by, so a lookup is a single index range scan.
+-- Appointments by (doctor_id, date) and (patient_id, date) are already served by the indexes behind
+-- uk_appointment_doctor_date and uk_appointment_patient_date, medical records by patient and medications
+-- by expiration date by the indexes of V2.
+
+create index idx_prescription_patient_date on prescription (patient_id, prescription_date, id);
+create index idx_prescription_medication_date on prescription (medication_id, prescription_date, id);
@@ -0,0 +1,2 @@
+-- Appointment listings filtered by a date range without a doctor or patient, or sorted by date.
+create index idx_appointment_date on appointment (date, id);
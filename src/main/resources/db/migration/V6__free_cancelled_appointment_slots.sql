@@ -0,0 +1,21 @@
+-- A cancelled appointment no longer holds its slot, so the doctor and the patient can be booked at that time again.
+-- The uniqueness moves from (doctor_id, date) and (patient_id, date) to booked_date, which is the date of an
+-- appointment that is not cancelled and null otherwise; null never collides in a unique constraint.
+alter table appointment add column booked_date timestamp(6)
+    generated always as (case when lower(status) = 'cancelled' then null else date end);
+
+-- The foreign keys are dropped with the old constraints and added back after the new indexes, so that they
+-- reuse those indexes rather than getting their own and leaving the planner to choose between the two.
+alter table appointment drop constraint FKoeb98n82eph1dx43v3y2bcmsl;
+alter table appointment drop constraint FK4apif2ewfyf14077ichee8g06;
+alter table appointment drop constraint uk_appointment_doctor_date;
+alter table appointment drop constraint uk_appointment_patient_date;
+
+-- The lookups by doctor or patient and date keep their range scans.
+create index idx_appointment_doctor_date on appointment (doctor_id, date, id);
+create index idx_appointment_patient_date on appointment (patient_id, date, id);
+alter table appointment add constraint FKoeb98n82eph1dx43v3y2bcmsl foreign key (doctor_id) references doctor;
+alter table appointment add constraint FK4apif2ewfyf14077ichee8g06 foreign key (patient_id) references patient;
+
+alter table appointment add constraint uk_appointment_doctor_booking unique (doctor_id, booked_date);
+alter table appointment add constraint uk_appointment_patient_booking unique (patient_id, booked_date);
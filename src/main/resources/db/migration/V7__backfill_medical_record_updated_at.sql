@@ -0,0 +1,4 @@
+-- Records written before V2 added updated_at have none, so an incremental sync never returned them. They count as
+-- changed when this migration runs, and every record has an update time from now on.
+update medical_record set updated_at = localtimestamp where updated_at is null;
+alter table medical_record alter column updated_at set not null;
@@ -0,0 +1,7 @@
+-- Where the medication expiry scan stopped, so events are not published again after a restart.
+create table medication_expiry_scan (
+    id integer not null,
+    expired_before date not null,
+    warned_through date not null,
+    primary key (id)
+);
@@ -0,0 +1,13 @@
+-- Tombstones of deleted medical records, so incremental sync can tell clients to drop their copy.
+-- They go when the patient goes, like the records themselves.
+create table medical_record_deletion (
+    record_id bigint not null,
+    patient_id bigint not null,
+    deleted_at timestamp(6) not null,
+    primary key (record_id)
+);
+
+create index idx_medical_record_deletion_patient on medical_record_deletion (patient_id, deleted_at, record_id);
+
+alter table medical_record_deletion add constraint fk_medical_record_deletion_patient
+    foreign key (patient_id) references patient on delete cascade;
@@ -0,0 +1,76 @@
+package com.healthflow.perf;
+
+import com.healthflow.HealthflowApplication;
+import com.healthflow.dto.BulkResultDTO;
+import com.healthflow.dto.PatientDTO;
+import com.healthflow.mapper.PatientMapper;
+import com.healthflow.models.Patient;
+import com.healthflow.service.BulkImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Inserts rows per second through {@link BulkImportService#importPatients}, the path behind
+ * {@code POST /patients/bulk}: one request of {@value #BATCH} patients per invocation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkImportBenchmark {
+
+    private static final int BATCH = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private BulkImportService bulkImportService;
+    private List<PatientDTO> patients;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(HealthflowApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:bulk-bench;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--healthflow.journal.enabled=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        bulkImportService = context.getBean(BulkImportService.class);
+        patients = LongStream.range(0, BATCH).mapToObj(i -> {
+            Patient patient = Fixtures.patient(i);
+            patient.setId(null);
+            patient.setHospitalRoom(null);
+            return PatientMapper.INSTANCE.toDto(patient);
+        }).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public BulkResultDTO importPatients() {
+        return bulkImportService.importPatients(patients);
+    }
+}
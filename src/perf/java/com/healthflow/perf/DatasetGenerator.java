@@ -0,0 +1,367 @@
+package com.healthflow.perf;
+
+import com.healthflow.HealthflowApplication;
+import com.healthflow.models.Appointment;
+import com.healthflow.models.Doctor;
+import com.healthflow.models.MedicalRecord;
+import com.healthflow.models.Medication;
+import com.healthflow.models.Patient;
+import com.healthflow.models.Prescription;
+import com.healthflow.repository.AppointmentRepository;
+import com.healthflow.repository.DoctorRepository;
+import com.healthflow.repository.MedicalRecordRepository;
+import com.healthflow.repository.MedicationRepository;
+import com.healthflow.repository.PatientRepository;
+import com.healthflow.repository.PrescriptionRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.function.ToLongFunction;
+
+/**
+ * Fills an H2 file database with a synthetic hospital through the application's own entities and
+ * repositories, so the rows look exactly like rows written by the API. The same seed, counts and anchor
+ * date always produce the same data.
+ * <p>
+ * Popularity is skewed with {@link Zipf}: a few doctors get most appointments until their calendars are
+ * full and a few medications get most prescriptions ({@code skew}), while patients with many medical
+ * records and prescriptions form a milder long tail ({@code patientSkew}). Each
+ * patient belongs to one doctor and a doctor's appointments sit on distinct 30-minute slots, so the
+ * doctor/date and patient/date uniqueness constraints always hold.
+ * <p>
+ * The database must be empty. The id range of every table is written to a properties file that
+ * {@link LoadDriver} reads to pick existing ids. The change journal is disabled while generating.
+ *
+ * <pre>
+ * mvn -Pperf test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.healthflow.perf.DatasetGenerator \
+ *     -Dexec.args="patients=1000000 appointments=3000000 records=2000000 prescriptions=2000000 seed=42"
+ * </pre>
+ */
+public final class DatasetGenerator {
+
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Carlos", "Karen",
+            "Daniel", "Lisa", "Matthew", "Nancy", "Anthony", "Sofia", "Mark", "Lucia", "Pedro", "Ana",
+            "Luis", "Carmen", "Andrew", "Emily", "Joshua", "Laura", "Kevin", "Marta", "Brian", "Isabel"};
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+            "Lee", "Perez", "Thompson", "White", "Harris", "Sanchez", "Clark", "Ramirez", "Lewis", "Robinson",
+            "Walker", "Young", "Allen", "King", "Wright", "Scott", "Torres", "Nguyen", "Hill", "Flores"};
+    private static final String[] STREETS = {
+            "Main Street", "Oak Avenue", "Pine Road", "Maple Drive", "Cedar Lane", "Elm Street", "Park Avenue",
+            "Lake Road", "Hill Street", "River Drive"};
+    private static final String[] CITIES = {
+            "Springfield", "Riverside", "Fairview", "Franklin", "Greenville", "Madison", "Georgetown", "Salem"};
+    private static final String[] SPECIALTIES = {
+            "Cardiology", "Dermatology", "Endocrinology", "Gastroenterology", "General Practice", "Neurology",
+            "Obstetrics", "Oncology", "Ophthalmology", "Orthopedics", "Pediatrics", "Psychiatry", "Pulmonology",
+            "Radiology", "Urology"};
+    private static final String[] MEDICATIONS = {
+            "Amoxicillin", "Atorvastatin", "Lisinopril", "Metformin", "Amlodipine", "Omeprazole", "Simvastatin",
+            "Losartan", "Albuterol", "Levothyroxine", "Gabapentin", "Hydrochlorothiazide", "Sertraline",
+            "Ibuprofen", "Paracetamol", "Prednisone", "Azithromycin", "Furosemide", "Warfarin", "Insulin"};
+    private static final String[] DOSAGES = {"5mg", "10mg", "20mg", "50mg", "100mg", "250mg", "500mg"};
+    private static final String[] DIAGNOSES = {
+            "Hypertension", "Type 2 diabetes", "Asthma", "Bronchitis", "Migraine", "Influenza", "Back pain",
+            "Anxiety", "Gastritis", "Hypothyroidism", "Sinusitis", "Urinary tract infection", "Sprained ankle",
+            "Dermatitis", "Pneumonia"};
+    private static final String[] TREATMENTS = {
+            "Medication and follow-up in 3 months", "Rest and hydration", "Physical therapy", "Dietary changes",
+            "Antibiotics for 7 days", "Referral to specialist", "Inhaler as needed", "Blood tests ordered",
+            "Observation", "Lifestyle changes and monitoring"};
+
+    private static final LocalTime FIRST_SLOT = LocalTime.of(8, 0);
+    private static final int SLOT_MINUTES = 30;
+    private static final int SLOTS_PER_DAY = 20;
+    private static final int PAST_DAYS = 730;
+    private static final int FUTURE_DAYS = 90;
+
+    private final String url;
+    private final Path manifest;
+    private final long seed;
+    private final LocalDate anchor;
+    private final int doctors;
+    private final int medications;
+    private final int patients;
+    private final int appointments;
+    private final int records;
+    private final int prescriptions;
+    private final double skew;
+    private final double patientSkew;
+    private final int chunk;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private final Properties ranges = new Properties();
+
+    private DatasetGenerator(Map<String, String> options) {
+        this.url = options.getOrDefault("url", "jdbc:h2:file:./target/perf/healthflow-dataset");
+        this.manifest = Path.of(options.getOrDefault("manifest", "target/perf/dataset.properties"));
+        this.seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        this.anchor = LocalDate.parse(options.getOrDefault("anchor", LocalDate.now().toString()));
+        this.doctors = Integer.parseInt(options.getOrDefault("doctors", "500"));
+        this.medications = Integer.parseInt(options.getOrDefault("medications", "1000"));
+        this.patients = Integer.parseInt(options.getOrDefault("patients", "1000000"));
+        this.appointments = Integer.parseInt(options.getOrDefault("appointments", "3000000"));
+        this.records = Integer.parseInt(options.getOrDefault("records", "2000000"));
+        this.prescriptions = Integer.parseInt(options.getOrDefault("prescriptions", "2000000"));
+        this.skew = Double.parseDouble(options.getOrDefault("skew", "1.0"));
+        this.patientSkew = Double.parseDouble(options.getOrDefault("patientSkew", "0.5"));
+        this.chunk = Integer.parseInt(options.getOrDefault("chunk", "5000"));
+
+        if (doctors < 1 || medications < 1 || patients < doctors) {
+            throw new IllegalArgumentException("Need at least one doctor and medication, and at least as many patients as doctors");
+        }
+        long calendar = (long) doctors * (PAST_DAYS + FUTURE_DAYS) * SLOTS_PER_DAY;
+        if (appointments > calendar * 0.9) {
+            throw new IllegalArgumentException(doctors + " doctors have " + calendar
+                    + " appointment slots; raise doctors to generate " + appointments + " appointments");
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        new DatasetGenerator(LoadDriver.parseOptions(args)).run();
+    }
+
+    private void run() throws IOException {
+        context = new SpringApplicationBuilder(HealthflowApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=500",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--healthflow.journal.enabled=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        try {
+            transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            if (context.getBean(PatientRepository.class).count() > 0) {
+                throw new IllegalStateException("Database " + url + " already has patients; generate into an empty database");
+            }
+            System.out.printf("Generating into %s with seed %d, anchored at %s%n", url, seed, anchor);
+            SplittableRandom random = new SplittableRandom(seed);
+
+            long[] doctorIds = generateDoctors(random.split());
+            long[] medicationIds = generateMedications(random.split());
+            long[] patientIds = generatePatients(random.split());
+            generateAppointments(random.split(), doctorIds, patientIds);
+            generateMedicalRecords(random.split(), patientIds);
+            generatePrescriptions(random.split(), doctorIds, medicationIds, patientIds);
+
+            writeManifest();
+        } finally {
+            context.close();
+        }
+    }
+
+    private long[] generateDoctors(SplittableRandom random) {
+        DoctorRepository repository = context.getBean(DoctorRepository.class);
+        return insert("doctor", doctors, (from, to) -> {
+            List<Doctor> batch = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                Doctor doctor = new Doctor();
+                doctor.setFirstName(pick(random, FIRST_NAMES));
+                doctor.setLastName(pick(random, LAST_NAMES));
+                doctor.setSpecialty(pick(random, SPECIALTIES));
+                doctor.setPhone(phone(random));
+                doctor.setEmail(doctor.getFirstName().toLowerCase() + "." + doctor.getLastName().toLowerCase()
+                        + "." + i + "@healthflow.com");
+                batch.add(doctor);
+            }
+            return ids(repository.saveAll(batch), Doctor::getId);
+        });
+    }
+
+    private long[] generateMedications(SplittableRandom random) {
+        MedicationRepository repository = context.getBean(MedicationRepository.class);
+        // Expiry dates are relative to the real date: the entity only accepts future dates.
+        LocalDate today = LocalDate.now();
+        return insert("medication", medications, (from, to) -> {
+            List<Medication> batch = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                String name = MEDICATIONS[i % MEDICATIONS.length];
+                if (i >= MEDICATIONS.length) {
+                    name += " " + (char) ('A' + i / MEDICATIONS.length % 26) + (i / MEDICATIONS.length / 26 + 1);
+                }
+                batch.add(new Medication(name, pick(random, DOSAGES), name + " tablets", random.nextInt(5_001),
+                        today.plusDays(1 + random.nextInt(3 * 365))));
+            }
+            return ids(repository.saveAll(batch), Medication::getId);
+        });
+    }
+
+    private long[] generatePatients(SplittableRandom random) {
+        PatientRepository repository = context.getBean(PatientRepository.class);
+        return insert("patient", patients, (from, to) -> {
+            List<Patient> batch = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                Patient patient = new Patient();
+                patient.setFirstName(pick(random, FIRST_NAMES));
+                patient.setLastName(pick(random, LAST_NAMES));
+                patient.setDateOfBirth(anchor.minusDays(1 + random.nextInt(95 * 365)));
+                int gender = random.nextInt(100);
+                patient.setGender(gender < 48 ? "Male" : gender < 96 ? "Female" : "Other");
+                patient.setAddress((1 + random.nextInt(9_999)) + " " + pick(random, STREETS) + ", " + pick(random, CITIES));
+                patient.setPhone(phone(random));
+                batch.add(patient);
+            }
+            return ids(repository.saveAll(batch), Patient::getId);
+        });
+    }
+
+    /**
+     * Patient {@code p} belongs to doctor {@code p % doctors}, and doctor {@code d}'s k-th appointment takes
+     * slot {@code (k * stride + d) % calendar} of a calendar running from two years back to three months
+     * ahead. Distinct slots per doctor and disjoint patient lists keep both uniqueness constraints intact.
+     */
+    private void generateAppointments(SplittableRandom random, long[] doctorIds, long[] patientIds) {
+        AppointmentRepository repository = context.getBean(AppointmentRepository.class);
+        DoctorRepository doctorRepository = context.getBean(DoctorRepository.class);
+        PatientRepository patientRepository = context.getBean(PatientRepository.class);
+        Zipf doctorPopularity = new Zipf(doctors, skew);
+        int calendar = (PAST_DAYS + FUTURE_DAYS) * SLOTS_PER_DAY;
+        long stride = Zipf.coprimeNear(calendar, calendar / 3);
+        int[] booked = new int[doctors];
+        LocalDateTime firstSlot = anchor.minusDays(PAST_DAYS).atTime(FIRST_SLOT);
+        LocalDateTime today = anchor.atStartOfDay();
+        int patientsPerDoctor = patients / doctors;
+
+        insert("appointment", appointments, (from, to) -> {
+            List<Appointment> batch = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                int doctor = doctorPopularity.next(random);
+                while (booked[doctor] == calendar) {
+                    doctor = random.nextInt(doctors);
+                }
+                int slot = (int) ((booked[doctor]++ * stride + doctor) % calendar);
+                LocalDateTime date = firstSlot.plusDays(slot / SLOTS_PER_DAY)
+                        .plusMinutes((long) (slot % SLOTS_PER_DAY) * SLOT_MINUTES);
+                int patient = doctor + doctors * random.nextInt(patientsPerDoctor);
+
+                Appointment appointment = new Appointment();
+                appointment.setDoctor(doctorRepository.getReferenceById(doctorIds[doctor]));
+                appointment.setPatient(patientRepository.getReferenceById(patientIds[patient]));
+                appointment.setDate(date);
+                appointment.setStatus(status(random, date.isBefore(today)));
+                batch.add(appointment);
+            }
+            return ids(repository.saveAll(batch), Appointment::getId);
+        });
+    }
+
+    private void generateMedicalRecords(SplittableRandom random, long[] patientIds) {
+        MedicalRecordRepository repository = context.getBean(MedicalRecordRepository.class);
+        PatientRepository patientRepository = context.getBean(PatientRepository.class);
+        Zipf patientPopularity = new Zipf(patients, patientSkew);
+
+        insert("medical_record", records, (from, to) -> {
+            List<MedicalRecord> batch = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                MedicalRecord record = new MedicalRecord();
+                record.setPatient(patientRepository.getReferenceById(patientIds[patientPopularity.next(random)]));
+                record.setDiagnosis(pick(random, DIAGNOSES));
+                record.setTreatment(pick(random, TREATMENTS));
+                record.setDate(anchor.minusDays(random.nextInt(PAST_DAYS)));
+                batch.add(record);
+            }
+            return ids(repository.saveAll(batch), MedicalRecord::getId);
+        });
+    }
+
+    private void generatePrescriptions(SplittableRandom random, long[] doctorIds, long[] medicationIds, long[] patientIds) {
+        PrescriptionRepository repository = context.getBean(PrescriptionRepository.class);
+        DoctorRepository doctorRepository = context.getBean(DoctorRepository.class);
+        MedicationRepository medicationRepository = context.getBean(MedicationRepository.class);
+        PatientRepository patientRepository = context.getBean(PatientRepository.class);
+        Zipf medicationPopularity = new Zipf(medications, skew);
+        Zipf patientPopularity = new Zipf(patients, patientSkew);
+
+        insert("prescription", prescriptions, (from, to) -> {
+            List<Prescription> batch = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                int patient = patientPopularity.next(random);
+                batch.add(new Prescription(
+                        patientRepository.getReferenceById(patientIds[patient]),
+                        doctorRepository.getReferenceById(doctorIds[patient % doctors]),
+                        medicationRepository.getReferenceById(medicationIds[medicationPopularity.next(random)]),
+                        anchor.minusDays(random.nextInt(PAST_DAYS))));
+            }
+            return ids(repository.saveAll(batch), Prescription::getId);
+        });
+    }
+
+    private interface ChunkWriter {
+        long[] write(int from, int to);
+    }
+
+    /**
+     * Writes {@code count} rows in chunks of {@code chunk}, one transaction each, and returns their ids in
+     * insertion order.
+     */
+    private long[] insert(String table, int count, ChunkWriter writer) {
+        long[] ids = new long[count];
+        long startedAt = System.nanoTime();
+        long reportedAt = startedAt;
+        for (int start = 0; start < count; start += chunk) {
+            int from = start;
+            int to = Math.min(from + chunk, count);
+            long[] written = transactionTemplate.execute(status -> writer.write(from, to));
+            System.arraycopy(written, 0, ids, from, written.length);
+            long now = System.nanoTime();
+            if (now - reportedAt > 10_000_000_000L || to == count) {
+                reportedAt = now;
+                System.out.printf("  %-15s %,12d / %,d  (%,.0f rows/s)%n",
+                        table, to, count, to / ((now - startedAt) / 1e9));
+            }
+        }
+        if (count > 0) {
+            ranges.setProperty(table, ids[0] + "-" + ids[count - 1]);
+        }
+        return ids;
+    }
+
+    private void writeManifest() throws IOException {
+        Files.createDirectories(manifest.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(manifest)) {
+            ranges.store(writer, "Id ranges generated into " + url + " with seed " + seed);
+        }
+        System.out.println("Wrote id ranges to " + manifest);
+    }
+
+    private static <T> long[] ids(List<T> saved, ToLongFunction<T> id) {
+        return saved.stream().mapToLong(id).toArray();
+    }
+
+    private static String status(SplittableRandom random, boolean past) {
+        int roll = random.nextInt(100);
+        if (!past) {
+            return roll < 95 ? "Scheduled" : "Cancelled";
+        }
+        return roll < 85 ? "Completed" : roll < 95 ? "Cancelled" : "No-show";
+    }
+
+    private static String phone(SplittableRandom random) {
+        return "555" + String.format("%07d", random.nextInt(10_000_000));
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
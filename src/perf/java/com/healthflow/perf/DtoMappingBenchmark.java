@@ -0,0 +1,239 @@
+package com.healthflow.perf;
+
+import com.healthflow.dto.AppointmentDTO;
+import com.healthflow.dto.DoctorDTO;
+import com.healthflow.dto.HospitalRoomDTO;
+import com.healthflow.dto.MedicalRecordDTO;
+import com.healthflow.dto.MedicationDTO;
+import com.healthflow.dto.PatientDTO;
+import com.healthflow.dto.PrescriptionDTO;
+import com.healthflow.mapper.AppointmentMapper;
+import com.healthflow.mapper.DoctorMapper;
+import com.healthflow.mapper.HospitalRoomMapper;
+import com.healthflow.mapper.MedicalRecordMapper;
+import com.healthflow.mapper.MedicationMapper;
+import com.healthflow.mapper.PatientMapper;
+import com.healthflow.mapper.PrescriptionMapper;
+import com.healthflow.models.Appointment;
+import com.healthflow.models.Doctor;
+import com.healthflow.models.HospitalRoom;
+import com.healthflow.models.MedicalRecord;
+import com.healthflow.models.Medication;
+import com.healthflow.models.Patient;
+import com.healthflow.models.Prescription;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Compares the generated mappers ({@code generated*}) with the hand-written conversions they replaced
+ * ({@code handWritten*}, see {@link HandWrittenMappers}), per entity and for a page of prescriptions.
+ * Run with {@code -prof gc} to compare allocation as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DtoMappingBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private Prescription prescription;
+    private PrescriptionDTO prescriptionDTO;
+    private Patient patient;
+    private PatientDTO patientDTO;
+    private Doctor doctor;
+    private DoctorDTO doctorDTO;
+    private Medication medication;
+    private MedicationDTO medicationDTO;
+    private HospitalRoom hospitalRoom;
+    private HospitalRoomDTO hospitalRoomDTO;
+    private Appointment appointment;
+    private AppointmentDTO appointmentDTO;
+    private MedicalRecord medicalRecord;
+    private List<Prescription> prescriptionPage;
+
+    @Setup
+    public void createFixtures() {
+        prescription = Fixtures.prescription(42);
+        prescriptionDTO = HandWrittenMappers.toDto(prescription);
+        patient = Fixtures.patient(42);
+        patientDTO = HandWrittenMappers.toDto(patient);
+        doctor = Fixtures.doctor(42);
+        doctorDTO = HandWrittenMappers.toDto(doctor);
+        medication = Fixtures.medication(42);
+        medicationDTO = HandWrittenMappers.toDto(medication);
+        hospitalRoom = patient.getHospitalRoom();
+        hospitalRoomDTO = HandWrittenMappers.toDto(hospitalRoom);
+        appointment = Fixtures.appointment(42);
+        appointmentDTO = HandWrittenMappers.toDto(appointment);
+        medicalRecord = Fixtures.medicalRecord(42);
+        prescriptionPage = LongStream.range(0, PAGE_SIZE).mapToObj(Fixtures::prescription).toList();
+    }
+
+    @Benchmark
+    public PrescriptionDTO handWrittenPrescriptionToDto() {
+        return HandWrittenMappers.toDto(prescription);
+    }
+
+    @Benchmark
+    public PrescriptionDTO generatedPrescriptionToDto() {
+        return PrescriptionMapper.INSTANCE.toDto(prescription);
+    }
+
+    @Benchmark
+    public Prescription handWrittenPrescriptionToEntity() {
+        return HandWrittenMappers.toEntity(prescriptionDTO);
+    }
+
+    @Benchmark
+    public Prescription generatedPrescriptionToEntity() {
+        return PrescriptionMapper.INSTANCE.toEntity(prescriptionDTO);
+    }
+
+    @Benchmark
+    public PatientDTO handWrittenPatientToDto() {
+        return HandWrittenMappers.toDto(patient);
+    }
+
+    @Benchmark
+    public PatientDTO generatedPatientToDto() {
+        return PatientMapper.INSTANCE.toDto(patient);
+    }
+
+    @Benchmark
+    public Patient handWrittenPatientToEntity() {
+        return HandWrittenMappers.toEntity(patientDTO);
+    }
+
+    @Benchmark
+    public Patient generatedPatientToEntity() {
+        return PatientMapper.INSTANCE.toEntity(patientDTO);
+    }
+
+    @Benchmark
+    public DoctorDTO handWrittenDoctorToDto() {
+        return HandWrittenMappers.toDto(doctor);
+    }
+
+    @Benchmark
+    public DoctorDTO generatedDoctorToDto() {
+        return DoctorMapper.INSTANCE.toDto(doctor);
+    }
+
+    @Benchmark
+    public Doctor handWrittenDoctorToEntity() {
+        return HandWrittenMappers.toEntity(doctorDTO);
+    }
+
+    @Benchmark
+    public Doctor generatedDoctorToEntity() {
+        return DoctorMapper.INSTANCE.toEntity(doctorDTO);
+    }
+
+    @Benchmark
+    public MedicationDTO handWrittenMedicationToDto() {
+        return HandWrittenMappers.toDto(medication);
+    }
+
+    @Benchmark
+    public MedicationDTO generatedMedicationToDto() {
+        return MedicationMapper.INSTANCE.toDto(medication);
+    }
+
+    @Benchmark
+    public Medication handWrittenMedicationToEntity() {
+        return HandWrittenMappers.toEntity(medicationDTO);
+    }
+
+    @Benchmark
+    public Medication generatedMedicationToEntity() {
+        return MedicationMapper.INSTANCE.toEntity(medicationDTO);
+    }
+
+    @Benchmark
+    public HospitalRoomDTO handWrittenHospitalRoomToDto() {
+        return HandWrittenMappers.toDto(hospitalRoom);
+    }
+
+    @Benchmark
+    public HospitalRoomDTO generatedHospitalRoomToDto() {
+        return HospitalRoomMapper.INSTANCE.toDto(hospitalRoom);
+    }
+
+    @Benchmark
+    public HospitalRoom handWrittenHospitalRoomToEntity() {
+        return HandWrittenMappers.toEntity(hospitalRoomDTO);
+    }
+
+    @Benchmark
+    public HospitalRoom generatedHospitalRoomToEntity() {
+        return HospitalRoomMapper.INSTANCE.toEntity(hospitalRoomDTO);
+    }
+
+    @Benchmark
+    public AppointmentDTO handWrittenAppointmentToDto() {
+        return HandWrittenMappers.toDto(appointment);
+    }
+
+    @Benchmark
+    public AppointmentDTO generatedAppointmentToDto() {
+        return AppointmentMapper.INSTANCE.toDto(appointment);
+    }
+
+    @Benchmark
+    public Appointment handWrittenAppointmentToEntity() {
+        return HandWrittenMappers.toEntity(appointmentDTO);
+    }
+
+    @Benchmark
+    public Appointment generatedAppointmentToEntity() {
+        return AppointmentMapper.INSTANCE.toEntity(appointmentDTO);
+    }
+
+    @Benchmark
+    public MedicalRecordDTO handWrittenMedicalRecordToDto() {
+        return HandWrittenMappers.toDto(medicalRecord);
+    }
+
+    @Benchmark
+    public MedicalRecordDTO generatedMedicalRecordToDto() {
+        return MedicalRecordMapper.INSTANCE.toDto(medicalRecord);
+    }
+
+    // A page the way the controllers build it: stream the rows and collect the DTOs.
+    @Benchmark
+    public List<PrescriptionDTO> handWrittenPrescriptionPage() {
+        return prescriptionPage.stream().map(HandWrittenMappers::toDto).toList();
+    }
+
+    @Benchmark
+    public List<PrescriptionDTO> generatedPrescriptionPage() {
+        return PrescriptionMapper.INSTANCE.toDtos(prescriptionPage);
+    }
+
+    // Streaming, as in the exports: each DTO is consumed as it is mapped, nothing is collected.
+    @Benchmark
+    public void handWrittenPrescriptionStream(Blackhole blackhole) {
+        prescriptionPage.stream().map(HandWrittenMappers::toDto).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void generatedPrescriptionStream(Blackhole blackhole) {
+        PrescriptionMapper.INSTANCE.toDtos(prescriptionPage.stream()).forEach(blackhole::consume);
+    }
+}
@@ -0,0 +1,69 @@
+package com.healthflow.perf;
+
+import com.healthflow.models.Appointment;
+import com.healthflow.models.Doctor;
+import com.healthflow.models.HospitalRoom;
+import com.healthflow.models.MedicalRecord;
+import com.healthflow.models.Medication;
+import com.healthflow.models.Patient;
+import com.healthflow.models.Prescription;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static Patient patient(long id) {
+        HospitalRoom room = new HospitalRoom();
+        room.setId(id % 100);
+        room.setRoomNumber("R-" + id % 100);
+        room.setType("General");
+        room.setAvailability(true);
+
+        Patient patient = new Patient();
+        patient.setId(id);
+        patient.setFirstName("Patient" + id);
+        patient.setLastName("Benchmark");
+        patient.setDateOfBirth(LocalDate.of(1950, 1, 1).plusDays(id % 20_000));
+        patient.setGender("Other");
+        patient.setAddress(id + " Main Street, Springfield");
+        patient.setPhone("555" + String.format("%07d", id % 10_000_000));
+        patient.setHospitalRoom(room);
+        return patient;
+    }
+
+    static Doctor doctor(long id) {
+        Doctor doctor = new Doctor();
+        doctor.setId(id);
+        doctor.setFirstName("Doctor" + id);
+        doctor.setLastName("Benchmark");
+        doctor.setSpecialty("Cardiology");
+        doctor.setPhone("5551111111");
+        doctor.setEmail("doctor" + id + "@bench.healthflow.com");
+        return doctor;
+    }
+
+    static Medication medication(long id) {
+        Medication medication = new Medication("Medication" + id, "500mg", "Benchmark medication", 1_000,
+                LocalDate.now().plusYears(2));
+        medication.setId(id);
+        return medication;
+    }
+
+    static Prescription prescription(long id) {
+        return new Prescription(patient(id), doctor(id % 100), medication(id % 100), LocalDate.of(2024, 1, 1));
+    }
+
+    static Appointment appointment(long id) {
+        return new Appointment(id, patient(id), doctor(id % 100), LocalDateTime.of(2030, 1, 1, 8, 0).plusHours(id),
+                "Scheduled", null);
+    }
+
+    static MedicalRecord medicalRecord(long id) {
+        return new MedicalRecord(id, patient(id), "Hypertension", "Lifestyle changes and follow-up in 3 months",
+                LocalDate.of(2024, 1, 1).plusDays(id % 365), LocalDateTime.of(2024, 1, 1, 8, 0), 0L);
+    }
+}
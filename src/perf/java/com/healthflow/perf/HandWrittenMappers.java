@@ -0,0 +1,160 @@
+package com.healthflow.perf;
+
+import com.healthflow.dto.AppointmentDTO;
+import com.healthflow.dto.DoctorDTO;
+import com.healthflow.dto.HospitalRoomDTO;
+import com.healthflow.dto.MedicalRecordDTO;
+import com.healthflow.dto.MedicationDTO;
+import com.healthflow.dto.PatientDTO;
+import com.healthflow.dto.PrescriptionDTO;
+import com.healthflow.models.Appointment;
+import com.healthflow.models.Doctor;
+import com.healthflow.models.HospitalRoom;
+import com.healthflow.models.MedicalRecord;
+import com.healthflow.models.Medication;
+import com.healthflow.models.Patient;
+import com.healthflow.models.Prescription;
+
+/**
+ * The hand-written conversions the DTOs used before the generated mappers, kept as the baseline of
+ * {@link DtoMappingBenchmark}.
+ */
+final class HandWrittenMappers {
+
+    private HandWrittenMappers() {
+    }
+
+    static PatientDTO toDto(Patient patient) {
+        return new PatientDTO(
+            patient.getId(),
+            patient.getFirstName(),
+            patient.getLastName(),
+            patient.getDateOfBirth(),
+            patient.getGender(),
+            patient.getAddress(),
+            patient.getPhone()
+        );
+    }
+
+    static Patient toEntity(PatientDTO dto) {
+        Patient patient = new Patient();
+        patient.setId(dto.id());
+        patient.setFirstName(dto.firstName());
+        patient.setLastName(dto.lastName());
+        patient.setDateOfBirth(dto.dateOfBirth());
+        patient.setGender(dto.gender());
+        patient.setAddress(dto.address());
+        patient.setPhone(dto.phone());
+        return patient;
+    }
+
+    static DoctorDTO toDto(Doctor doctor) {
+        return new DoctorDTO(
+            doctor.getId(),
+            doctor.getFirstName(),
+            doctor.getLastName(),
+            doctor.getSpecialty(),
+            doctor.getPhone(),
+            doctor.getEmail()
+        );
+    }
+
+    static Doctor toEntity(DoctorDTO dto) {
+        Doctor doctor = new Doctor();
+        doctor.setId(dto.id());
+        doctor.setFirstName(dto.firstName());
+        doctor.setLastName(dto.lastName());
+        doctor.setSpecialty(dto.specialty());
+        doctor.setPhone(dto.phone());
+        doctor.setEmail(dto.email());
+        return doctor;
+    }
+
+    static MedicationDTO toDto(Medication medication) {
+        return new MedicationDTO(
+            medication.getId(),
+            medication.getName(),
+            medication.getDosage(),
+            medication.getDescription() != null ? medication.getDescription() : "",
+            medication.getStock(),
+            medication.getExpirationDate()
+        );
+    }
+
+    static Medication toEntity(MedicationDTO dto) {
+        Medication medication = new Medication();
+        medication.setId(dto.id());
+        medication.setName(dto.name());
+        medication.setDosage(dto.dosage());
+        medication.setDescription(dto.description() != null ? dto.description() : "");
+        medication.setStock(dto.stock());
+        medication.setExpirationDate(dto.expirationDate());
+        return medication;
+    }
+
+    static HospitalRoomDTO toDto(HospitalRoom hospitalRoom) {
+        return new HospitalRoomDTO(
+            hospitalRoom.getId(),
+            hospitalRoom.getRoomNumber(),
+            hospitalRoom.getType(),
+            hospitalRoom.getAvailability()
+        );
+    }
+
+    static HospitalRoom toEntity(HospitalRoomDTO dto) {
+        HospitalRoom hospitalRoom = new HospitalRoom();
+        hospitalRoom.setId(dto.getId());
+        hospitalRoom.setRoomNumber(dto.getRoomNumber());
+        hospitalRoom.setType(dto.getType());
+        hospitalRoom.setAvailability(dto.getAvailability());
+        return hospitalRoom;
+    }
+
+    static AppointmentDTO toDto(Appointment appointment) {
+        return new AppointmentDTO(
+            appointment.getId(),
+            appointment.getPatient().getId(),
+            appointment.getDoctor().getId(),
+            appointment.getDate(),
+            appointment.getStatus()
+        );
+    }
+
+    static Appointment toEntity(AppointmentDTO dto) {
+        Appointment appointment = new Appointment();
+        appointment.setId(dto.getId());
+        appointment.setDate(dto.getDate());
+        appointment.setStatus(dto.getStatus());
+        return appointment;
+    }
+
+    static MedicalRecordDTO toDto(MedicalRecord medicalRecord) {
+        return new MedicalRecordDTO(
+            medicalRecord.getId(),
+            medicalRecord.getPatient().getId(),
+            medicalRecord.getDiagnosis(),
+            medicalRecord.getTreatment(),
+            medicalRecord.getDate(),
+            medicalRecord.getUpdatedAt()
+        );
+    }
+
+    static PrescriptionDTO toDto(Prescription prescription) {
+        return new PrescriptionDTO(
+            prescription.getId(),
+            toDto(prescription.getPatient()),
+            toDto(prescription.getDoctor()),
+            toDto(prescription.getMedication()),
+            prescription.getPrescriptionDate()
+        );
+    }
+
+    static Prescription toEntity(PrescriptionDTO dto) {
+        return new Prescription(
+            toEntity(dto.patient()),
+            toEntity(dto.doctor()),
+            toEntity(dto.medication()),
+            dto.prescriptionDate()
+        );
+    }
+}
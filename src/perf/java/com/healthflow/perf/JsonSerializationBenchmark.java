@@ -0,0 +1,63 @@
+package com.healthflow.perf;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.healthflow.dto.AppointmentDTO;
+import com.healthflow.dto.PrescriptionDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<PrescriptionDTO> prescriptions;
+    private List<AppointmentDTO> appointments;
+
+    @Setup
+    public void createFixtures() {
+        // Same settings as the mapper Spring Boot configures for the controllers.
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        prescriptions = LongStream.range(0, size)
+                .mapToObj(id -> PrescriptionDTO.fromEntity(Fixtures.prescription(id)))
+                .toList();
+        appointments = LongStream.range(0, size)
+                .mapToObj(id -> AppointmentDTO.fromEntity(Fixtures.appointment(id)))
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializePrescriptions() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(prescriptions);
+    }
+
+    @Benchmark
+    public byte[] serializeAppointments() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(appointments);
+    }
+}
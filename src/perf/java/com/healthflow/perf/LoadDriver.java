@@ -0,0 +1,346 @@
+package com.healthflow.perf;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load driver: a fixed number of clients each send a request, wait for the
+ * response and immediately send the next one. Latencies recorded after the warmup are reported as
+ * throughput and percentiles, overall and per request.
+ * <p>
+ * By default every client cycles through {@code paths} with GETs. With {@code mix=<file>} each client
+ * instead picks requests at random by weight from a mix file, one request per line:
+ * <pre>
+ * # weight  method  path                       [body]
+ * 40        GET     /patients/{patient}
+ * 2         POST    /medicalRecords            {"patient":{"id":{patient}},"diagnosis":"Checkup","date":"{today}"}
+ * </pre>
+ * Placeholders named after a table ({@code {patient}}, {@code {doctor}}, {@code {medication}},
+ * {@code {appointment}}, {@code {medical_record}}, {@code {prescription}}) are replaced by an existing id,
+ * Zipf-skewed by {@code skew}, from the id ranges that {@link DatasetGenerator} wrote to {@code dataset}.
+ * {@code {today}} is today's date and {@code {futureSlot}} a random 30-minute slot decades ahead, for
+ * bookings that should not collide. Apart from those slots, runs with the same {@code seed} send the same
+ * request sequence.
+ *
+ * <pre>
+ * mvn -Pperf test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.healthflow.perf.LoadDriver \
+ *     -Dexec.args="url=http://localhost:8080 clients=1000 duration=60 warmup=10"
+ * mvn -Pperf test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.healthflow.perf.LoadDriver \
+ *     -Dexec.args="clients=200 mix=src/perf/resources/default.mix dataset=target/perf/dataset.properties"
+ * </pre>
+ */
+public final class LoadDriver {
+
+    private static final String DEFAULT_PATHS = "/patients,/appointments,/medications,/prescriptions";
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{(\\w+)}");
+
+    private final URI baseUri;
+    private final List<RequestTemplate> requests;
+    private final boolean weighted;
+    private final int[] cumulativeWeights;
+    private final Map<String, IdRange> idRanges;
+    private final int clients;
+    private final long seed;
+    private final Duration warmup;
+    private final Duration duration;
+    private final HttpClient httpClient;
+
+    private LoadDriver(Map<String, String> options) throws IOException {
+        this.baseUri = URI.create(options.getOrDefault("url", "http://localhost:8080"));
+        this.clients = Integer.parseInt(options.getOrDefault("clients", "1000"));
+        this.seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        this.warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        this.duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        this.idRanges = options.containsKey("dataset")
+                ? readIdRanges(Path.of(options.get("dataset")), Double.parseDouble(options.getOrDefault("skew", "0.5")))
+                : Map.of();
+        this.weighted = options.containsKey("mix");
+        this.requests = weighted
+                ? readMix(Path.of(options.get("mix")))
+                : Arrays.stream(options.getOrDefault("paths", DEFAULT_PATHS).split(","))
+                        .map(path -> new RequestTemplate(1, "GET", path, null))
+                        .toList();
+        this.cumulativeWeights = new int[requests.size()];
+        int total = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            total += requests.get(i).weight();
+            cumulativeWeights[i] = total;
+        }
+        for (RequestTemplate request : requests) {
+            checkPlaceholders(request.path());
+            if (request.body() != null) {
+                checkPlaceholders(request.body());
+            }
+        }
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        new LoadDriver(parseOptions(args)).run();
+    }
+
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private void run() throws InterruptedException {
+        System.out.printf("Driving %s with %d clients: %ds warmup, %ds measured, %d requests in the mix%n",
+                baseUri, clients, warmup.toSeconds(), duration.toSeconds(), requests.size());
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Client> running = new ArrayList<>(clients);
+        CountDownLatch finished = new CountDownLatch(clients);
+        for (int i = 0; i < clients; i++) {
+            Client client = new Client(i, random.split(), measureFrom, measureUntil, finished);
+            running.add(client);
+            Thread thread = new Thread(client, "load-client-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        finished.await();
+        report(running);
+    }
+
+    private void report(List<Client> finishedClients) {
+        Latencies all = new Latencies();
+        List<Latencies> byRequest = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            Latencies merged = new Latencies();
+            for (Client client : finishedClients) {
+                merged.addAll(client.latencies[i]);
+            }
+            all.addAll(merged);
+            byRequest.add(merged);
+        }
+
+        System.out.printf("requests=%d errors=%d throughput=%.1f req/s%n",
+                all.count, all.errors, all.count / (double) duration.toSeconds());
+        System.out.println("latency ms: " + all.summary());
+        if (requests.size() > 1) {
+            for (int i = 0; i < requests.size(); i++) {
+                Latencies latencies = byRequest.get(i);
+                System.out.printf("  %-6s %-45s requests=%-8d errors=%-6d %s%n", requests.get(i).method(),
+                        requests.get(i).path(), latencies.count, latencies.errors, latencies.summary());
+            }
+        }
+    }
+
+    private void checkPlaceholders(String template) {
+        Matcher matcher = PLACEHOLDER.matcher(template);
+        while (matcher.find()) {
+            String name = matcher.group(1);
+            if (!name.equals("today") && !name.equals("futureSlot") && !idRanges.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown placeholder {" + name + "} in " + template
+                        + (idRanges.isEmpty() ? "; pass dataset=<file> for id placeholders" : ""));
+            }
+        }
+    }
+
+    private String resolve(String template, SplittableRandom random) {
+        if (template.indexOf('{') < 0) {
+            return template;
+        }
+        Matcher matcher = PLACEHOLDER.matcher(template);
+        StringBuilder resolved = new StringBuilder();
+        while (matcher.find()) {
+            String value = switch (matcher.group(1)) {
+                case "today" -> LocalDate.now().toString();
+                // Not seeded, so that a rerun does not book the slots the previous run already took.
+                case "futureSlot" -> LocalDate.now().plusYears(20).atTime(8, 0)
+                        .plusMinutes(30L * ThreadLocalRandom.current().nextInt(100_000_000)).toString();
+                default -> Long.toString(idRanges.get(matcher.group(1)).next(random));
+            };
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(value));
+        }
+        return matcher.appendTail(resolved).toString();
+    }
+
+    private static List<RequestTemplate> readMix(Path file) throws IOException {
+        List<RequestTemplate> mix = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] fields = trimmed.split("\\s+", 4);
+            if (fields.length < 3) {
+                throw new IllegalArgumentException("Expected 'weight method path [body]' in " + file + ", got: " + line);
+            }
+            mix.add(new RequestTemplate(Integer.parseInt(fields[0]), fields[1].toUpperCase(), fields[2],
+                    fields.length == 4 ? fields[3] : null));
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("No requests in " + file);
+        }
+        return mix;
+    }
+
+    private static Map<String, IdRange> readIdRanges(Path file, double skew) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+        Map<String, IdRange> ranges = new HashMap<>();
+        for (String table : properties.stringPropertyNames()) {
+            String[] bounds = properties.getProperty(table).split("-");
+            long first = Long.parseLong(bounds[0]);
+            long last = Long.parseLong(bounds[1]);
+            ranges.put(table, new IdRange(first, new Zipf((int) (last - first + 1), skew)));
+        }
+        return ranges;
+    }
+
+    private record RequestTemplate(int weight, String method, String path, String body) {
+    }
+
+    private record IdRange(long first, Zipf popularity) {
+
+        long next(SplittableRandom random) {
+            return first + popularity.next(random);
+        }
+    }
+
+    private static final class Latencies {
+
+        private long[] nanos = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long latencyNanos, boolean failed) {
+            if (failed) {
+                errors++;
+            }
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = latencyNanos;
+        }
+
+        void addAll(Latencies other) {
+            if (count + other.count > nanos.length) {
+                nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, count + other.count));
+            }
+            System.arraycopy(other.nanos, 0, nanos, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+
+        String summary() {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            return String.format("p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f",
+                    percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99),
+                    percentile(sorted, 99.9), percentile(sorted, 100));
+        }
+
+        private static double percentile(long[] sortedNanos, double percentile) {
+            if (sortedNanos.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sortedNanos.length) - 1;
+            return sortedNanos[Math.max(0, Math.min(index, sortedNanos.length - 1))] / 1e6;
+        }
+    }
+
+    private final class Client implements Runnable {
+
+        private final int offset;
+        private final SplittableRandom random;
+        private final long measureFrom;
+        private final long measureUntil;
+        private final CountDownLatch finished;
+        private final Latencies[] latencies;
+
+        private Client(int offset, SplittableRandom random, long measureFrom, long measureUntil, CountDownLatch finished) {
+            this.offset = offset;
+            this.random = random;
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+            this.finished = finished;
+            this.latencies = new Latencies[requests.size()];
+            for (int i = 0; i < latencies.length; i++) {
+                latencies[i] = new Latencies();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (int i = offset; System.nanoTime() < measureUntil; i++) {
+                    int index = nextRequest(i);
+                    HttpRequest request = build(requests.get(index));
+                    long startedAt = System.nanoTime();
+                    boolean failed;
+                    try {
+                        failed = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 400;
+                    } catch (IOException e) {
+                        failed = true;
+                    }
+                    long completedAt = System.nanoTime();
+                    if (startedAt >= measureFrom && completedAt <= measureUntil) {
+                        latencies[index].record(completedAt - startedAt, failed);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                finished.countDown();
+            }
+        }
+
+        // Without a mix every client cycles through the paths, starting at its own offset.
+        private int nextRequest(int iteration) {
+            if (!weighted) {
+                return iteration % requests.size();
+            }
+            int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            int index = Arrays.binarySearch(cumulativeWeights, pick + 1);
+            return index >= 0 ? index : -index - 1;
+        }
+
+        private HttpRequest build(RequestTemplate template) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(resolve(template.path(), random)))
+                    .timeout(Duration.ofSeconds(60));
+            if (template.body() == null) {
+                return builder.method(template.method(), HttpRequest.BodyPublishers.noBody()).build();
+            }
+            return builder.header("Content-Type", "application/json")
+                    .method(template.method(), HttpRequest.BodyPublishers.ofString(resolve(template.body(), random)))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.healthflow.perf;
+
+import com.healthflow.HealthflowApplication;
+import com.healthflow.models.Patient;
+import com.healthflow.service.PatientSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of {@link PatientSearchIndex#search}, the lookup behind {@code GET /patients/search}, over
+ * {@value #PATIENTS} synthetic patients: whole names, surnames, phone prefixes, name prefixes and
+ * multi-word queries mixing name, address and number fragments.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatientSearchBenchmark {
+
+    private static final int PATIENTS = 200_000;
+    private static final String[] FIRST_NAMES = {"Ana", "Bruno", "Carla", "Diego", "Elena", "Felipe", "Gabriela", "Hugo"};
+    private static final String[] LAST_NAMES = {"Garcia", "Martinez", "Lopez", "Gonzalez", "Rodriguez", "Fernandez", "Perez", "Sanchez"};
+
+    @Param({"gabriela12", "lopez", "555000", "ana gonz", "avenida 1999", "hugo perez 9"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private PatientSearchIndex searchIndex;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(HealthflowApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:search-bench;DB_CLOSE_ON_EXIT=FALSE",
+                        "--healthflow.journal.enabled=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        searchIndex = context.getBean(PatientSearchIndex.class);
+        for (long i = 0; i < PATIENTS; i++) {
+            Patient patient = new Patient();
+            patient.setId(-1_000_000 - i);
+            patient.setFirstName(FIRST_NAMES[(int) (i % FIRST_NAMES.length)] + (i % 997));
+            patient.setLastName(LAST_NAMES[(int) (i / FIRST_NAMES.length % LAST_NAMES.length)]);
+            patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+            patient.setPhone(String.format("555%07d", i));
+            patient.setAddress(i + " Avenida Central");
+            searchIndex.put(patient);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Long> search() {
+        return searchIndex.search(query, PatientSearchIndex.DEFAULT_LIMIT);
+    }
+}
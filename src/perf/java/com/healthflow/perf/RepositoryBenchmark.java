@@ -0,0 +1,151 @@
+package com.healthflow.perf;
+
+import com.healthflow.HealthflowApplication;
+import com.healthflow.dto.CursorPage;
+import com.healthflow.dto.PrescriptionDTO;
+import com.healthflow.models.Doctor;
+import com.healthflow.models.Medication;
+import com.healthflow.models.Patient;
+import com.healthflow.models.Prescription;
+import com.healthflow.repository.DoctorRepository;
+import com.healthflow.repository.MedicationRepository;
+import com.healthflow.repository.PatientRepository;
+import com.healthflow.repository.PrescriptionRepository;
+import com.healthflow.service.PrescriptionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads through the real repositories and services against an H2 file database under
+ * {@code target/perf}. The database is seeded on the first run and reused afterwards, so
+ * consecutive runs measure the same data.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+
+    private static final int REFERENCE_ROWS = 100;
+    private static final int SEED_CHUNK = 1_000;
+
+    @Param({"10000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private PatientRepository patientRepository;
+    private PrescriptionRepository prescriptionRepository;
+    private PrescriptionService prescriptionService;
+    private long[] patientIds;
+    private long[] prescriptionIds;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(HealthflowApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:file:./target/perf/healthflow-bench",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        patientRepository = context.getBean(PatientRepository.class);
+        prescriptionRepository = context.getBean(PrescriptionRepository.class);
+        prescriptionService = context.getBean(PrescriptionService.class);
+
+        if (prescriptionRepository.count() < rows) {
+            seed();
+        }
+        patientIds = patientRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(rows)).stream()
+                .mapToLong(Patient::getId).toArray();
+        prescriptionIds = prescriptionRepository.findPageWithAssociations(0L, Limit.of(rows)).stream()
+                .mapToLong(Prescription::getId).toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Patient> findAllPatients() {
+        return patientRepository.findAll();
+    }
+
+    @Benchmark
+    public Optional<Patient> findPatientById() {
+        return patientRepository.findById(randomId(patientIds));
+    }
+
+    @Benchmark
+    public CursorPage<PrescriptionDTO> findPrescriptionPage() {
+        return prescriptionService.getPrescriptions(null, CursorPage.DEFAULT_LIMIT);
+    }
+
+    @Benchmark
+    public Optional<PrescriptionDTO> findPrescriptionById() {
+        return prescriptionService.getPrescriptionById(randomId(prescriptionIds));
+    }
+
+    private static long randomId(long[] ids) {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private void seed() {
+        DoctorRepository doctorRepository = context.getBean(DoctorRepository.class);
+        MedicationRepository medicationRepository = context.getBean(MedicationRepository.class);
+
+        // Doctor emails are unique, so a re-seed after an interrupted run continues the numbering.
+        long existingDoctors = doctorRepository.count();
+        List<Doctor> doctors = new ArrayList<>();
+        List<Medication> medications = new ArrayList<>();
+        for (long i = 0; i < REFERENCE_ROWS; i++) {
+            Doctor doctor = Fixtures.doctor(existingDoctors + i);
+            doctor.setId(null);
+            doctors.add(doctor);
+            Medication medication = Fixtures.medication(i);
+            medication.setId(null);
+            medications.add(medication);
+        }
+        doctors = doctorRepository.saveAll(doctors);
+        medications = medicationRepository.saveAll(medications);
+
+        for (int from = 0; from < rows; from += SEED_CHUNK) {
+            List<Patient> patients = new ArrayList<>();
+            for (int i = from; i < Math.min(from + SEED_CHUNK, rows); i++) {
+                Patient patient = Fixtures.patient(i);
+                patient.setId(null);
+                patient.setHospitalRoom(null);
+                patients.add(patient);
+            }
+            List<Prescription> prescriptions = new ArrayList<>();
+            for (Patient patient : patientRepository.saveAll(patients)) {
+                int index = prescriptions.size();
+                prescriptions.add(new Prescription(patient, doctors.get(index % REFERENCE_ROWS),
+                        medications.get(index % REFERENCE_ROWS), LocalDate.of(2024, 1, 1)));
+            }
+            prescriptionRepository.saveAll(prescriptions);
+        }
+    }
+}
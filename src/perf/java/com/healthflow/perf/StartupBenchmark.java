@@ -0,0 +1,140 @@
+package com.healthflow.perf;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures time to first request: starts the application in a fresh JVM, polls {@code path} until it
+ * answers 200, and reports the time from launching the process to that response. Every mode is started
+ * {@code runs} times in turn and reported as min, median and max.
+ * <ul>
+ *   <li>{@code jar}: the executable jar with the default profile, as before;</li>
+ *   <li>{@code profile}: the extracted jar with the {@code fast-startup} profile;</li>
+ *   <li>{@code aot}: as {@code profile}, using the AOT-generated bean definitions;</li>
+ *   <li>{@code aot-cds}: as {@code aot}, with the CDS archive from the training run.</li>
+ * </ul>
+ * Build with {@code mvn -Paot package} first. The application runs against {@code url}, by default the
+ * database written by {@link DatasetGenerator}, which must already have its schema.
+ *
+ * <pre>
+ * mvn -Pperf test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.healthflow.perf.StartupBenchmark -Dexec.args="runs=5"
+ * </pre>
+ */
+public final class StartupBenchmark {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(10);
+
+    private final Map<String, List<String>> modes = new LinkedHashMap<>();
+    private final int runs;
+    private final int port;
+    private final String path;
+    private final String url;
+    private final Duration timeout;
+    private final Path logDirectory = Path.of("target/perf/startup");
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private StartupBenchmark(Map<String, String> options) {
+        this.runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        this.port = Integer.parseInt(options.getOrDefault("port", "18080"));
+        this.path = options.getOrDefault("path", "/patients?limit=1");
+        this.url = options.getOrDefault("url", "jdbc:h2:file:./target/perf/healthflow-dataset");
+        this.timeout = Duration.ofSeconds(Long.parseLong(options.getOrDefault("timeout", "300")));
+        String jar = options.getOrDefault("jar", "target/healthflow-0.0.1-SNAPSHOT.jar");
+        String app = options.getOrDefault("app", "target/app");
+        String extractedJar = app + "/" + Path.of(jar).getFileName();
+
+        Map<String, List<String>> all = new LinkedHashMap<>();
+        all.put("jar", List.of("-jar", jar));
+        all.put("profile", List.of("-jar", extractedJar, "--spring.profiles.active=fast-startup"));
+        all.put("aot", List.of("-Dspring.aot.enabled=true", "-jar", extractedJar, "--spring.profiles.active=fast-startup"));
+        all.put("aot-cds", List.of("-XX:SharedArchiveFile=" + app + "/application.jsa", "-Dspring.aot.enabled=true",
+                "-jar", extractedJar, "--spring.profiles.active=fast-startup"));
+        for (String mode : options.getOrDefault("modes", String.join(",", all.keySet())).split(",")) {
+            if (!all.containsKey(mode)) {
+                throw new IllegalArgumentException("Unknown mode " + mode + ", expected one of " + all.keySet());
+            }
+            modes.put(mode, all.get(mode));
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        new StartupBenchmark(LoadDriver.parseOptions(args)).run();
+    }
+
+    private void run() throws IOException, InterruptedException {
+        Files.createDirectories(logDirectory);
+        System.out.printf("Time to first GET %s against %s, %d runs per mode%n", path, url, runs);
+        Map<String, long[]> results = new LinkedHashMap<>();
+        modes.keySet().forEach(mode -> results.put(mode, new long[runs]));
+        // Modes take turns, so that a slower machine state affects all of them alike.
+        for (int run = 0; run < runs; run++) {
+            for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+                results.get(mode.getKey())[run] = timeToFirstRequest(mode.getKey(), mode.getValue());
+            }
+        }
+        for (Map.Entry<String, long[]> result : results.entrySet()) {
+            long[] millis = result.getValue().clone();
+            Arrays.sort(millis);
+            System.out.printf("%-8s min=%,6d ms  median=%,6d ms  max=%,6d ms%n",
+                    result.getKey(), millis[0], millis[millis.length / 2], millis[millis.length - 1]);
+        }
+    }
+
+    private long timeToFirstRequest(String mode, List<String> launch) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(launch);
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=" + url);
+        command.add("--healthflow.journal.directory=" + logDirectory.resolve("journal"));
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        long startedAt = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logDirectory.resolve(mode + ".log").toFile())
+                .start();
+        try {
+            while (System.nanoTime() - startedAt < timeout.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException(mode + " exited with " + process.exitValue()
+                            + ", see " + logDirectory.resolve(mode + ".log"));
+                }
+                try {
+                    if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+                        System.out.printf("  %-8s %,6d ms%n", mode, millis);
+                        return millis;
+                    }
+                } catch (IOException e) {
+                    // Not listening yet.
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            throw new IllegalStateException(mode + " did not answer within " + timeout);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.healthflow.perf;
+
+import com.healthflow.HealthflowApplication;
+import com.healthflow.dto.StockLevelDTO;
+import com.healthflow.models.Medication;
+import com.healthflow.repository.MedicationRepository;
+import com.healthflow.service.MedicationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many dispensers changing the stock of a single medication at once, the worst case for the atomic
+ * stock updates. Every thread works on the same row; the stock is large enough never to run out.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class StockContentionBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private MedicationService medicationService;
+    private Long medicationId;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(HealthflowApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:stock-bench;DB_CLOSE_ON_EXIT=FALSE",
+                        "--healthflow.journal.enabled=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        medicationService = context.getBean(MedicationService.class);
+        medicationId = context.getBean(MedicationRepository.class)
+                .save(new Medication("Amoxicillin", "500mg", "Antibiotic", Integer.MAX_VALUE, LocalDate.now().plusYears(1)))
+                .getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public int reduceStock() {
+        return medicationService.reduceStock(medicationId, 1);
+    }
+
+    @Benchmark
+    public StockLevelDTO reserveAndReleaseStock() {
+        return medicationService.releaseReservation(medicationService.reserveStock(medicationId, 1).getId());
+    }
+}
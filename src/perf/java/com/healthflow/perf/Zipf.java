@@ -0,0 +1,95 @@
+package com.healthflow.perf;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Zipf-distributed index in {@code [0, n)}: the k-th most popular of {@code n} items is picked with a
+ * probability proportional to {@code 1 / k^exponent}, so an exponent of 0 is uniform and 1 is the classic
+ * long tail. Uses rejection-inversion sampling (Hörmann and Derflinger), which needs no table and so also
+ * works for millions of items.
+ * <p>
+ * Popularity ranks are scattered over the index range by a multiplicative permutation, so the hot items are
+ * spread across the table instead of all being its lowest ids.
+ */
+final class Zipf {
+
+    private final int n;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralN;
+    private final double s;
+    private final long scatter;
+
+    Zipf(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Zipf needs at least one item, got " + n);
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Zipf exponent must not be negative, got " + exponent);
+        }
+        this.n = n;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1;
+        this.hIntegralN = hIntegral(n + 0.5);
+        this.s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+        this.scatter = coprimeNear(n, (long) (n * 0.618) + 1);
+    }
+
+    int next(RandomGenerator random) {
+        return (int) (nextRank(random) * scatter % n);
+    }
+
+    private int nextRank(RandomGenerator random) {
+        while (true) {
+            double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+            double x = hIntegralInverse(u);
+            int k = (int) Math.max(1, Math.min(n, Math.round(x)));
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return expm1OverX((1 - exponent) * logX) * logX;
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = Math.max(-1, x * (1 - exponent));
+        return Math.exp(log1pOverX(t) * x);
+    }
+
+    private static double log1pOverX(double x) {
+        return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+    }
+
+    private static double expm1OverX(double x) {
+        return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+    }
+
+    /**
+     * Smallest number from {@code start} on that shares no factor with {@code n}, so multiplying by it
+     * permutes {@code [0, n)}.
+     */
+    static long coprimeNear(long n, long start) {
+        long candidate = Math.max(1, start);
+        while (gcd(candidate, n) != 1) {
+            candidate++;
+        }
+        return candidate;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long remainder = a % b;
+            a = b;
+            b = remainder;
+        }
+        return a;
+    }
+}
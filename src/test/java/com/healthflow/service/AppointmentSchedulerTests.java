@@ -0,0 +1,251 @@
+package com.healthflow.service;
+
+import com.healthflow.models.Appointment;
+import com.healthflow.models.Doctor;
+import com.healthflow.models.Patient;
+import com.healthflow.repository.AppointmentRepository;
+import com.healthflow.repository.DoctorRepository;
+import com.healthflow.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import(AppointmentScheduler.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AppointmentSchedulerTests {
+
+    private static final LocalDateTime NINE = LocalDateTime.of(2031, 2, 3, 9, 0);
+    private static final int THREADS = 16;
+
+    @Autowired
+    private AppointmentScheduler appointmentScheduler;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void rejectsOverlappingSlotsOfTheSameDoctorOrPatient() {
+        Doctor doctor = newDoctor("overlap");
+        Doctor otherDoctor = newDoctor("overlap-other");
+        Patient patient = newPatient("Overlap");
+        Patient otherPatient = newPatient("OverlapOther");
+        appointmentScheduler.schedule(newAppointment(doctor, patient, NINE));
+
+        assertThatThrownBy(() -> appointmentScheduler.schedule(newAppointment(doctor, otherPatient, NINE)))
+                .isInstanceOf(AppointmentConflictException.class)
+                .hasMessageStartingWith("Doctor with ID " + doctor.getId());
+        assertThatThrownBy(() -> appointmentScheduler.schedule(newAppointment(otherDoctor, patient, NINE)))
+                .isInstanceOf(AppointmentConflictException.class)
+                .hasMessageStartingWith("Patient with ID " + patient.getId());
+        assertThat(appointmentRepository.findAll())
+                .filteredOn(appointment -> appointment.getDoctor().getId().equals(otherDoctor.getId())
+                        || appointment.getPatient().getId().equals(otherPatient.getId()))
+                .isEmpty();
+    }
+
+    @Test
+    void rejectsStartTimesOffTheSlotGrid() {
+        Doctor doctor = newDoctor("grid");
+        Patient patient = newPatient("Grid");
+
+        for (LocalDateTime start : List.of(NINE.plusMinutes(15), NINE.minusMinutes(29), NINE.plusSeconds(1))) {
+            assertThatThrownBy(() -> appointmentScheduler.schedule(newAppointment(doctor, patient, start)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Appointments start on a 30-minute slot boundary, counted from midnight; " + start + " is not one.");
+        }
+        // A cancelled appointment holds no slot, so its time is not checked
+        Appointment cancelled = newAppointment(doctor, patient, NINE.plusMinutes(15));
+        cancelled.setStatus("Cancelled");
+        appointmentScheduler.schedule(cancelled);
+
+        assertThat(appointmentRepository.findAll())
+                .filteredOn(appointment -> appointment.getDoctor().getId().equals(doctor.getId()))
+                .extracting(Appointment::getStatus)
+                .containsExactly("Cancelled");
+        assertThatThrownBy(() -> new AppointmentScheduler(appointmentRepository, transactionManager, Duration.ofMinutes(7)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void bookingsOffTheGridFromBeforeItWasEnforcedStillBlockOverlaps() {
+        Doctor doctor = newDoctor("legacy");
+        Patient patient = newPatient("Legacy");
+        Patient otherPatient = newPatient("LegacyOther");
+        Appointment legacy = appointmentRepository.save(newAppointment(doctor, patient, NINE.plusMinutes(15)));
+        appointmentScheduler.rebuildIndex();
+
+        assertThatThrownBy(() -> appointmentScheduler.schedule(newAppointment(doctor, otherPatient, NINE.plusMinutes(30))))
+                .isInstanceOf(AppointmentConflictException.class);
+        // It can still be updated as long as it keeps its time
+        legacy.setStatus("Completed");
+        assertThat(appointmentScheduler.schedule(legacy).getDate()).isEqualTo(NINE.plusMinutes(15));
+    }
+
+    @Test
+    void databaseRejectsTheSameSlotBookedThroughAnotherInstance() {
+        Doctor doctor = newDoctor("instances");
+        Patient patient = newPatient("Instances");
+        Patient otherPatient = newPatient("InstancesOther");
+        appointmentScheduler.schedule(newAppointment(doctor, patient, NINE));
+
+        // A second instance has not indexed the booking; on the grid an overlap is an identical start time,
+        // which the unique constraints reject.
+        AppointmentScheduler otherInstance = new AppointmentScheduler(appointmentRepository, transactionManager, Duration.ofMinutes(30));
+        assertThatThrownBy(() -> otherInstance.schedule(newAppointment(doctor, otherPatient, NINE)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void acceptsAdjacentSlots() {
+        Doctor doctor = newDoctor("adjacent");
+        Patient patient = newPatient("Adjacent");
+        Patient otherPatient = newPatient("AdjacentOther");
+
+        appointmentScheduler.schedule(newAppointment(doctor, patient, NINE));
+        appointmentScheduler.schedule(newAppointment(doctor, otherPatient, NINE.plusMinutes(30)));
+        appointmentScheduler.schedule(newAppointment(doctor, patient, NINE.minusMinutes(30)));
+        appointmentScheduler.schedule(newAppointment(newDoctor("adjacent-other"), patient, NINE.plusMinutes(30)));
+    }
+
+    @Test
+    void cancellingOrDeletingAnAppointmentFreesItsSlot() {
+        Doctor doctor = newDoctor("cancel");
+        Patient patient = newPatient("Cancel");
+        Patient otherPatient = newPatient("CancelOther");
+
+        Appointment cancelled = appointmentScheduler.schedule(newAppointment(doctor, patient, NINE));
+        cancelled.setStatus("CANCELLED");
+        appointmentScheduler.schedule(cancelled);
+        Appointment rebooked = appointmentScheduler.schedule(newAppointment(doctor, otherPatient, NINE));
+
+        // The cancelled appointment cannot take its slot back while it is booked again
+        cancelled.setStatus("Scheduled");
+        assertThatThrownBy(() -> appointmentScheduler.schedule(cancelled))
+                .isInstanceOf(AppointmentConflictException.class);
+
+        appointmentRepository.deleteById(rebooked.getId());
+        appointmentScheduler.cancel(rebooked.getId());
+        Appointment restored = appointmentRepository.findById(cancelled.getId()).orElseThrow();
+        restored.setStatus("Scheduled");
+        assertThat(appointmentScheduler.schedule(restored).getStatus()).isEqualTo("Scheduled");
+    }
+
+    @Test
+    void concurrentBookingsOfTheSameSlotHaveExactlyOneWinner() throws Exception {
+        Doctor doctor = newDoctor("race");
+        List<Patient> patients = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            patients.add(newPatient("Race" + i));
+        }
+
+        AtomicInteger rejected = new AtomicInteger();
+        List<Long> booked = runAtOnce(patients.stream()
+                .map(patient -> newAppointment(doctor, patient, NINE))
+                .toList(), rejected);
+
+        assertThat(booked).hasSize(1);
+        assertThat(rejected).hasValue(THREADS - 1);
+        assertThat(appointmentRepository.findAll())
+                .filteredOn(appointment -> appointment.getDoctor().getId().equals(doctor.getId()))
+                .extracting(Appointment::getId)
+                .containsExactlyElementsOf(booked);
+    }
+
+    @Test
+    void concurrentBookingsSharingDoctorsAndPatientsNeverDeadlockOrOverlap() throws Exception {
+        List<Doctor> doctors = List.of(newDoctor("cross-1"), newDoctor("cross-2"), newDoctor("cross-3"));
+        List<Patient> patients = List.of(newPatient("Cross1"), newPatient("Cross2"), newPatient("Cross3"), newPatient("Cross4"));
+        List<Appointment> appointments = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            appointments.add(newAppointment(doctors.get(i % doctors.size()), patients.get(i * 7 % patients.size()), NINE));
+        }
+
+        List<Long> booked = runAtOnce(appointments, new AtomicInteger());
+
+        List<Appointment> saved = appointmentRepository.findAllById(booked);
+        assertThat(saved).extracting(appointment -> appointment.getDoctor().getId()).doesNotHaveDuplicates();
+        assertThat(saved).extracting(appointment -> appointment.getPatient().getId()).doesNotHaveDuplicates();
+        assertThat(saved).hasSizeGreaterThanOrEqualTo(1);
+    }
+
+    private List<Long> runAtOnce(List<Appointment> appointments, AtomicInteger rejected) throws Exception {
+        Set<Long> booked = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(appointments.size());
+        List<Future<?>> bookings = new ArrayList<>();
+        for (Appointment appointment : appointments) {
+            bookings.add(executor.submit(() -> {
+                start.await();
+                try {
+                    booked.add(appointmentScheduler.schedule(appointment).getId());
+                } catch (AppointmentConflictException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> booking : bookings) {
+            booking.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        return new ArrayList<>(booked);
+    }
+
+    private static Appointment newAppointment(Doctor doctor, Patient patient, LocalDateTime date) {
+        return new Appointment(null, patient, doctor, date, "Scheduled", null);
+    }
+
+    private Doctor newDoctor(String name) {
+        Doctor doctor = new Doctor();
+        doctor.setFirstName(name);
+        doctor.setLastName("Test");
+        doctor.setSpecialty("Cardiology");
+        doctor.setPhone("5551111111");
+        doctor.setEmail(name + "@scheduler.healthflow.com");
+        return doctorRepository.save(doctor);
+    }
+
+    private Patient newPatient(String firstName) {
+        Patient patient = new Patient();
+        patient.setFirstName(firstName);
+        patient.setLastName("Test");
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender("Other");
+        patient.setPhone("5550000000");
+        return patientRepository.save(patient);
+    }
+}
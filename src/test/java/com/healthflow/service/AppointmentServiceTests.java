@@ -0,0 +1,146 @@
+package com.healthflow.service;
+
+import com.healthflow.dto.AppointmentDTO;
+import com.healthflow.dto.CursorPage;
+import com.healthflow.models.Appointment;
+import com.healthflow.models.Doctor;
+import com.healthflow.models.Patient;
+import com.healthflow.repository.AppointmentRepository;
+import com.healthflow.repository.DoctorRepository;
+import com.healthflow.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import(AppointmentService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AppointmentServiceTests {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 14);
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Test
+    void filtersByStatusDoctorAndDateRange() {
+        Doctor doctor = doctorRepository.save(newDoctor("filtered"));
+        Doctor otherDoctor = doctorRepository.save(newDoctor("other"));
+        Patient patient = patientRepository.save(newPatient("Filtered"));
+        Patient otherPatient = patientRepository.save(newPatient("Other"));
+
+        Appointment morning = appointmentRepository.save(newAppointment(doctor, patient, DAY.atTime(9, 0), "Scheduled"));
+        appointmentRepository.save(newAppointment(doctor, patient, DAY.atTime(10, 0), "Cancelled"));
+        Appointment afternoon = appointmentRepository.save(newAppointment(doctor, otherPatient, DAY.atTime(14, 0), "Completed"));
+        appointmentRepository.save(newAppointment(doctor, patient, DAY.plusDays(1).atTime(9, 0), "Scheduled"));
+        appointmentRepository.save(newAppointment(otherDoctor, otherPatient, DAY.atTime(9, 0), "Scheduled"));
+
+        AppointmentFilter today = new AppointmentFilter(Set.of("Scheduled", "Completed"), doctor.getId(), null,
+                DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay());
+        assertThat(ids(appointmentService.findAppointments(today, AppointmentSort.DATE, null, null)))
+                .containsExactly(morning.getId(), afternoon.getId());
+
+        AppointmentFilter ofPatient = new AppointmentFilter(null, doctor.getId(), patient.getId(), null, null);
+        assertThat(appointmentService.findAppointments(ofPatient, AppointmentSort.DATE_DESC, null, null).items())
+                .extracting(AppointmentDTO::getDate)
+                .containsExactly(DAY.plusDays(1).atTime(9, 0), DAY.atTime(10, 0), DAY.atTime(9, 0));
+    }
+
+    @Test
+    void pagesThroughMatchesByDateInBothDirections() {
+        Doctor doctor = doctorRepository.save(newDoctor("paged"));
+        Patient patient = patientRepository.save(newPatient("Paged"));
+        List<LocalDateTime> dates = new ArrayList<>();
+        for (int hour : new int[] {15, 8, 12, 9, 17}) {
+            dates.add(appointmentRepository.save(newAppointment(doctor, patient, DAY.atTime(hour, 0), "Scheduled")).getDate());
+        }
+        dates.sort(null);
+        AppointmentFilter ofDoctor = new AppointmentFilter(null, doctor.getId(), null, null, null);
+
+        assertThat(allPages(ofDoctor, AppointmentSort.DATE)).extracting(AppointmentDTO::getDate).isEqualTo(dates);
+        assertThat(allPages(ofDoctor, AppointmentSort.DATE_DESC)).extracting(AppointmentDTO::getDate)
+                .isSortedAccordingTo(Comparator.reverseOrder())
+                .containsExactlyInAnyOrderElementsOf(dates);
+        assertThat(allPages(ofDoctor, AppointmentSort.ID)).extracting(AppointmentDTO::getId).isSorted().hasSize(5);
+    }
+
+    @Test
+    void rejectsInvalidRangeSortAndCursor() {
+        assertThatThrownBy(() -> new AppointmentFilter(null, null, null, DAY.atTime(10, 0), DAY.atTime(9, 0)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AppointmentSort.fromParameter("status"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        String idCursor = CursorPage.encodeCursor(42);
+        assertThatThrownBy(() -> appointmentService.findAppointments(AppointmentFilter.NONE, AppointmentSort.DATE, idCursor, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    private List<AppointmentDTO> allPages(AppointmentFilter filter, AppointmentSort sort) {
+        List<AppointmentDTO> all = new ArrayList<>();
+        String after = null;
+        do {
+            CursorPage<AppointmentDTO> page = appointmentService.findAppointments(filter, sort, after, 2);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(2);
+            all.addAll(page.items());
+            after = page.nextCursor();
+        } while (after != null);
+        return all;
+    }
+
+    private static List<Long> ids(CursorPage<AppointmentDTO> page) {
+        return page.items().stream().map(AppointmentDTO::getId).toList();
+    }
+
+    private static Appointment newAppointment(Doctor doctor, Patient patient, LocalDateTime date, String status) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor);
+        appointment.setPatient(patient);
+        appointment.setDate(date);
+        appointment.setStatus(status);
+        return appointment;
+    }
+
+    private static Doctor newDoctor(String name) {
+        Doctor doctor = new Doctor();
+        doctor.setFirstName(name);
+        doctor.setLastName("Test");
+        doctor.setSpecialty("Cardiology");
+        doctor.setPhone("5551111111");
+        doctor.setEmail(name + "@appointments.healthflow.com");
+        return doctor;
+    }
+
+    private static Patient newPatient(String firstName) {
+        Patient patient = new Patient();
+        patient.setFirstName(firstName);
+        patient.setLastName("Test");
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender("Other");
+        patient.setPhone("5550000000");
+        return patient;
+    }
+}
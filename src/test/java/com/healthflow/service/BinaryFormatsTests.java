@@ -0,0 +1,110 @@
+package com.healthflow.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.healthflow.models.Patient;
+import com.healthflow.repository.PatientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Content negotiation between JSON and the CBOR and Smile converters of {@code BinaryFormatsConfig}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:binary-formats;DB_CLOSE_DELAY=-1",
+        "healthflow.journal.enabled=false"
+})
+@AutoConfigureMockMvc
+class BinaryFormatsTests {
+
+    private static final String SMILE = "application/x-jackson-smile";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    private Patient patient;
+
+    @BeforeEach
+    void savePatient() {
+        patient = new Patient();
+        patient.setFirstName("Ada");
+        patient.setLastName("Lovelace");
+        patient.setDateOfBirth(LocalDate.of(1815, 12, 10));
+        patient.setGender("Female");
+        patient.setPhone("5550000000");
+        patient = patientRepository.save(patient);
+    }
+
+    @AfterEach
+    void deletePatients() {
+        patientRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void cborCarriesTheSameFieldsAsJson() throws Exception {
+        assertBinaryMatchesJson("/patients/" + patient.getId(), MediaType.APPLICATION_CBOR_VALUE, new CBORFactory());
+        assertBinaryMatchesJson("/patients", MediaType.APPLICATION_CBOR_VALUE, new CBORFactory());
+    }
+
+    @Test
+    void smileCarriesTheSameFieldsAsJson() throws Exception {
+        assertBinaryMatchesJson("/patients/" + patient.getId(), SMILE, new SmileFactory());
+        assertBinaryMatchesJson("/patients", SMILE, new SmileFactory());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"*/*", ""})
+    void wildcardOrMissingAcceptGetsJson(String accept) throws Exception {
+        var request = get("/patients/" + patient.getId());
+        if (!accept.isEmpty()) {
+            request.header(HttpHeaders.ACCEPT, accept);
+        }
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode json = objectMapper.readTree(body);
+        assertThat(json.get("firstName").asText()).isEqualTo("Ada");
+        assertThat(json.get("dateOfBirth").asText()).isEqualTo("1815-12-10");
+    }
+
+    private void assertBinaryMatchesJson(String path, String mediaType, JsonFactory factory) throws Exception {
+        byte[] body = mockMvc.perform(get(path).accept(mediaType))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(mediaType))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode decoded = new ObjectMapper(factory).readTree(body);
+
+        JsonNode json = objectMapper.readTree(mockMvc.perform(get(path).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertThat(decoded).isEqualTo(json);
+        assertThat(decoded.findValue("dateOfBirth").asText()).isEqualTo("1815-12-10");
+    }
+}
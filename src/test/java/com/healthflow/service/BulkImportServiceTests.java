@@ -0,0 +1,111 @@
+package com.healthflow.service;
+
+import com.healthflow.config.CacheConfig;
+import com.healthflow.dto.AppointmentDTO;
+import com.healthflow.dto.BulkResultDTO;
+import com.healthflow.dto.PatientDTO;
+import com.healthflow.models.Appointment;
+import com.healthflow.models.Doctor;
+import com.healthflow.models.Patient;
+import com.healthflow.repository.DoctorRepository;
+import com.healthflow.repository.PatientRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({CacheConfig.class, BulkImportService.class, PatientService.class, PatientSearchIndex.class, HospitalRoomService.class, RoomAvailabilityIndex.class, MedicationService.class, MedicationExpiryTracker.class, AppointmentScheduler.class, StatisticsService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BulkImportServiceTests {
+
+    private static final int PATIENTS = 5_000;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private AppointmentScheduler appointmentScheduler;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void importingPatientsBatchesInsertsAndReportsInvalidItems() {
+        List<PatientDTO> patients = new ArrayList<>();
+        for (int i = 0; i < PATIENTS; i++) {
+            patients.add(newPatient("Patient" + i));
+        }
+        patients.set(7, new PatientDTO(null, "", "Test", LocalDate.of(1980, 1, 1), "Other", null, "5550000000"));
+        patients.set(4_321, null);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        BulkResultDTO result = bulkImportService.importPatients(patients);
+
+        assertThat(result.received()).isEqualTo(PATIENTS);
+        assertThat(result.created()).isEqualTo(PATIENTS - 2);
+        assertThat(result.errors()).extracting(BulkResultDTO.ItemError::index).containsExactly(7, 4_321);
+        assertThat(result.ids().get(7)).isNull();
+        assertThat(result.ids().get(8)).isNotNull();
+        assertThat(patientRepository.findExistingIds(result.ids().subList(0, 100))).hasSize(99);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(PATIENTS / 10);
+    }
+
+    @Test
+    void importingAppointmentsRejectsConflictsAndUnknownReferences() {
+        Doctor doctor = newDoctor();
+        Patient first = patientRepository.save(newPatient("First").toEntity());
+        Patient second = patientRepository.save(newPatient("Second").toEntity());
+        LocalDateTime nine = LocalDateTime.of(2030, 1, 7, 9, 0);
+
+        BulkResultDTO result = bulkImportService.importAppointments(List.of(
+                new AppointmentDTO(null, first.getId(), doctor.getId(), nine, "Scheduled"),
+                new AppointmentDTO(null, second.getId(), doctor.getId(), nine, "Scheduled"),
+                new AppointmentDTO(null, second.getId(), doctor.getId(), nine.plusMinutes(30), "Scheduled"),
+                new AppointmentDTO(null, first.getId(), -1L, nine.plusHours(2), "Scheduled"),
+                new AppointmentDTO(null, first.getId(), doctor.getId(), nine.plusMinutes(75), "Scheduled")));
+
+        assertThat(result.created()).isEqualTo(2);
+        assertThat(result.errors()).extracting(BulkResultDTO.ItemError::index).containsExactly(1, 3, 4);
+        assertThat(result.errors().get(1).message()).isEqualTo("Doctor with ID -1 not found.");
+        assertThat(result.errors().get(2).message()).contains("slot boundary");
+
+        Appointment clash = new Appointment(null, second, doctor, nine, "Scheduled", null);
+        assertThatThrownBy(() -> appointmentScheduler.schedule(clash))
+                .isInstanceOf(AppointmentConflictException.class);
+    }
+
+    private PatientDTO newPatient(String firstName) {
+        return new PatientDTO(null, firstName, "Test", LocalDate.of(1980, 1, 1), "Other", null, "5550000000");
+    }
+
+    private Doctor newDoctor() {
+        Doctor doctor = new Doctor();
+        doctor.setFirstName("Gregory");
+        doctor.setLastName("House");
+        doctor.setSpecialty("Diagnostics");
+        doctor.setPhone("5551111111");
+        doctor.setEmail("house@healthflow.com");
+        return doctorRepository.save(doctor);
+    }
+}
@@ -0,0 +1,169 @@
+package com.healthflow.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthflow.dto.CursorPage;
+import com.healthflow.dto.JournalEntryDTO;
+import com.healthflow.models.MedicalRecord;
+import com.healthflow.models.Patient;
+import com.healthflow.repository.MedicalRecordRepository;
+import com.healthflow.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ChangeJournal.class, ChangeJournalListener.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ChangeJournalTests {
+
+    private static final Path JOURNAL_DIRECTORY = createTempDirectory();
+
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) {
+        registry.add("healthflow.journal.directory", JOURNAL_DIRECTORY::toString);
+        registry.add("healthflow.journal.segment-size", () -> "4KB");
+    }
+
+    @Autowired
+    private ChangeJournal changeJournal;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void committedWritesAreJournaledAndRolledBackOnesAreNot() throws InterruptedException {
+        Patient patient = patientRepository.save(newPatient("Journaled"));
+        patient.setPhone("5551112222");
+        patientRepository.save(patient);
+        MedicalRecord record = medicalRecordRepository.save(new MedicalRecord(null, patient, "Flu", "Rest", LocalDate.of(2024, 2, 1), null, null));
+        medicalRecordRepository.delete(record);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            patientRepository.save(newPatient("RolledBack"));
+            status.setRollbackOnly();
+        });
+        assertThat(changeJournal.awaitWritten(Duration.ofSeconds(10))).isTrue();
+
+        List<JournalEntryDTO> patientEntries = changeJournal.scan("Patient", patient.getId(), null, null, null, null).items();
+        assertThat(patientEntries).extracting(JournalEntryDTO::operation).containsExactly("CREATE", "UPDATE");
+        assertThat(patientEntries.get(1).state()).contains("\"phone\":\"5551112222\"");
+        assertThat(changeJournal.scan("medical_record", record.getId(), null, null, null, null).items())
+                .extracting(JournalEntryDTO::operation).containsExactly("CREATE", "DELETE");
+        assertThat(changeJournal.scan("Patient", null, null, null, null, CursorPage.MAX_LIMIT).items())
+                .noneMatch(entry -> entry.state().contains("RolledBack"));
+        assertThatThrownBy(() -> changeJournal.scan("Doctor", null, null, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void scansPageAcrossSegmentsAndHonourTimeRanges() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        Instant start = Instant.now();
+        for (int i = 0; i < 40; i++) {
+            ids.add(patientRepository.save(newPatient("Paged" + i)).getId());
+        }
+        assertThat(changeJournal.awaitWritten(Duration.ofSeconds(10))).isTrue();
+        Instant middle = Instant.now();
+        Thread.sleep(2);
+        Long late = patientRepository.save(newPatient("Late")).getId();
+        assertThat(changeJournal.awaitWritten(Duration.ofSeconds(10))).isTrue();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<JournalEntryDTO> page = changeJournal.scan("Patient", null, start, middle, cursor, 7);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(7);
+            page.items().forEach(entry -> seen.add(entry.entityId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(ids);
+        assertThat(new ChangeJournalReader(JOURNAL_DIRECTORY).segments()).hasSizeGreaterThan(1);
+        assertThat(changeJournal.scan("Patient", late, middle, null, null, null).items())
+                .extracting(JournalEntryDTO::operation).containsExactly("CREATE");
+    }
+
+    @Test
+    void restartSkipsATornRecordAndKeepsAppending() throws Exception {
+        Path directory = Files.createTempDirectory("journal-recovery");
+        ChangeJournal journal = newJournal(directory);
+        journal.record(ChangeJournal.Operation.CREATE, ChangeJournal.Entity.APPOINTMENT, 1L, "{\"status\":\"SCHEDULED\"}");
+        assertThat(journal.awaitWritten(Duration.ofSeconds(10))).isTrue();
+        journal.stop();
+
+        Path segment = new ChangeJournalReader(directory).segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int end = ChangeJournalReader.RECORD_HEADER + ChangeJournalReader.bodyLengthAt(buffer, 0);
+            buffer.putInt(end, 200).putInt(end + 4, 12345).putLong(end + 8, 42L);
+            buffer.force();
+        }
+
+        journal = newJournal(directory);
+        journal.record(ChangeJournal.Operation.UPDATE, ChangeJournal.Entity.APPOINTMENT, 1L, "{\"status\":\"DONE\"}");
+        assertThat(journal.awaitWritten(Duration.ofSeconds(10))).isTrue();
+        journal.stop();
+
+        assertThat(journal.scan("Appointment", 1L, null, null, null, null).items())
+                .extracting(JournalEntryDTO::operation).containsExactly("CREATE", "UPDATE");
+        assertThat(new ChangeJournalReader(directory).segments()).containsExactly(segment);
+    }
+
+    private ChangeJournal newJournal(Path directory) throws IOException {
+        ChangeJournal journal = new ChangeJournal(objectMapper, true, directory.toString(), DataSize.ofKilobytes(64), 16);
+        journal.start();
+        return journal;
+    }
+
+    private Patient newPatient(String firstName) {
+        Patient patient = new Patient();
+        patient.setFirstName(firstName);
+        patient.setLastName("Test");
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender("Other");
+        patient.setPhone("5550000000");
+        return patient;
+    }
+
+    private static Path createTempDirectory() {
+        try {
+            return Files.createTempDirectory("journal");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.healthflow.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthflow.dto.DoctorDTO;
+import com.healthflow.dto.MedicationDTO;
+import com.healthflow.dto.PatientDTO;
+import com.healthflow.dto.PrescriptionDTO;
+import com.healthflow.models.Doctor;
+import com.healthflow.models.Medication;
+import com.healthflow.models.Patient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * ETag revalidation and If-Match preconditions as clients see them, through the controllers.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:conditional-requests;DB_CLOSE_DELAY=-1",
+        "healthflow.journal.enabled=false"
+})
+@AutoConfigureMockMvc
+class ConditionalRequestTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private PrescriptionService prescriptionService;
+
+    @MockitoSpyBean
+    private PatientSearchIndex searchIndex;
+
+    @Test
+    void getWithMatchingIfNoneMatchReturnsNotModifiedWithoutBody() throws Exception {
+        Patient patient = patientService.savePatient(newPatient("Revalidated"));
+        String eTag = eTag("/patients/" + patient.getId());
+
+        mockMvc.perform(get("/patients/{id}", patient.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/patients/{id}", patient.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"-1\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName").value("Revalidated"));
+    }
+
+    @Test
+    void putWithStaleIfMatchIsRejected() throws Exception {
+        Patient patient = patientService.savePatient(newPatient("Precondition"));
+        String stale = eTag("/patients/" + patient.getId());
+
+        String current = mockMvc.perform(putPatient(patient, "First").header(HttpHeaders.IF_MATCH, stale))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(current).isNotEqualTo(stale);
+
+        mockMvc.perform(putPatient(patient, "Second").header(HttpHeaders.IF_MATCH, stale))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/patients/{id}", patient.getId()))
+                .andExpect(header().string(HttpHeaders.ETAG, current))
+                .andExpect(jsonPath("$.firstName").value("First"));
+    }
+
+    @Test
+    void updateThatLosesARaceIsRejectedWithConflict() throws Exception {
+        Patient patient = patientService.savePatient(newPatient("Contended"));
+        AtomicBoolean raced = new AtomicBoolean();
+        // The first update lets a second request update the same patient after it has loaded the
+        // patient and before it commits, so its version check fails on flush.
+        doAnswer(invocation -> {
+            if (raced.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(() -> {
+                    try {
+                        mockMvc.perform(putPatient(patient, "Winner")).andExpect(status().isOk());
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }).join();
+            }
+            return invocation.callRealMethod();
+        }).when(searchIndex).putAfterCommit(any());
+
+        mockMvc.perform(putPatient(patient, "Loser"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(get("/patients/{id}", patient.getId()))
+                .andExpect(jsonPath("$.firstName").value("Winner"));
+    }
+
+    @Test
+    void prescriptionETagChangesWithItsPatientDoctorAndMedication() throws Exception {
+        Patient patient = patientService.savePatient(newPatient("Composite"));
+        Doctor doctor = doctorService.saveDoctor(newDoctor());
+        Medication medication = medicationService.saveMedication(
+                new Medication("Ibuprofen", "400mg", "Analgesic", 50, LocalDate.now().plusYears(1)));
+        PrescriptionDTO prescription = prescriptionService.createPrescription(new PrescriptionDTO(null,
+                PatientDTO.fromEntity(patient), DoctorDTO.fromEntity(doctor), MedicationDTO.fromEntity(medication),
+                LocalDate.now()));
+        String path = "/prescriptions/" + prescription.id();
+
+        Set<String> eTags = new HashSet<>(List.of(eTag(path)));
+        mockMvc.perform(putPatient(patient, "Renamed")).andExpect(status().isOk());
+        assertChanged(path, eTags);
+
+        doctor.setSpecialty("Neurology");
+        mockMvc.perform(put("/doctors/{id}", doctor.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(DoctorDTO.fromEntity(doctor))))
+                .andExpect(status().isOk());
+        assertChanged(path, eTags);
+
+        mockMvc.perform(post("/medications/{id}/dispense", medication.getId()).param("amount", "1"))
+                .andExpect(status().isOk());
+        assertChanged(path, eTags);
+    }
+
+    // The new tag differs from every earlier one, and none of the earlier ones revalidates.
+    private void assertChanged(String path, Set<String> earlier) throws Exception {
+        String current = eTag(path);
+        assertThat(earlier).doesNotContain(current);
+        for (String previous : earlier) {
+            mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, previous))
+                    .andExpect(status().isOk());
+        }
+        earlier.add(current);
+    }
+
+    private String eTag(String path) throws Exception {
+        MvcResult result = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+        return result.getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private MockHttpServletRequestBuilder putPatient(Patient patient, String firstName) throws Exception {
+        Patient details = newPatient(firstName);
+        details.setId(patient.getId());
+        return put("/patients/{id}", patient.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(PatientDTO.fromEntity(details)));
+    }
+
+    private Patient newPatient(String firstName) {
+        Patient patient = new Patient();
+        patient.setFirstName(firstName);
+        patient.setLastName("Test");
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender("Other");
+        patient.setPhone("5550000000");
+        return patient;
+    }
+
+    private Doctor newDoctor() {
+        Doctor doctor = new Doctor();
+        doctor.setFirstName("Etag");
+        doctor.setLastName("Test");
+        doctor.setSpecialty("Cardiology");
+        doctor.setPhone("5551111111");
+        doctor.setEmail("etag@conditional.healthflow.com");
+        return doctor;
+    }
+}
@@ -0,0 +1,178 @@
+package com.healthflow.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthflow.dto.CursorPage;
+import com.healthflow.models.Doctor;
+import com.healthflow.repository.DoctorRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The cursor contract shared by every listing, on its own and through the doctors listing.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cursor-pages;DB_CLOSE_DELAY=-1",
+        "healthflow.journal.enabled=false"
+})
+@AutoConfigureMockMvc
+class CursorPageTests {
+
+    private static final Function<Integer, String> ID_CURSOR = CursorPage::encodeCursor;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @AfterEach
+    void deleteDoctors() {
+        doctorRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void onlyTheExtraRowMarksAnotherPage() {
+        List<Integer> rows = List.of(1, 2, 3, 4);
+
+        CursorPage<Integer> page = CursorPage.fromRows(rows, 3, ID_CURSOR);
+        assertThat(page.items()).containsExactly(1, 2, 3);
+        assertThat(CursorPage.decodeIdCursor(page.nextCursor())).isEqualTo(3L);
+
+        assertThat(CursorPage.fromRows(rows, 4, ID_CURSOR).nextCursor()).isNull();
+        assertThat(CursorPage.fromRows(rows.subList(0, 2), 4, ID_CURSOR).nextCursor()).isNull();
+        assertThat(CursorPage.fromRows(List.of(), 4, ID_CURSOR).items()).isEmpty();
+    }
+
+    @Test
+    void limitDefaultsAndIsClampedToTheMaximum() {
+        assertThat(CursorPage.resolveLimit(null)).isEqualTo(CursorPage.DEFAULT_LIMIT);
+        assertThat(CursorPage.resolveLimit(1)).isEqualTo(1);
+        assertThat(CursorPage.resolveLimit(CursorPage.MAX_LIMIT)).isEqualTo(CursorPage.MAX_LIMIT);
+        assertThat(CursorPage.resolveLimit(CursorPage.MAX_LIMIT + 1)).isEqualTo(CursorPage.MAX_LIMIT);
+        assertThat(CursorPage.resolveLimit(Integer.MAX_VALUE)).isEqualTo(CursorPage.MAX_LIMIT);
+        assertThatThrownBy(() -> CursorPage.resolveLimit(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CursorPage.resolveLimit(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cursorsRoundTripTheirKeys() {
+        assertThat(CursorPage.decodeCursor(CursorPage.encodeCursor("2026-01-10", 42), 2))
+                .containsExactly("2026-01-10", "42");
+        assertThat(CursorPage.decodeCursor(CursorPage.encodeCursor("", 7), 2)).containsExactly("", "7");
+        assertThat(CursorPage.decodeIdCursor(CursorPage.encodeCursor(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+        assertThat(CursorPage.decodeIdCursor(null)).isZero();
+        assertThat(CursorPage.decodeIdCursor(" ")).isZero();
+    }
+
+    @ParameterizedTest
+    @MethodSource("malformedCursors")
+    void malformedCursorsAreRejected(String cursor) throws Exception {
+        assertThatThrownBy(() -> CursorPage.decodeIdCursor(cursor))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor: " + cursor);
+
+        mockMvc.perform(get("/doctors").param("after", cursor))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid request: Invalid cursor: " + cursor));
+    }
+
+    static Stream<String> malformedCursors() {
+        String valid = CursorPage.encodeCursor(12);
+        return Stream.of(
+                "not a cursor!",
+                valid.substring(0, 1),
+                "*" + valid.substring(1),
+                CursorPage.encodeCursor("twelve"),
+                CursorPage.encodeCursor(12, 13),
+                CursorPage.encodeCursor("99999999999999999999"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "-1"})
+    void nonPositiveLimitsAreRejected(String limit) throws Exception {
+        mockMvc.perform(get("/doctors").param("limit", limit))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid request: Limit must be greater than zero."));
+    }
+
+    @Test
+    void oversizedLimitIsClampedAndTheExtraRowOpensTheLastPage() throws Exception {
+        List<Long> ids = saveDoctors(CursorPage.MAX_LIMIT + 1);
+
+        JsonNode first = page(null, 100_000);
+        assertThat(first.get("items")).hasSize(CursorPage.MAX_LIMIT);
+        assertThat(first.get("nextCursor").isNull()).isFalse();
+
+        JsonNode last = page(first.get("nextCursor").asText(), 100_000);
+        assertThat(last.get("items")).hasSize(1);
+        assertThat(last.at("/items/0/id").asLong()).isEqualTo(ids.get(ids.size() - 1));
+        assertThat(last.get("nextCursor").isNull()).isTrue();
+    }
+
+    @Test
+    void walkingEveryPageSeesEachRowOnceEvenWhenSeenRowsAreDeleted() throws Exception {
+        List<Long> ids = saveDoctors(230);
+
+        List<Long> seen = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            JsonNode page = page(after, 37);
+            page.get("items").forEach(item -> seen.add(item.get("id").asLong()));
+            after = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            if (++pages == 1) {
+                // An offset would now skip a row; the cursor resumes after the last id returned.
+                doctorRepository.deleteById(seen.get(0));
+            }
+        } while (after != null);
+
+        assertThat(pages).isEqualTo(7);
+        assertThat(seen).containsExactlyElementsOf(ids);
+    }
+
+    private JsonNode page(String after, int limit) throws Exception {
+        var request = get("/doctors").param("limit", String.valueOf(limit));
+        if (after != null) {
+            request.param("after", after);
+        }
+        return objectMapper.readTree(mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private List<Long> saveDoctors(int count) {
+        List<Doctor> doctors = IntStream.range(0, count).mapToObj(i -> {
+            Doctor doctor = new Doctor();
+            doctor.setFirstName("Doctor" + i);
+            doctor.setLastName("Test");
+            doctor.setSpecialty("Cardiology");
+            doctor.setPhone("5551111111");
+            doctor.setEmail("doctor" + i + "@cursor.healthflow.com");
+            return doctor;
+        }).toList();
+        return doctorRepository.saveAll(doctors).stream().map(Doctor::getId).toList();
+    }
+}
@@ -0,0 +1,238 @@
+package com.healthflow.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.healthflow.models.Appointment;
+import com.healthflow.models.Doctor;
+import com.healthflow.models.MedicalRecord;
+import com.healthflow.models.Medication;
+import com.healthflow.models.Patient;
+import com.healthflow.models.Prescription;
+import com.healthflow.repository.AppointmentRepository;
+import com.healthflow.repository.DoctorRepository;
+import com.healthflow.repository.MedicalRecordRepository;
+import com.healthflow.repository.MedicationRepository;
+import com.healthflow.repository.PatientRepository;
+import com.healthflow.repository.PrescriptionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The NDJSON and CSV exports as clients receive them, through the controllers.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:exports;DB_CLOSE_DELAY=-1",
+        "healthflow.journal.enabled=false"
+})
+@AutoConfigureMockMvc
+class ExportTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @AfterEach
+    void deleteExportedRows() {
+        prescriptionRepository.deleteAllInBatch();
+        appointmentRepository.deleteAllInBatch();
+        medicalRecordRepository.deleteAllInBatch();
+        medicationRepository.deleteAllInBatch();
+        doctorRepository.deleteAllInBatch();
+        patientRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void appointmentsExportAsNdjsonByDefaultAndAsCsv() throws Exception {
+        Patient patient = patientRepository.save(newPatient("Ada"));
+        Doctor doctor = doctorRepository.save(newDoctor(0));
+        Appointment first = appointmentRepository.save(
+                newAppointment(patient, doctor, LocalDateTime.of(2030, 3, 14, 10, 0), "Scheduled"));
+        Appointment second = appointmentRepository.save(
+                newAppointment(patient, doctor, LocalDateTime.of(2030, 3, 14, 11, 0), "Cancelled"));
+
+        List<JsonNode> rows = ndjson(mockMvc.perform(get("/appointments/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"appointments.ndjson\""))
+                .andReturn().getResponse().getContentAsString());
+        assertThat(rows).extracting(row -> row.get("id").asLong()).containsExactly(first.getId(), second.getId());
+        assertThat(rows).extracting(row -> row.get("status").asText()).containsExactly("Scheduled", "Cancelled");
+        assertThat(rows.get(0).get("patientId").asLong()).isEqualTo(patient.getId());
+
+        mockMvc.perform(get("/appointments/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"appointments.csv\""))
+                .andExpect(content().string("""
+                        id,patientId,doctorId,date,status
+                        %1$d,%3$d,%4$d,2030-03-14T10:00,Scheduled
+                        %2$d,%3$d,%4$d,2030-03-14T11:00,Cancelled
+                        """.formatted(first.getId(), second.getId(), patient.getId(), doctor.getId())));
+    }
+
+    @Test
+    void csvQuotesFieldsWithCommasQuotesAndNewlines() throws Exception {
+        Patient patient = patientRepository.save(newPatient("Grace"));
+        MedicalRecord record = medicalRecordRepository.save(
+                newMedicalRecord(patient, "Flu, severe", "Rest \"at home\"\nand fluids"));
+        MedicalRecord plain = medicalRecordRepository.save(newMedicalRecord(patient, "Cold", "Rest"));
+
+        mockMvc.perform(get("/medicalRecords/export").param("format", "CSV"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("""
+                        id,patientId,diagnosis,treatment,date
+                        %1$d,%3$d,"Flu, severe","Rest ""at home""
+                        and fluids",2026-01-10
+                        %2$d,%3$d,Cold,Rest,2026-01-10
+                        """.formatted(record.getId(), plain.getId(), patient.getId())));
+
+        List<JsonNode> rows = ndjson(mockMvc.perform(get("/medicalRecords/export").param("format", "ndjson"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString());
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).get("diagnosis").asText()).isEqualTo("Flu, severe");
+        assertThat(rows.get(0).get("treatment").asText()).isEqualTo("Rest \"at home\"\nand fluids");
+    }
+
+    // The export clears the persistence context every 1,000 prescriptions; rows after a clear
+    // must still carry their own patient, doctor and medication.
+    @Test
+    void prescriptionExportCrossesThePersistenceContextClears() throws Exception {
+        List<Patient> patients = new ArrayList<>();
+        List<Doctor> doctors = new ArrayList<>();
+        List<Medication> medications = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            patients.add(patientRepository.save(newPatient("Patient" + i)));
+            doctors.add(doctorRepository.save(newDoctor(i)));
+            medications.add(medicationRepository.save(new Medication("Medication" + i, i + "0mg", "Export test", 100,
+                    LocalDate.now().plusYears(1))));
+        }
+        List<Prescription> prescriptions = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            prescriptions.add(new Prescription(patients.get(i % 7), doctors.get(i % 5), medications.get(i % 3),
+                    LocalDate.of(2026, 1, 1).plusDays(i % 365)));
+        }
+        prescriptions = prescriptionRepository.saveAll(prescriptions);
+
+        List<JsonNode> rows = ndjson(mockMvc.perform(get("/prescriptions/export"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertThat(rows).hasSize(prescriptions.size());
+        for (int i = 0; i < rows.size(); i++) {
+            JsonNode row = rows.get(i);
+            Prescription expected = prescriptions.get(i);
+            assertThat(row.get("id").asLong()).isEqualTo(expected.getId());
+            assertThat(row.at("/patient/firstName").asText()).isEqualTo(expected.getPatient().getFirstName());
+            assertThat(row.at("/doctor/email").asText()).isEqualTo(expected.getDoctor().getEmail());
+            assertThat(row.at("/medication/name").asText()).isEqualTo(expected.getMedication().getName());
+        }
+
+        String[] lines = mockMvc.perform(get("/prescriptions/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertThat(lines).hasSize(prescriptions.size() + 1);
+        Prescription last = prescriptions.get(prescriptions.size() - 1);
+        assertThat(lines[lines.length - 1]).isEqualTo(String.join(",",
+                String.valueOf(last.getId()),
+                String.valueOf(last.getPatient().getId()), last.getPatient().getFirstName(), "Test",
+                String.valueOf(last.getDoctor().getId()), "Doctor", "Test",
+                String.valueOf(last.getMedication().getId()), last.getMedication().getName(),
+                last.getMedication().getDosage(), last.getPrescriptionDate().toString()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/appointments/export", "/medicalRecords/export", "/prescriptions/export"})
+    void unknownFormatIsRejected(String path) throws Exception {
+        mockMvc.perform(get(path).param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_DISPOSITION))
+                .andExpect(content().string("Error: Unsupported export format: xml. Use ndjson or csv."));
+    }
+
+    private List<JsonNode> ndjson(String body) throws Exception {
+        assertThat(body).endsWith("\n");
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            rows.add(objectMapper.readTree(line));
+        }
+        return rows;
+    }
+
+    private Patient newPatient(String firstName) {
+        Patient patient = new Patient();
+        patient.setFirstName(firstName);
+        patient.setLastName("Test");
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender("Other");
+        patient.setPhone("5550000000");
+        return patient;
+    }
+
+    private Doctor newDoctor(int index) {
+        Doctor doctor = new Doctor();
+        doctor.setFirstName("Doctor");
+        doctor.setLastName("Test");
+        doctor.setSpecialty("Cardiology");
+        doctor.setPhone("5551111111");
+        doctor.setEmail("doctor" + index + "@export.healthflow.com");
+        return doctor;
+    }
+
+    private Appointment newAppointment(Patient patient, Doctor doctor, LocalDateTime date, String status) {
+        Appointment appointment = new Appointment();
+        appointment.setPatient(patient);
+        appointment.setDoctor(doctor);
+        appointment.setDate(date);
+        appointment.setStatus(status);
+        return appointment;
+    }
+
+    private MedicalRecord newMedicalRecord(Patient patient, String diagnosis, String treatment) {
+        MedicalRecord record = new MedicalRecord();
+        record.setPatient(patient);
+        record.setDiagnosis(diagnosis);
+        record.setTreatment(treatment);
+        record.setDate(LocalDate.of(2026, 1, 10));
+        return record;
+    }
+}
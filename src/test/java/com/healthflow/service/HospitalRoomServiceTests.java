@@ -0,0 +1,147 @@
+package com.healthflow.service;
+
+import com.healthflow.config.CacheConfig;
+import com.healthflow.models.HospitalRoom;
+import com.healthflow.models.Patient;
+import com.healthflow.repository.HospitalRoomRepository;
+import com.healthflow.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({CacheConfig.class, HospitalRoomService.class, RoomAvailabilityIndex.class, StatisticsService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class HospitalRoomServiceTests {
+
+    private static final int ROOMS = 20;
+    private static final int PATIENTS = 64;
+
+    @Autowired
+    private HospitalRoomService hospitalRoomService;
+
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private HospitalRoomRepository hospitalRoomRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentAdmissionsNeverOverAssignRooms() throws Exception {
+        for (int i = 0; i < ROOMS; i++) {
+            hospitalRoomService.saveRoom(newRoom("ICU-" + i, "ICU"));
+        }
+        List<Long> patientIds = new ArrayList<>();
+        for (int i = 0; i < PATIENTS; i++) {
+            patientIds.add(patientRepository.save(newPatient("Icu" + i)).getId());
+        }
+
+        Set<Long> admittedRooms = ConcurrentHashMap.newKeySet();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(PATIENTS);
+        List<Future<?>> admissions = new ArrayList<>();
+        for (Long patientId : patientIds) {
+            admissions.add(executor.submit(() -> {
+                start.await();
+                try {
+                    assertThat(admittedRooms.add(hospitalRoomService.admitPatientToFreeRoom("icu", patientId).getId())).isTrue();
+                } catch (RoomUnavailableException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> admission : admissions) {
+            admission.get();
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(admittedRooms).hasSize(ROOMS);
+        assertThat(rejected).hasValue(PATIENTS - ROOMS);
+        assertThat(availabilityIndex.findFree("ICU", 10)).isEmpty();
+        assertThat(hospitalRoomRepository.findAllById(admittedRooms))
+                .allSatisfy(room -> assertThat(room.getAvailability()).isFalse());
+        assertThat(patientRepository.findAllById(patientIds))
+                .filteredOn(patient -> patient.getHospitalRoom() != null)
+                .hasSize(ROOMS);
+    }
+
+    @Test
+    void admittingToAnOccupiedRoomFailsUntilThePatientIsDischarged() {
+        Long roomId = hospitalRoomService.saveRoom(newRoom("W-1", "Ward")).getId();
+        Long firstId = patientRepository.save(newPatient("First")).getId();
+        Long secondId = patientRepository.save(newPatient("Second")).getId();
+
+        hospitalRoomService.admitPatient(roomId, firstId);
+        assertThat(availabilityIndex.isFree(roomId)).isFalse();
+        assertThatThrownBy(() -> hospitalRoomService.admitPatient(roomId, secondId))
+                .isInstanceOf(RoomUnavailableException.class);
+
+        hospitalRoomService.dischargePatient(roomId, firstId);
+        assertThat(availabilityIndex.findFree("ward", 10)).containsExactly(roomId);
+        assertThat(hospitalRoomService.admitPatient(roomId, secondId).getAvailability()).isFalse();
+        assertThat(patientRepository.findById(firstId).orElseThrow().getHospitalRoom()).isNull();
+    }
+
+    @Test
+    void rolledBackAdmissionPutsTheRoomBackInTheIndex() {
+        Long roomId = hospitalRoomService.saveRoom(newRoom("S-1", "Surgery")).getId();
+        Long patientId = patientRepository.save(newPatient("Rollback")).getId();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            hospitalRoomService.admitPatient(roomId, patientId);
+            assertThat(availabilityIndex.isFree(roomId)).isFalse();
+            status.setRollbackOnly();
+        });
+
+        assertThat(availabilityIndex.isFree(roomId)).isTrue();
+        assertThat(hospitalRoomRepository.findById(roomId).orElseThrow().getAvailability()).isTrue();
+    }
+
+    private HospitalRoom newRoom(String roomNumber, String type) {
+        HospitalRoom room = new HospitalRoom();
+        room.setRoomNumber(roomNumber);
+        room.setType(type);
+        room.setAvailability(true);
+        return room;
+    }
+
+    private Patient newPatient(String firstName) {
+        Patient patient = new Patient();
+        patient.setFirstName(firstName);
+        patient.setLastName("Test");
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender("Other");
+        patient.setPhone("5550000000");
+        return patient;
+    }
+}
@@ -0,0 +1,146 @@
+package com.healthflow.service;
+
+import com.healthflow.config.IdempotencyFilter;
+import com.healthflow.repository.IdempotencyRecordRepository;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(IdempotencyStore.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyStoreTests {
+
+    private static final int DUPLICATES = 8;
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Test
+    void retriesGetTheStoredResponseWithoutRunningAgain() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        IdempotencyFilter filter = new IdempotencyFilter(store, Duration.ofSeconds(5));
+
+        MockHttpServletResponse first = post(filter, "retry-1", "{\"name\":\"a\"}", created(runs));
+        MockHttpServletResponse retry = post(filter, "retry-1", "{\"name\":\"a\"}", created(runs));
+
+        assertThat(runs).hasValue(1);
+        assertThat(first.getStatus()).isEqualTo(201);
+        assertThat(first.getHeader("Idempotent-Replayed")).isNull();
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getContentType()).startsWith("application/json");
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(retry.getHeader("Idempotent-Replayed")).isEqualTo("true");
+
+        // A fresh store has nothing in memory, as after a restart, and finds the response in the table.
+        IdempotencyStore restarted = new IdempotencyStore(repository, Duration.ofHours(1), DataSize.ofMegabytes(1));
+        MockHttpServletResponse afterRestart = post(new IdempotencyFilter(restarted, Duration.ofSeconds(5)),
+                "retry-1", "{\"name\":\"a\"}", created(runs));
+        assertThat(runs).hasValue(1);
+        assertThat(afterRestart.getContentAsString()).isEqualTo(first.getContentAsString());
+    }
+
+    @Test
+    void reusingAKeyForADifferentRequestIsRejected() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        IdempotencyFilter filter = new IdempotencyFilter(store, Duration.ofSeconds(5));
+
+        post(filter, "reuse-1", "{\"name\":\"a\"}", created(runs));
+        MockHttpServletResponse reused = post(filter, "reuse-1", "{\"name\":\"b\"}", created(runs));
+
+        assertThat(runs).hasValue(1);
+        assertThat(reused.getStatus()).isEqualTo(422);
+    }
+
+    @Test
+    void serverErrorsAreNotStored() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        IdempotencyFilter filter = new IdempotencyFilter(store, Duration.ofSeconds(5));
+
+        MockHttpServletResponse failed = post(filter, "error-1", "{}", (request, response) -> {
+            runs.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(503);
+        });
+        MockHttpServletResponse retried = post(filter, "error-1", "{}", created(runs));
+
+        assertThat(failed.getStatus()).isEqualTo(503);
+        assertThat(retried.getStatus()).isEqualTo(201);
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void concurrentDuplicatesRunOnce() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch handlerStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        FilterChain slowCreate = (request, response) -> {
+            handlerStarted.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            created(runs).doFilter(request, response);
+        };
+        IdempotencyFilter filter = new IdempotencyFilter(store, Duration.ofSeconds(5));
+
+        ExecutorService executor = Executors.newFixedThreadPool(DUPLICATES);
+        List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < DUPLICATES; i++) {
+            responses.add(executor.submit(() -> post(filter, "concurrent-1", "{}", slowCreate)));
+        }
+        assertThat(handlerStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+
+        for (Future<MockHttpServletResponse> response : responses) {
+            assertThat(response.get(10, TimeUnit.SECONDS).getStatus()).isEqualTo(201);
+        }
+        executor.shutdown();
+        assertThat(runs).hasValue(1);
+    }
+
+    private static FilterChain created(AtomicInteger runs) {
+        return (request, response) -> {
+            int run = runs.incrementAndGet();
+            request.getInputStream().readAllBytes();
+            response.setContentType("application/json");
+            ((HttpServletResponse) response).setStatus(201);
+            response.getOutputStream().write(("{\"id\":" + run + "}").getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static MockHttpServletResponse post(IdempotencyFilter filter, String key, String body, FilterChain chain)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/appointments");
+        request.addHeader("Idempotency-Key", key);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
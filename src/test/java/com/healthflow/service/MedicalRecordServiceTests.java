@@ -0,0 +1,187 @@
+package com.healthflow.service;
+
+import com.healthflow.dto.CursorPage;
+import com.healthflow.dto.MedicalRecordDTO;
+import com.healthflow.dto.SyncPage;
+import com.healthflow.models.MedicalRecord;
+import com.healthflow.models.Patient;
+import com.healthflow.repository.MedicalRecordRepository;
+import com.healthflow.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import(MedicalRecordService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MedicalRecordServiceTests {
+
+    @Autowired
+    private MedicalRecordService medicalRecordService;
+
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void historyPagesNewestFirstWithUndatedRecordsLast() {
+        Patient patient = newPatient("History");
+        Patient other = newPatient("Other");
+        MedicalRecord undated = save(patient, null);
+        MedicalRecord march = save(patient, LocalDate.of(2024, 3, 1));
+        MedicalRecord januaryFirst = save(patient, LocalDate.of(2024, 1, 1));
+        MedicalRecord januarySecond = save(patient, LocalDate.of(2024, 1, 1));
+        save(other, LocalDate.of(2024, 2, 1));
+        MedicalRecord december = save(patient, LocalDate.of(2023, 12, 24));
+        MedicalRecord undatedLater = save(patient, null);
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<MedicalRecordDTO> page = medicalRecordService.getPatientHistory(patient.getId(), cursor, 2);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(2);
+            page.items().forEach(record -> seen.add(record.getId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactly(march.getId(), januarySecond.getId(), januaryFirst.getId(),
+                december.getId(), undatedLater.getId(), undated.getId());
+    }
+
+    @Test
+    void changesSinceResumeAfterTheLastRecordReceived() {
+        Patient patient = newPatient("Sync");
+        LocalDateTime lastSync = LocalDateTime.of(2024, 5, 1, 10, 0);
+        touch(save(patient, LocalDate.of(2024, 4, 30)), lastSync);
+        MedicalRecord edited = touch(save(patient, LocalDate.of(2024, 5, 1)), lastSync.plusMinutes(1));
+        MedicalRecord addedFirst = touch(save(patient, LocalDate.of(2024, 5, 2)), lastSync.plusMinutes(2));
+        MedicalRecord addedSecond = touch(save(patient, LocalDate.of(2024, 5, 3)), lastSync.plusMinutes(2));
+
+        SyncPage<MedicalRecordDTO> first = medicalRecordService.getPatientHistoryChanges(patient.getId(), lastSync.toString(), null, 2);
+        assertThat(ids(first)).containsExactly(edited.getId(), addedFirst.getId());
+        assertThat(ids(medicalRecordService.getPatientHistoryChanges(patient.getId(), lastSync.toString(), first.nextCursor(), 2)))
+                .containsExactly(addedSecond.getId());
+
+        // A client that stops after the first page resumes from its sync cursor; the record updated in the same instant is not skipped
+        SyncPage<MedicalRecordDTO> resumed = medicalRecordService.getPatientHistoryChanges(patient.getId(), first.syncCursor(), null, 2);
+        assertThat(ids(resumed)).containsExactly(addedSecond.getId());
+        assertThat(resumed.nextCursor()).isNull();
+
+        SyncPage<MedicalRecordDTO> idle = medicalRecordService.getPatientHistoryChanges(patient.getId(), resumed.syncCursor(), null, 2);
+        assertThat(idle.items()).isEmpty();
+        assertThat(idle.syncCursor()).isEqualTo(resumed.syncCursor());
+
+        touch(addedFirst, lastSync.plusMinutes(3));
+        assertThat(ids(medicalRecordService.getPatientHistoryChanges(patient.getId(), idle.syncCursor(), null, 2)))
+                .containsExactly(addedFirst.getId());
+    }
+
+    @Test
+    void deletionsAreReportedInOrderWithTheUpdates() {
+        Patient patient = newPatient("Tombstone");
+        LocalDateTime lastSync = LocalDateTime.of(2024, 5, 1, 10, 0);
+        MedicalRecord edited = touch(save(patient, LocalDate.of(2024, 5, 1)), lastSync.plusMinutes(1));
+        MedicalRecord deleted = touch(save(patient, LocalDate.of(2024, 5, 2)), lastSync.plusMinutes(1));
+        MedicalRecord added = touch(save(patient, LocalDate.of(2024, 5, 3)), lastSync.plusMinutes(3));
+
+        assertThat(medicalRecordService.deleteMedicalRecord(deleted.getId())).isTrue();
+        assertThat(medicalRecordService.deleteMedicalRecord(deleted.getId())).isFalse();
+        assertThat(medicalRecordRepository.existsById(deleted.getId())).isFalse();
+        jdbcTemplate.update("update medical_record_deletion set deleted_at = ? where record_id = ?",
+                lastSync.plusMinutes(2), deleted.getId());
+
+        SyncPage<MedicalRecordDTO> first = medicalRecordService.getPatientHistoryChanges(patient.getId(), lastSync.toString(), null, 1);
+        assertThat(ids(first)).containsExactly(edited.getId());
+        assertThat(first.deletedIds()).isEmpty();
+        SyncPage<MedicalRecordDTO> second = medicalRecordService.getPatientHistoryChanges(patient.getId(), lastSync.toString(), first.nextCursor(), 1);
+        assertThat(second.items()).isEmpty();
+        assertThat(second.deletedIds()).containsExactly(deleted.getId());
+        SyncPage<MedicalRecordDTO> third = medicalRecordService.getPatientHistoryChanges(patient.getId(), lastSync.toString(), second.nextCursor(), 1);
+        assertThat(ids(third)).containsExactly(added.getId());
+        assertThat(third.nextCursor()).isNull();
+
+        // A client that stopped after the deletion resumes after it
+        SyncPage<MedicalRecordDTO> resumed = medicalRecordService.getPatientHistoryChanges(patient.getId(), second.syncCursor(), null, 5);
+        assertThat(ids(resumed)).containsExactly(added.getId());
+        assertThat(resumed.deletedIds()).isEmpty();
+    }
+
+    @Test
+    void changesCommittedLateWithinTheSafetyWindowAreNotSkipped() {
+        Patient patient = newPatient("Late");
+        LocalDateTime now = LocalDateTime.now();
+        MedicalRecord early = touch(save(patient, LocalDate.of(2024, 5, 1)), now.minusMinutes(10));
+        MedicalRecord recent = touch(save(patient, LocalDate.of(2024, 5, 2)), now.minusSeconds(5));
+
+        SyncPage<MedicalRecordDTO> first = medicalRecordService.getPatientHistoryChanges(patient.getId(), now.minusHours(1).toString(), null, 10);
+        assertThat(ids(first)).containsExactly(early.getId(), recent.getId());
+
+        // Stamped before the recent record at flush, but only committed after the first sync
+        MedicalRecord late = touch(save(patient, LocalDate.of(2024, 5, 3)), now.minusSeconds(10));
+
+        SyncPage<MedicalRecordDTO> second = medicalRecordService.getPatientHistoryChanges(patient.getId(), first.syncCursor(), null, 10);
+        assertThat(ids(second)).containsExactly(late.getId(), recent.getId());
+
+        // Until they leave the window they are sent again; changes older than it are not
+        assertThat(ids(medicalRecordService.getPatientHistoryChanges(patient.getId(), second.syncCursor(), null, 10)))
+                .containsExactly(late.getId(), recent.getId());
+    }
+
+    @Test
+    void historyQueryUsesThePatientDateIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "explain select id from medical_record where patient_id = 1 order by date desc, id desc", String.class);
+        assertThat(plan).containsIgnoringCase("idx_medical_record_patient_date");
+    }
+
+    @Test
+    void unknownPatientsAndMalformedCursorsAreRejected() {
+        Patient patient = newPatient("Cursor");
+        assertThatThrownBy(() -> medicalRecordService.getPatientHistory(-1L, null, null))
+                .hasMessage("Patient not found with ID: -1");
+        assertThatThrownBy(() -> medicalRecordService.getPatientHistory(patient.getId(), CursorPage.encodeCursor("yesterday", 5), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> medicalRecordService.getPatientHistoryChanges(patient.getId(), "yesterday", null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private MedicalRecord save(Patient patient, LocalDate date) {
+        return medicalRecordRepository.save(new MedicalRecord(null, patient, "Checkup", "Rest", date, null, null));
+    }
+
+    private MedicalRecord touch(MedicalRecord record, LocalDateTime updatedAt) {
+        jdbcTemplate.update("update medical_record set updated_at = ? where id = ?", updatedAt, record.getId());
+        return record;
+    }
+
+    private static List<Long> ids(SyncPage<MedicalRecordDTO> page) {
+        return page.items().stream().map(MedicalRecordDTO::getId).toList();
+    }
+
+    private Patient newPatient(String firstName) {
+        Patient patient = new Patient();
+        patient.setFirstName(firstName);
+        patient.setLastName("Test");
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender("Other");
+        patient.setPhone("5550000000");
+        return patientRepository.save(patient);
+    }
+}
@@ -0,0 +1,155 @@
+package com.healthflow.service;
+
+import com.healthflow.config.CacheConfig;
+import com.healthflow.dto.CursorPage;
+import com.healthflow.dto.ExpiringMedicationDTO;
+import com.healthflow.models.Medication;
+import com.healthflow.repository.MedicationExpiryScanRepository;
+import com.healthflow.repository.MedicationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({CacheConfig.class, MedicationService.class, MedicationExpiryTracker.class})
+@TestPropertySource(properties = "healthflow.medications.expiry-warning-days=7")
+@RecordApplicationEvents
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MedicationExpiryTrackerTests {
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private MedicationExpiryTracker expiryTracker;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private MedicationExpiryScanRepository scanRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    // The context's own tracker reads the stored progress when it is rebuilt, so no test leaves any behind.
+    @AfterEach
+    void forgetScanProgress() {
+        scanRepository.deleteAll();
+    }
+
+    @Test
+    void scansAnnounceEachMedicationOnceAsItsDateComesDue() {
+        LocalDate today = LocalDate.now();
+        Medication expired = medicationRepository.save(newMedication("Expired", today.minusDays(1)));
+        expiryTracker.rebuild();
+        Medication soon = medicationService.saveMedication(newMedication("Soon", today.plusDays(3)));
+        Medication later = medicationService.saveMedication(newMedication("Later", today.plusDays(20)));
+        Medication distant = medicationService.saveMedication(newMedication("Distant", today.plusDays(60)));
+
+        expiryTracker.scan(today);
+        assertThat(expiredIds()).containsExactly(expired.getId());
+        assertThat(expiringIds()).containsExactly(soon.getId());
+
+        expiryTracker.scan(today);
+        assertThat(expiredIds()).hasSize(1);
+        assertThat(expiringIds()).hasSize(1);
+
+        expiryTracker.scan(today.plusDays(14));
+        assertThat(expiredIds()).containsExactly(expired.getId(), soon.getId());
+        assertThat(expiringIds()).containsExactly(soon.getId(), later.getId());
+
+        // Moving a date into a window the scan has already passed is announced without waiting for the next scan.
+        distant.setExpirationDate(today.plusDays(16));
+        medicationService.updateMedication(distant.getId(), distant, null);
+        assertThat(expiringIds()).containsExactly(soon.getId(), later.getId(), distant.getId());
+
+        medicationService.deleteMedication(later.getId());
+        assertThat(expiryTracker.findExpiring(today.plusDays(14), 7, true, null, null).items())
+                .extracting(ExpiringMedicationDTO::id)
+                .containsExactly(expired.getId(), soon.getId(), distant.getId());
+    }
+
+    @Test
+    void aRestartContinuesWhereTheLastScanStopped() {
+        LocalDate today = LocalDate.now().plusYears(10);
+        Medication expired = medicationRepository.save(newMedication("ExpiredBeforeRestart", today.minusDays(1)));
+        Medication due = medicationRepository.save(newMedication("DueAfterRestart", today.plusDays(10)));
+        List<Object> beforeRestart = new ArrayList<>();
+        MedicationExpiryTracker running = newTracker(beforeRestart);
+        running.scan(today);
+        assertThat(beforeRestart).contains(new MedicationExpiredEvent(expired.getId(), "ExpiredBeforeRestart", today.minusDays(1)));
+
+        List<Object> afterRestart = new ArrayList<>();
+        MedicationExpiryTracker restarted = newTracker(afterRestart);
+        restarted.scan(today);
+        assertThat(afterRestart).isEmpty();
+
+        restarted.scan(today.plusDays(3));
+        assertThat(afterRestart).singleElement()
+                .isEqualTo(new MedicationExpiringEvent(due.getId(), "DueAfterRestart", today.plusDays(10), 7));
+    }
+
+    @Test
+    void expiringMedicationsArePagedSoonestFirst() {
+        LocalDate today = LocalDate.now().plusYears(5);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 7; i >= 1; i--) {
+            ids.add(0, medicationService.saveMedication(newMedication("Batch" + i, today.plusDays(i))).getId());
+        }
+        medicationService.saveMedication(newMedication("OutOfWindow", today.plusDays(30)));
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<ExpiringMedicationDTO> page = expiryTracker.findExpiring(today, 10, false, cursor, 3);
+            assertThat(page.items()).hasSizeLessThanOrEqualTo(3).noneMatch(ExpiringMedicationDTO::expired);
+            page.items().forEach(medication -> seen.add(medication.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(ids);
+        assertThat(expiryTracker.findExpiring(today, 1, false, null, null).items())
+                .singleElement()
+                .satisfies(medication -> assertThat(medication.daysUntilExpiry()).isEqualTo(1));
+        assertThatThrownBy(() -> expiryTracker.findExpiring(today, -1, true, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private MedicationExpiryTracker newTracker(List<Object> published) {
+        MedicationExpiryTracker tracker = new MedicationExpiryTracker(medicationRepository, scanRepository,
+                published::add, transactionManager, 7);
+        tracker.rebuild();
+        return tracker;
+    }
+
+    private List<Long> expiredIds() {
+        return events.stream(MedicationExpiredEvent.class).map(MedicationExpiredEvent::medicationId).toList();
+    }
+
+    private List<Long> expiringIds() {
+        return events.stream(MedicationExpiringEvent.class).map(MedicationExpiringEvent::medicationId).toList();
+    }
+
+    private Medication newMedication(String name, LocalDate expirationDate) {
+        return new Medication(name, "10mg", null, 100, expirationDate);
+    }
+}
@@ -0,0 +1,125 @@
+package com.healthflow.service;
+
+import com.healthflow.config.CacheConfig;
+import com.healthflow.models.Medication;
+import com.healthflow.models.StockReservation;
+import com.healthflow.repository.MedicationRepository;
+import com.healthflow.repository.StockReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({CacheConfig.class, MedicationService.class, MedicationExpiryTracker.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MedicationServiceTests {
+
+    private static final int DISPENSERS = 8;
+    private static final int ATTEMPTS_PER_DISPENSER = 25;
+    private static final int INITIAL_STOCK = 150;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Test
+    void concurrentDispensingAndReservationsNeverOversell() throws Exception {
+        Long id = medicationRepository.save(newMedication(INITIAL_STOCK)).getId();
+        AtomicInteger dispensed = new AtomicInteger();
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(DISPENSERS);
+
+        List<Future<?>> dispensers = new ArrayList<>();
+        for (int i = 0; i < DISPENSERS; i++) {
+            boolean reserving = i % 2 == 0;
+            dispensers.add(executor.submit(() -> {
+                start.await();
+                for (int attempt = 0; attempt < ATTEMPTS_PER_DISPENSER; attempt++) {
+                    try {
+                        if (reserving) {
+                            medicationService.reserveStock(id, 1);
+                            reserved.incrementAndGet();
+                        } else {
+                            assertThat(medicationService.reduceStock(id, 1)).isGreaterThanOrEqualTo(0);
+                            dispensed.incrementAndGet();
+                        }
+                    } catch (IllegalArgumentException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> dispenser : dispensers) {
+            dispenser.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(dispensed.get() + reserved.get()).isEqualTo(INITIAL_STOCK);
+        assertThat(rejected.get()).isEqualTo(DISPENSERS * ATTEMPTS_PER_DISPENSER - INITIAL_STOCK);
+        assertThat(medicationRepository.findStockById(id)).contains(INITIAL_STOCK - dispensed.get() - reserved.get());
+        assertThat(stockReservationRepository.count()).isEqualTo(reserved.get());
+        stockReservationRepository.deleteAll();
+    }
+
+    @Test
+    void reservationsHoldStockUntilCommittedOrReleased() {
+        Long id = medicationRepository.save(newMedication(10)).getId();
+
+        StockReservation committed = medicationService.reserveStock(id, 4);
+        StockReservation released = medicationService.reserveStock(id, 5);
+        assertThat(medicationRepository.findStockById(id)).contains(1);
+        assertThatThrownBy(() -> medicationService.reserveStock(id, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        medicationService.commitReservation(committed.getId());
+        assertThat(medicationService.releaseReservation(released.getId()).stock()).isEqualTo(6);
+        assertThat(stockReservationRepository.count()).isZero();
+    }
+
+    @Test
+    void updatesCheckTheExpectedVersionAndAtomicStockChangesBumpIt() {
+        Medication medication = medicationService.saveMedication(newMedication(10));
+        Long id = medication.getId();
+        assertThat(medicationService.getMedicationVersion(id)).isZero();
+
+        medicationService.reduceStock(id, 1);
+        assertThat(medicationService.getMedicationVersion(id)).isEqualTo(1);
+
+        medication.setStock(20);
+        assertThatThrownBy(() -> medicationService.updateMedication(id, medication, 0L))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(medicationService.updateMedication(id, medication, 1L).getVersion()).isEqualTo(2);
+        assertThat(medicationRepository.findStockById(id)).contains(20);
+    }
+
+    private Medication newMedication(int stock) {
+        return new Medication("Amoxicillin", "500mg", "Antibiotic", stock, LocalDate.now().plusYears(1));
+    }
+}
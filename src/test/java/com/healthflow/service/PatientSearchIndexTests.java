@@ -0,0 +1,111 @@
+package com.healthflow.service;
+
+import com.healthflow.config.CacheConfig;
+import com.healthflow.models.Patient;
+import com.healthflow.repository.PatientRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({CacheConfig.class, PatientService.class, PatientSearchIndex.class, HospitalRoomService.class, RoomAvailabilityIndex.class, StatisticsService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PatientSearchIndexTests {
+
+    private static final int SYNTHETIC_PATIENTS = 5_000;
+    private static final String[] FIRST_NAMES = {"Ana", "Bruno", "Carla", "Diego", "Elena", "Felipe", "Gabriela", "Hugo"};
+    private static final String[] LAST_NAMES = {"Garcia", "Martinez", "Lopez", "Gonzalez", "Rodriguez", "Fernandez", "Perez", "Sanchez"};
+
+    @Autowired
+    private PatientService patientService;
+
+    @Autowired
+    private PatientSearchIndex searchIndex;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Test
+    void searchIgnoresAccentsAndRanksExactNamesFirst() {
+        Patient jose = patientService.savePatient(newPatient("José", "Núñez", "5551234567", "12 Rue de l'Église"));
+        Patient josefina = patientService.savePatient(newPatient("Josefina", "Ortiz", "5559876543", "7 Calle Mayor"));
+        Patient neighbour = patientService.savePatient(newPatient("Maria", "Joseph", "5550001111", "Jose Street 3"));
+
+        assertThat(ids(patientService.searchPatients("jose", null)))
+                .containsExactly(jose.getId(), josefina.getId(), neighbour.getId());
+        assertThat(ids(patientService.searchPatients("NUNEZ jo", null))).containsExactly(jose.getId());
+        assertThat(ids(patientService.searchPatients("eglise", null))).containsExactly(jose.getId());
+        assertThat(ids(patientService.searchPatients("987654", null))).containsExactly(josefina.getId());
+        assertThat(patientService.searchPatients("zz", null)).isEmpty();
+        assertThatThrownBy(() -> patientService.searchPatients("j", null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void updatesAndDeletesAreReflectedInResults() {
+        Patient patient = patientService.savePatient(newPatient("Wilhelmina", "Stark", "5552223333", null));
+        assertThat(ids(patientService.searchPatients("wilhel", null))).containsExactly(patient.getId());
+
+        patientService.updatePatient(patient.getId(), newPatient("Wilma", "Stark", "5552223333", null), null);
+        assertThat(patientService.searchPatients("wilhel", null)).isEmpty();
+        assertThat(ids(patientService.searchPatients("wilma", null))).containsExactly(patient.getId());
+
+        patientService.deletePatient(patient.getId());
+        assertThat(patientService.searchPatients("wilma", null)).isEmpty();
+        assertThat(patientRepository.existsById(patient.getId())).isFalse();
+    }
+
+    @Test
+    void searchFindsEveryQueryWordAmongManyPatients() {
+        for (long i = 0; i < SYNTHETIC_PATIENTS; i++) {
+            Patient patient = newPatient(FIRST_NAMES[(int) (i % FIRST_NAMES.length)] + (i % 997),
+                    LAST_NAMES[(int) (i / FIRST_NAMES.length % LAST_NAMES.length)],
+                    String.format("555%07d", i), i + " Avenida Central");
+            patient.setId(-1_000_000 - i);
+            searchIndex.put(patient);
+        }
+
+        // Ids are -1_000_000 - i, so the i-th synthetic patient is recovered with -1_000_000 - id
+        assertThat(searchIndex.search("lopez", PatientSearchIndex.MAX_LIMIT)).hasSize(PatientSearchIndex.MAX_LIMIT);
+        assertThat(searchIndex.search("gabriela12", PatientSearchIndex.DEFAULT_LIMIT))
+                .isNotEmpty()
+                .allSatisfy(id -> assertThat((-1_000_000 - id) % FIRST_NAMES.length).isEqualTo(6));
+        assertThat(searchIndex.search("5550004999", PatientSearchIndex.DEFAULT_LIMIT)).containsExactly(-1_004_999L);
+        assertThat(searchIndex.search("hugo perez 9", PatientSearchIndex.DEFAULT_LIMIT))
+                .isNotEmpty()
+                .allSatisfy(id -> {
+                    long i = -1_000_000 - id;
+                    assertThat(i % FIRST_NAMES.length).isEqualTo(7);
+                    assertThat(i / FIRST_NAMES.length % LAST_NAMES.length).isEqualTo(6);
+                });
+
+        for (long i = 0; i < SYNTHETIC_PATIENTS; i++) {
+            searchIndex.remove(-1_000_000 - i);
+        }
+        assertThat(searchIndex.search("555000", PatientSearchIndex.DEFAULT_LIMIT)).isEmpty();
+    }
+
+    private static List<Long> ids(List<Patient> patients) {
+        return patients.stream().map(Patient::getId).toList();
+    }
+
+    private Patient newPatient(String firstName, String lastName, String phone, String address) {
+        Patient patient = new Patient();
+        patient.setFirstName(firstName);
+        patient.setLastName(lastName);
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender("Other");
+        patient.setPhone(phone);
+        patient.setAddress(address);
+        return patient;
+    }
+}
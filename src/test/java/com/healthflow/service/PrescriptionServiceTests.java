@@ -0,0 +1,106 @@
+package com.healthflow.service;
+
+import com.healthflow.dto.CursorPage;
+import com.healthflow.dto.PrescriptionDTO;
+import com.healthflow.models.Doctor;
+import com.healthflow.models.HospitalRoom;
+import com.healthflow.models.Medication;
+import com.healthflow.models.Patient;
+import com.healthflow.models.Prescription;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({PrescriptionService.class, StatisticsService.class})
+class PrescriptionServiceTests {
+
+    @Autowired
+    private PrescriptionService prescriptionService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 40})
+    void listingPrescriptionsRunsOneStatementRegardlessOfRowCount(int rows) {
+        for (int i = 0; i < rows; i++) {
+            persistPrescription(i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        CursorPage<PrescriptionDTO> page = prescriptionService.getPrescriptions(null, rows);
+
+        assertThat(page.items()).hasSize(rows);
+        assertThat(page.items()).allSatisfy(prescription -> {
+            assertThat(prescription.patient().firstName()).startsWith("Patient");
+            assertThat(prescription.doctor().email()).endsWith("@healthflow.com");
+            assertThat(prescription.medication().name()).startsWith("Medication");
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findingPrescriptionByIdRunsOneStatement() {
+        Prescription prescription = persistPrescription(0);
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        assertThat(prescriptionService.getPrescriptionById(prescription.getId()))
+                .hasValueSatisfying(dto -> assertThat(dto.patient().id()).isNotNull());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private Prescription persistPrescription(int index) {
+        HospitalRoom room = new HospitalRoom();
+        room.setRoomNumber("R-" + index);
+        room.setType("General");
+        room.setAvailability(false);
+        entityManager.persist(room);
+
+        Patient patient = new Patient();
+        patient.setFirstName("Patient" + index);
+        patient.setLastName("Test");
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender("Other");
+        patient.setPhone("5550000000");
+        patient.setHospitalRoom(room);
+        entityManager.persist(patient);
+
+        Doctor doctor = new Doctor();
+        doctor.setFirstName("Doctor" + index);
+        doctor.setLastName("Test");
+        doctor.setSpecialty("Cardiology");
+        doctor.setPhone("5551111111");
+        doctor.setEmail("doctor" + index + "@healthflow.com");
+        entityManager.persist(doctor);
+
+        Medication medication = new Medication("Medication" + index, "10mg", "Test medication", 100,
+                LocalDate.now().plusYears(1));
+        entityManager.persist(medication);
+
+        return entityManager.persist(new Prescription(patient, doctor, medication, LocalDate.now()));
+    }
+}
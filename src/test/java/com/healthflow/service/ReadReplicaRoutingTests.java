@@ -0,0 +1,127 @@
+package com.healthflow.service;
+
+import com.healthflow.config.CacheConfig;
+import com.healthflow.config.ReadYourWritesFilter;
+import com.healthflow.config.ReplicaDataSourceConfig;
+import com.healthflow.config.ReplicaRoutingDataSource;
+import com.healthflow.models.Doctor;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs against two separate in-memory H2 databases; {@link #replicate()} stands in for replication by
+ * copying the primary onto the replica.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "healthflow.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReplicaDataSourceConfig.class, CacheConfig.class, DoctorService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadReplicaRoutingTests {
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @TempDir
+    private Path snapshotDirectory;
+
+    @BeforeEach
+    void clearDatabases() {
+        new JdbcTemplate(primary).update("DELETE FROM doctor");
+        replicate();
+    }
+
+    @Test
+    void readOnlyServiceCallsReadTheReplicaAndWritesGoToThePrimary() {
+        Long id = doctorService.saveDoctor(newDoctor("house@healthflow.com")).getId();
+
+        assertThat(doctorService.getDoctors(null, null).items()).isEmpty();
+        assertThatThrownBy(() -> doctorService.getDoctorVersion(id)).isInstanceOf(EntityNotFoundException.class);
+
+        ReplicaRoutingDataSource.pinToPrimary();
+        try {
+            assertThat(doctorService.getDoctorVersion(id)).isZero();
+        } finally {
+            ReplicaRoutingDataSource.unpin();
+        }
+
+        replicate();
+        assertThat(doctorService.getDoctors(null, null).items()).extracting(Doctor::getId).containsExactly(id);
+    }
+
+    @Test
+    void clientsReadTheirOwnWritesFromThePrimaryWithinTheWindow() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+        AtomicReference<Long> created = new AtomicReference<>();
+
+        MockHttpServletRequest write = new MockHttpServletRequest("POST", "/doctors");
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        filter.doFilter(write, writeResponse,
+                (request, response) -> created.set(doctorService.saveDoctor(newDoctor("wilson@healthflow.com")).getId()));
+        Cookie lastWrite = writeResponse.getCookies()[0];
+
+        MockHttpServletRequest recentReader = new MockHttpServletRequest("GET", "/doctors/" + created.get());
+        recentReader.setCookies(lastWrite);
+        filter.doFilter(recentReader, new MockHttpServletResponse(), readVersion(created.get()));
+
+        MockHttpServletRequest staleReader = new MockHttpServletRequest("GET", "/doctors/" + created.get());
+        staleReader.setCookies(new Cookie(lastWrite.getName(),
+                Long.toString(System.currentTimeMillis() - Duration.ofMinutes(1).toMillis())));
+        assertThatThrownBy(() -> filter.doFilter(staleReader, new MockHttpServletResponse(), readVersion(created.get())))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    private FilterChain readVersion(Long id) {
+        return (request, response) -> assertThat(doctorService.getDoctorVersion(id)).isZero();
+    }
+
+    private void replicate() {
+        String snapshot = snapshotDirectory.resolve("primary.sql").toString().replace("'", "''");
+        new JdbcTemplate(primary).execute("SCRIPT TO '" + snapshot + "'");
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("DROP ALL OBJECTS");
+        replicaJdbc.execute("RUNSCRIPT FROM '" + snapshot + "'");
+    }
+
+    private static Doctor newDoctor(String email) {
+        Doctor doctor = new Doctor();
+        doctor.setFirstName("Gregory");
+        doctor.setLastName("Test");
+        doctor.setSpecialty("Diagnostics");
+        doctor.setPhone("5551111111");
+        doctor.setEmail(email);
+        return doctor;
+    }
+}
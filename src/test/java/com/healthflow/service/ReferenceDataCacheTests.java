@@ -0,0 +1,167 @@
+package com.healthflow.service;
+
+import com.healthflow.config.CacheConfig;
+import com.healthflow.controller.CacheController;
+import com.healthflow.dto.CacheStatsDTO;
+import com.healthflow.models.Doctor;
+import com.healthflow.models.HospitalRoom;
+import com.healthflow.models.Medication;
+import com.healthflow.repository.MedicationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.cache.caffeine.spec=maximumSize=100,recordStats")
+@Import({CacheConfig.class, DoctorService.class, MedicationService.class, MedicationExpiryTracker.class,
+        HospitalRoomService.class, RoomAvailabilityIndex.class, StatisticsService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferenceDataCacheTests {
+
+    @Autowired
+    private DoctorService doctorService;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private HospitalRoomService hospitalRoomService;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void lookupsReturnCopiesSoChangingOneDoesNotChangeTheCache() {
+        Long id = doctorService.saveDoctor(newDoctor("copies")).getId();
+        CacheStatsDTO before = stats(CacheConfig.DOCTORS);
+
+        Doctor first = doctorService.getDoctorById(id);
+        first.setSpecialty("Changed by a caller");
+        Doctor second = doctorService.getDoctorById(id);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getSpecialty()).isEqualTo("Cardiology");
+        CacheStatsDTO after = stats(CacheConfig.DOCTORS);
+        assertThat(after.misses() - before.misses()).isEqualTo(1);
+        assertThat(after.hits() - before.hits()).isEqualTo(1);
+    }
+
+    @Test
+    void updatesAreVisibleOnTheNextLookup() {
+        Doctor doctor = doctorService.saveDoctor(newDoctor("updated"));
+        Long version = doctorService.getDoctorById(doctor.getId()).getVersion();
+
+        doctor.setSpecialty("Neurology");
+        doctorService.updateDoctor(doctor.getId(), doctor, version);
+        CacheStatsDTO before = stats(CacheConfig.DOCTORS);
+        Doctor cached = doctorService.getDoctorById(doctor.getId());
+
+        assertThat(cached.getSpecialty()).isEqualTo("Neurology");
+        assertThat(cached.getVersion()).isEqualTo(version + 1);
+        // Served from the entry the update put, not reloaded
+        assertThat(stats(CacheConfig.DOCTORS).hits() - before.hits()).isEqualTo(1);
+
+        doctorService.deleteDoctor(doctor.getId());
+        assertThat(cache(CacheConfig.DOCTORS).get(doctor.getId())).isNull();
+    }
+
+    @Test
+    void stockChangesAreVisibleOnTheNextLookup() {
+        Long id = medicationService.saveMedication(newMedication(10)).getId();
+        assertThat(medicationService.getMedicationById(id).getStock()).isEqualTo(10);
+
+        medicationService.reduceStock(id, 3);
+        assertThat(medicationService.getMedicationById(id).getStock()).isEqualTo(7);
+
+        medicationService.releaseReservation(medicationService.reserveStock(id, 2).getId());
+        medicationService.increaseStock(id, 5);
+        assertThat(medicationService.getMedicationById(id).getStock()).isEqualTo(12);
+    }
+
+    @Test
+    void rolledBackStockChangeKeepsTheCachedEntry() {
+        Long id = medicationService.saveMedication(newMedication(10)).getId();
+        medicationService.getMedicationById(id);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            medicationService.reduceStock(id, 4);
+            status.setRollbackOnly();
+        });
+
+        assertThat(cache(CacheConfig.MEDICATIONS).get(id, Medication.class))
+                .extracting(Medication::getStock).isEqualTo(10);
+        assertThat(medicationRepository.findStockById(id)).contains(10);
+    }
+
+    @Test
+    void freeRoomsAreCachedAsCopies() {
+        HospitalRoom room = new HospitalRoom();
+        room.setRoomNumber("C-1");
+        room.setType("Cache");
+        room.setAvailability(true);
+        Long id = hospitalRoomService.saveRoom(room).getId();
+
+        HospitalRoom listed = hospitalRoomService.findFreeRooms("cache", 10).get(0);
+        listed.setRoomNumber("Changed by a caller");
+
+        assertThat(hospitalRoomService.getRoomById(id).getRoomNumber()).isEqualTo("C-1");
+        assertThat(hospitalRoomService.findFreeRooms("cache", 10)).extracting(HospitalRoom::getRoomNumber).containsExactly("C-1");
+    }
+
+    @Test
+    void reportsEvictionsOnceTheCacheIsFull() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            ids.add(medicationService.saveMedication(newMedication(i)).getId());
+        }
+        ids.forEach(medicationService::getMedicationById);
+        cache(CacheConfig.MEDICATIONS).getNativeCache().cleanUp();
+
+        CacheStatsDTO stats = stats(CacheConfig.MEDICATIONS);
+        assertThat(stats.size()).isLessThanOrEqualTo(100);
+        assertThat(stats.evictions()).isGreaterThanOrEqualTo(50);
+    }
+
+    private CaffeineCache cache(String name) {
+        return (CaffeineCache) cacheManager.getCache(name);
+    }
+
+    private CacheStatsDTO stats(String name) {
+        return new CacheController(cacheManager).getCacheStats().getBody().stream()
+                .filter(stats -> stats.name().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private Doctor newDoctor(String name) {
+        Doctor doctor = new Doctor();
+        doctor.setFirstName(name);
+        doctor.setLastName("Test");
+        doctor.setSpecialty("Cardiology");
+        doctor.setPhone("5551111111");
+        doctor.setEmail(name + "@cache.healthflow.com");
+        return doctor;
+    }
+
+    private Medication newMedication(int stock) {
+        return new Medication("Amoxicillin", "500mg", "Antibiotic", stock, LocalDate.now().plusYears(1));
+    }
+}
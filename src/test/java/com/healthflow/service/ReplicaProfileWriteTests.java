@@ -0,0 +1,176 @@
+package com.healthflow.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Creates and updates every resource through the controllers with the {@code replica} profile, which
+ * turns open-in-view off: whatever a write maps into its response has to be loaded inside the service's
+ * transaction. As in the profile itself, the "replica" is a second pool on the same database.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-profile;DB_CLOSE_DELAY=-1",
+        "healthflow.datasource.replica.url=jdbc:h2:mem:replica-profile;DB_CLOSE_DELAY=-1",
+        "healthflow.journal.enabled=false"
+})
+@ActiveProfiles("replica")
+@AutoConfigureMockMvc
+class ReplicaProfileWriteTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long patientId;
+    private long doctorId;
+    private long medicationId;
+
+    @BeforeEach
+    void createReferencedResources() throws Exception {
+        patientId = create("/patients", patient("Replica"));
+        doctorId = create("/doctors", doctor("Cardiology"));
+        medicationId = create("/medications", medication(40));
+    }
+
+    @Test
+    void patientsDoctorsAndMedicationsAreCreatedAndUpdated() throws Exception {
+        update("/patients/" + patientId, patient("Renamed"), jsonPath("$.firstName").value("Renamed"));
+        update("/doctors/" + doctorId, doctor("Neurology"), jsonPath("$.specialty").value("Neurology"));
+        update("/medications/" + medicationId, medication(25), jsonPath("$.stock").value(25));
+
+        mockMvc.perform(post("/medications/{id}/dispense", medicationId).param("amount", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(20));
+    }
+
+    @Test
+    void hospitalRoomsAreCreatedUpdatedAndAdmitPatients() throws Exception {
+        long roomId = create("/hospitalRooms", """
+                {"roomNumber": "R-%d", "type": "Replica", "availability": true}""".formatted(patientId));
+        update("/hospitalRooms/" + roomId, """
+                {"roomNumber": "R-%d", "type": "Replica ICU", "availability": true}""".formatted(patientId),
+                jsonPath("$.type").value("Replica ICU"));
+
+        mockMvc.perform(post("/hospitalRooms/{id}/admissions", roomId).param("patientId", String.valueOf(patientId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availability").value(false));
+    }
+
+    @Test
+    void medicalRecordsAreCreatedAndUpdated() throws Exception {
+        long recordId = create("/medicalRecords", medicalRecord("Flu"));
+        update("/medicalRecords/" + recordId, medicalRecord("Bronchitis"), status().isOk());
+
+        mockMvc.perform(get("/medicalRecords/{id}", recordId))
+                .andExpect(jsonPath("$.diagnosis").value("Bronchitis"))
+                .andExpect(jsonPath("$.patientId").value(patientId));
+    }
+
+    @Test
+    void prescriptionsAreCreatedAndUpdated() throws Exception {
+        mockMvc.perform(post("/prescriptions").contentType(MediaType.APPLICATION_JSON).content(prescription("2026-01-10")))
+                .andExpect(status().isCreated());
+        long prescriptionId = lastId("/prescriptions");
+        update("/prescriptions/" + prescriptionId, prescription("2026-01-11"), status().isOk());
+
+        mockMvc.perform(get("/prescriptions/{id}", prescriptionId))
+                .andExpect(jsonPath("$.prescriptionDate").value("2026-01-11"))
+                .andExpect(jsonPath("$.patient.firstName").value("Replica"))
+                .andExpect(jsonPath("$.medication.id").value(medicationId));
+    }
+
+    @Test
+    void appointmentsAreCreatedAndUpdated() throws Exception {
+        long appointmentId = create("/appointments", appointment("2030-03-14T10:00:00", "Scheduled"));
+        update("/appointments/" + appointmentId, appointment("2030-03-14T11:00:00", "Cancelled"),
+                jsonPath("$.status").value("Cancelled"));
+    }
+
+    private long create(String path, String json) throws Exception {
+        String body = mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private void update(String path, String json, ResultMatcher expectation) throws Exception {
+        mockMvc.perform(put(path).contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk())
+                .andExpect(expectation);
+    }
+
+    // Some creates only answer with a message; the new row is the last one of the listing.
+    private long lastId(String path) throws Exception {
+        String after = null;
+        long last = -1;
+        do {
+            var request = get(path).param("limit", "500");
+            if (after != null) {
+                request.param("after", after);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            for (JsonNode item : page.get("items")) {
+                last = item.get("id").asLong();
+            }
+            after = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (after != null);
+        return last;
+    }
+
+    private String patient(String firstName) {
+        return """
+                {"firstName": "%s", "lastName": "Test", "dateOfBirth": "1980-01-01", "gender": "Other",
+                 "phone": "5550000000"}""".formatted(firstName);
+    }
+
+    private String doctor(String specialty) {
+        return """
+                {"firstName": "Grace", "lastName": "Test", "specialty": "%s", "phone": "5551111111",
+                 "email": "grace%d@replica.healthflow.com"}""".formatted(specialty, patientId);
+    }
+
+    private String medication(int stock) {
+        return """
+                {"name": "Amoxicillin", "dosage": "500mg", "stock": %d, "expirationDate": "%s"}"""
+                .formatted(stock, LocalDate.now().plusYears(1));
+    }
+
+    private String medicalRecord(String diagnosis) {
+        return """
+                {"patient": {"id": %d}, "diagnosis": "%s", "treatment": "Rest", "date": "2026-01-10"}"""
+                .formatted(patientId, diagnosis);
+    }
+
+    private String prescription(String date) {
+        return """
+                {"patient": {"id": %d}, "doctor": {"id": %d}, "medication": {"id": %d}, "prescriptionDate": "%s"}"""
+                .formatted(patientId, doctorId, medicationId, date);
+    }
+
+    private String appointment(String date, String status) {
+        return """
+                {"patientId": %d, "doctorId": %d, "date": "%s", "status": "%s"}"""
+                .formatted(patientId, doctorId, date, status);
+    }
+}
@@ -0,0 +1,119 @@
+package com.healthflow.service;
+
+import com.healthflow.migration.V3__AlignIdSequences;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The context only starts if Hibernate finds the migrated schema matching the entities, so these tests
+ * check what validation does not: that the lookups the application makes are index range scans.
+ */
+@DataJpaTest
+@Import(V3__AlignIdSequences.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SchemaMigrationTests {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migratesEmptyDatabaseToLatestVersion() {
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("9");
+    }
+
+    @Test
+    void appointmentsOfDoctorOnDayUseDoctorDateIndex() {
+        // As AppointmentService.findAppointments queries it
+        assertRangeScan("IDX_APPOINTMENT_DOCTOR_DATE", "select id from appointment where status in ('Scheduled') "
+                + "and doctor_id = 1 and date >= timestamp '2025-03-14 00:00:00' and date < timestamp '2025-03-15 00:00:00' "
+                + "and date is not null order by date, id");
+    }
+
+    @Test
+    void appointmentsOfPatientUsePatientDateIndex() {
+        assertRangeScan("IDX_APPOINTMENT_PATIENT_DATE", "select id from appointment where patient_id = 1 "
+                + "and date >= timestamp '2025-03-14 00:00:00' order by date");
+    }
+
+    @Test
+    void appointmentsInDateRangeUseDateIndex() {
+        assertRangeScan("IDX_APPOINTMENT_DATE", "select id from appointment where status in ('Scheduled') "
+                + "and date >= timestamp '2025-03-14 00:00:00' and date < timestamp '2025-03-15 00:00:00' order by date, id");
+    }
+
+    @Test
+    void prescriptionsOfPatientUsePatientDateIndex() {
+        assertRangeScan("IDX_PRESCRIPTION_PATIENT_DATE", "select id from prescription where patient_id = 1 "
+                + "order by prescription_date desc, id desc");
+    }
+
+    @Test
+    void prescriptionsOfMedicationInRangeUseMedicationDateIndex() {
+        assertRangeScan("IDX_PRESCRIPTION_MEDICATION_DATE", "select id from prescription where medication_id = 1 "
+                + "and prescription_date between date '2025-03-10' and date '2025-03-16' order by prescription_date");
+    }
+
+    @Test
+    void medicalHistoryOfPatientUsesPatientDateIndex() {
+        assertRangeScan("IDX_MEDICAL_RECORD_PATIENT_DATE", "select id from medical_record where patient_id = 1 "
+                + "and date < date '2025-03-14' order by date desc, id desc");
+    }
+
+    @Test
+    void deletedMedicalRecordsOfPatientUseDeletionIndex() {
+        assertRangeScan("IDX_MEDICAL_RECORD_DELETION_PATIENT", "select record_id from medical_record_deletion "
+                + "where patient_id = 1 and deleted_at >= timestamp '2025-03-14 10:00:00' order by deleted_at, record_id");
+    }
+
+    @Test
+    void expiringMedicationsUseExpirationIndex() {
+        assertRangeScan("IDX_MEDICATION_EXPIRATION", "select id from medication "
+                + "where expiration_date <= date '2025-04-01' order by expiration_date, id");
+    }
+
+    @Test
+    void upgradesDatabaseCreatedBeforeMigrations() {
+        DriverManagerDataSource legacy = new DriverManagerDataSource("jdbc:h2:mem:legacy;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate legacyJdbc = new JdbcTemplate(legacy);
+        // The schema ddl-auto=update left behind, with rows whose ids came from identity columns.
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline.sql")).execute(legacy);
+        for (int i = 0; i < 3; i++) {
+            legacyJdbc.update("insert into patient (first_name, last_name, date_of_birth, gender) "
+                    + "values ('Jane', 'Doe', date '1990-01-01', 'Female')");
+        }
+        legacyJdbc.update("insert into medical_record (patient_id, diagnosis, date) values (1, 'Flu', date '2020-01-01')");
+
+        Flyway upgrade = Flyway.configure()
+                .dataSource(legacy)
+                .baselineOnMigrate(true)
+                .javaMigrations(new V3__AlignIdSequences())
+                .load();
+        upgrade.migrate();
+
+        assertThat(upgrade.info().current().getVersion().getVersion()).isEqualTo("9");
+        assertThat(legacyJdbc.queryForObject("select version from patient where id = 1", Long.class)).isZero();
+        assertThat(legacyJdbc.queryForObject("select next value for patient_seq", Long.class)).isEqualTo(4L);
+        assertThat(legacyJdbc.queryForObject("select count(*) from medical_record where updated_at is null", Long.class)).isZero();
+    }
+
+    // H2 shows the conditions an index lookup starts from after the index name; a full scan shows the name alone.
+    private void assertRangeScan(String index, String query) {
+        String plan = jdbcTemplate.queryForObject("explain " + query, String.class);
+        assertThat(plan).containsPattern("/\\* PUBLIC\\." + index + "\\w*: ");
+    }
+}
@@ -0,0 +1,180 @@
+package com.healthflow.service;
+
+import com.healthflow.config.CacheConfig;
+import com.healthflow.dto.AppointmentStatsDTO;
+import com.healthflow.dto.OccupancyStatsDTO;
+import com.healthflow.dto.PrescriptionStatsDTO;
+import com.healthflow.models.Appointment;
+import com.healthflow.models.Doctor;
+import com.healthflow.models.HospitalRoom;
+import com.healthflow.models.Medication;
+import com.healthflow.models.Patient;
+import com.healthflow.models.Prescription;
+import com.healthflow.repository.AppointmentRepository;
+import com.healthflow.repository.DoctorRepository;
+import com.healthflow.repository.MedicationRepository;
+import com.healthflow.repository.PatientRepository;
+import com.healthflow.repository.PrescriptionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest
+@Import({CacheConfig.class, StatisticsService.class, HospitalRoomService.class, RoomAvailabilityIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StatisticsServiceTests {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 12);
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private HospitalRoomService hospitalRoomService;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private PrescriptionRepository prescriptionRepository;
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private PatientRepository patientRepository;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void countersFollowCommittedWrites() {
+        Doctor doctor = doctorRepository.save(newDoctor("counted"));
+        Patient patient = patientRepository.save(newPatient("Counted"));
+
+        Appointment morning = appointmentRepository.save(newAppointment(doctor, patient, 9, "SCHEDULED"));
+        statisticsService.appointmentSaved(morning);
+        Appointment noon = appointmentRepository.save(newAppointment(doctor, patient, 12, "SCHEDULED"));
+        statisticsService.appointmentSaved(noon);
+        assertThat(dayStats(doctor).byStatus()).isEqualTo(Map.of("SCHEDULED", 2L));
+
+        noon.setStatus("CANCELLED");
+        noon = appointmentRepository.save(noon);
+        statisticsService.appointmentSaved(noon);
+        statisticsService.appointmentSaved(noon);
+        assertThat(dayStats(doctor).byStatus()).isEqualTo(Map.of("SCHEDULED", 1L, "CANCELLED", 1L));
+
+        appointmentRepository.deleteById(morning.getId());
+        statisticsService.appointmentDeleted(morning.getId());
+        assertThat(dayStats(doctor).byStatus()).isEqualTo(Map.of("CANCELLED", 1L));
+        assertThat(dayStats(doctor).total()).isEqualTo(1);
+
+        Long roomId = hospitalRoomService.saveRoom(newRoom("B-1", "Burns")).getId();
+        hospitalRoomService.admitPatient(roomId, patient.getId());
+        assertThat(statisticsService.getOccupancy()).contains(new OccupancyStatsDTO("Burns", 1));
+        hospitalRoomService.dischargePatient(roomId, patient.getId());
+        assertThat(statisticsService.getOccupancy()).extracting(OccupancyStatsDTO::roomType).doesNotContain("Burns");
+        hospitalRoomService.deleteRoom(roomId);
+    }
+
+    @Test
+    void rolledBackWritesAreNotCounted() {
+        Doctor doctor = doctorRepository.save(newDoctor("rolledback"));
+        Patient patient = patientRepository.save(newPatient("Rolledback"));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            statisticsService.appointmentSaved(appointmentRepository.save(newAppointment(doctor, patient, 9, "SCHEDULED")));
+            status.setRollbackOnly();
+        });
+
+        assertThat(dayStats(doctor).total()).isZero();
+    }
+
+    @Test
+    void reconcilingCountsWritesTheCountersMissed() {
+        Doctor doctor = doctorRepository.save(newDoctor("missed"));
+        Patient patient = patientRepository.save(newPatient("Missed"));
+        Medication medication = medicationRepository.save(
+                new Medication("Missed", "10mg", "Test medication", 100, LocalDate.now().plusYears(1)));
+        appointmentRepository.save(newAppointment(doctor, patient, 9, "SCHEDULED"));
+        prescriptionRepository.save(new Prescription(patient, doctor, medication, DAY));
+        prescriptionRepository.save(new Prescription(patient, doctor, medication, DAY.plusDays(2)));
+
+        assertThat(dayStats(doctor).total()).isZero();
+
+        statisticsService.reconcile();
+
+        assertThat(dayStats(doctor).byStatus()).isEqualTo(Map.of("SCHEDULED", 1L));
+        assertThat(statisticsService.getPrescriptionStats(medication.getId(), DAY.minusWeeks(1), DAY))
+                .extracting(PrescriptionStatsDTO::weekStart, PrescriptionStatsDTO::prescriptions)
+                .containsExactly(
+                        tuple(LocalDate.of(2025, 3, 3), 0L),
+                        tuple(LocalDate.of(2025, 3, 10), 2L));
+    }
+
+    @Test
+    void rangesAreValidated() {
+        assertThatThrownBy(() -> statisticsService.getAppointmentStats(1L, DAY, DAY.minusDays(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> statisticsService.getAppointmentStats(1L, DAY, DAY.plusYears(2)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> statisticsService.getPrescriptionStats(null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private AppointmentStatsDTO dayStats(Doctor doctor) {
+        return statisticsService.getAppointmentStats(doctor.getId(), DAY, DAY).get(0);
+    }
+
+    private static Appointment newAppointment(Doctor doctor, Patient patient, int hour, String status) {
+        Appointment appointment = new Appointment();
+        appointment.setDoctor(doctor);
+        appointment.setPatient(patient);
+        appointment.setDate(DAY.atTime(hour, 0));
+        appointment.setStatus(status);
+        return appointment;
+    }
+
+    private static Doctor newDoctor(String name) {
+        Doctor doctor = new Doctor();
+        doctor.setFirstName(name);
+        doctor.setLastName("Test");
+        doctor.setSpecialty("Cardiology");
+        doctor.setPhone("5551111111");
+        doctor.setEmail(name + "@healthflow.com");
+        return doctor;
+    }
+
+    private static Patient newPatient(String firstName) {
+        Patient patient = new Patient();
+        patient.setFirstName(firstName);
+        patient.setLastName("Test");
+        patient.setDateOfBirth(LocalDate.of(1980, 1, 1));
+        patient.setGender("Other");
+        patient.setPhone("5550000000");
+        return patient;
+    }
+
+    private static HospitalRoom newRoom(String roomNumber, String type) {
+        HospitalRoom room = new HospitalRoom();
+        room.setRoomNumber(roomNumber);
+        room.setType(type);
+        room.setAvailability(true);
+        return room;
+    }
+}